@@ -0,0 +1,68 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ActionLog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.Logger;
+
+/**
+ * Compares the per-action cost of recording into the {@link ActionLog} ring buffer with the
+ * INFO logging {@code UIActions} used before, from several threads at once. The logger writes
+ * to a handler that formats and discards, so only formatting and handler contention are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ActionLogBenchmark {
+    private static final Logger logger = Logger.getLogger(ActionLogBenchmark.class.getName());
+    private static final String SELECTOR = "textarea#sb_form_q";
+    private static final String TEXT = "Vodafone";
+
+    static {
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.INFO);
+        logger.addHandler(new Handler() {
+            @Override
+            public synchronized void publish(LogRecord record) {
+                getFormatter().format(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        logger.getHandlers()[0].setFormatter(new SimpleFormatter());
+    }
+
+    @Benchmark
+    public void infoLog() {
+        logger.info("Sent keys" + TEXT + " to element " + SELECTOR);
+    }
+
+    @Benchmark
+    public void ringBuffer() {
+        ActionLog.record("sendKeys", SELECTOR, TEXT, System.nanoTime());
+    }
+}
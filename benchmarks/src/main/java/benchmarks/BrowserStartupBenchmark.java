@@ -0,0 +1,49 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures browser session startup and shutdown: a fresh launch per call versus a pooled lease.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BrowserStartupBenchmark {
+
+    @Param({"CHROME"})
+    public String browser;
+
+    @Benchmark
+    public void setWebDriverAndQuit() {
+        BrowserActions.setWebDriver(BrowserActions.Browsers.valueOf(browser));
+        BrowserActions.quitDriver();
+    }
+
+    @Benchmark
+    public void acquireAndReleasePooled() {
+        BrowserActions.acquireDriver(BrowserActions.Browsers.valueOf(browser));
+        BrowserActions.releaseDriver();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        BrowserActions.shutdownPool();
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import actions.UIActions;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Per-thread benchmark state: a fixture server and a headless browser bound to the
+ * benchmark thread through {@link BrowserActions}, positioned on the results fixture.
+ */
+@State(Scope.Thread)
+public class BrowserState {
+
+    /** Browser to benchmark, one of {@link BrowserActions.Browsers}. */
+    @Param({"CHROME"})
+    public String browser;
+
+    /** Wait mode used by {@link #uiActions}. */
+    @Param({"adaptive", "classic"})
+    public String waitMode;
+
+    public FixtureServer server;
+    public UIActions uiActions;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = FixtureServer.start();
+        BrowserActions.setWebDriver(BrowserActions.Browsers.valueOf(browser));
+        uiActions = new UIActions().withWaitMode(UIActions.WaitMode.valueOf(waitMode));
+        open("results.html");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        BrowserActions.quitDriver();
+        server.close();
+    }
+
+    /**
+     * Navigates the bound browser to a fixture page and waits for it to finish loading.
+     *
+     * @param page the fixture file name
+     */
+    public void open(String page) {
+        uiActions.navigateToPage(server.url(page));
+        WebDriver driver = BrowserActions.getDriver();
+        new WebDriverWait(driver, Duration.ofSeconds(10)).until(d -> d.getTitle().startsWith("Fixture"));
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import com.google.gson.JsonElement;
+import dataDriven.JsonDataReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the browser-free hot paths: test data lookups and configuration reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataAndConfigBenchmark {
+
+    /** Bound to the benchmark's own testData.json shape. */
+    public record TestData(String bingUrl, String searchWord, int expectedRelatedSearches,
+                           String expectedTextInRelatedSearches) {
+    }
+
+    @Benchmark
+    public JsonElement jsonGetJsonData() throws IOException {
+        return JsonDataReader.getJsonData("testData", "searchWord");
+    }
+
+    @Benchmark
+    public TestData jsonBind() throws IOException {
+        return JsonDataReader.bind("testData", TestData.class);
+    }
+
+    @Benchmark
+    public String configGetProperty() {
+        return ConfigReader.getProperty("searchBarLocator");
+    }
+}
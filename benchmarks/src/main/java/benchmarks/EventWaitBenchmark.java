@@ -0,0 +1,99 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import actions.Locator;
+import actions.UIActions;
+import actions.WaitEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how soon an element rendered {@code delayMs} after page load is detected by Selenium's
+ * {@code visibilityOfElementLocated}, by the adaptive polling {@link WaitEngine}, and by the event-driven
+ * {@code elementAppears} condition. Each call loads the delayed-render fixture and waits for {@code #late};
+ * subtract {@code navigateOnly} and {@code delayMs} to get the detection latency.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventWaitBenchmark {
+    private static final By late = By.id("late");
+    private static final Locator lateAppears =
+            Locator.of(UIActions.LocatorType.id, "late", UIActions.ExplicitWaitCondition.elementAppears);
+
+    @Param({"CHROME"})
+    public String browser;
+
+    @Param({"200", "1000"})
+    public int delayMs;
+
+    private FixtureServer server;
+    private WebDriver driver;
+    private WebDriverWait classicWait;
+    private WaitEngine waitEngine;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = FixtureServer.start();
+        BrowserActions.setWebDriver(BrowserActions.Browsers.valueOf(browser));
+        driver = BrowserActions.getDriver();
+        classicWait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        waitEngine = new WaitEngine(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        BrowserActions.quitDriver();
+        server.close();
+    }
+
+    @Benchmark
+    public void navigateOnly() {
+        load();
+    }
+
+    @Benchmark
+    public WebElement visibilityOfElementLocated() {
+        load();
+        return classicWait.until(ExpectedConditions.visibilityOfElementLocated(late));
+    }
+
+    @Benchmark
+    public WebElement adaptivePolling() {
+        load();
+        return waitEngine.waitFor(late, UIActions.ExplicitWaitCondition.visibilityOfElement);
+    }
+
+    @Benchmark
+    public WebElement elementAppears() {
+        load();
+        return waitEngine.waitForEvent(lateAppears, UIActions.ExplicitWaitCondition.elementAppears, null);
+    }
+
+    private void load() {
+        driver.navigate().to(server.url("delayed.html?delay=" + delayMs));
+    }
+}
@@ -0,0 +1,142 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import actions.DriverContext;
+import actions.Locator;
+import actions.UIActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to run a batch of light test tasks on the same number of browser sessions
+ * ({@code pool.maxSessionsPerBrowser}):
+ * <ul>
+ *     <li>{@code platformThreadsPerTest} - the {@code parallel="tests"} setup: one platform thread per
+ *     session, each holding its thread-bound driver while it runs its share of the tasks in sequence</li>
+ *     <li>{@code virtualThreadsScoped} - one virtual thread per task, each leasing a session through
+ *     {@link DriverContext} only while it needs one</li>
+ * </ul>
+ * {@code thinkMs} simulates the non-browser blocking work of a test (test data or API calls).
+ * Throughput is {@code tasks} divided by the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    private static final Locator results =
+            Locator.of(UIActions.LocatorType.css, "ol#b_results cite", UIActions.ExplicitWaitCondition.presenceOfElement);
+
+    @Param({"CHROME"})
+    public String browser;
+
+    @Param({"30"})
+    public int tasks;
+
+    @Param({"0", "200"})
+    public long thinkMs;
+
+    private int sessions;
+    private FixtureServer server;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        sessions = ConfigReader.getIntProperty("pool.maxSessionsPerBrowser", 3);
+        server = FixtureServer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        BrowserActions.shutdownPool();
+        server.close();
+    }
+
+    @Benchmark
+    public int platformThreadsPerTest() throws Exception {
+        BrowserActions.Browsers browsers = BrowserActions.Browsers.valueOf(browser);
+        ExecutorService executor = Executors.newFixedThreadPool(sessions);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int worker = 0; worker < sessions; worker++) {
+                int share = tasks / sessions + (worker < tasks % sessions ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    BrowserActions.acquireDriver(browsers);
+                    try {
+                        int found = 0;
+                        for (int i = 0; i < share; i++) {
+                            found += runTask();
+                        }
+                        return found;
+                    } finally {
+                        BrowserActions.releaseDriver();
+                    }
+                }));
+            }
+            return sum(futures);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int virtualThreadsScoped() throws Exception {
+        BrowserActions.Browsers browsers = BrowserActions.Browsers.valueOf(browser);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    think();
+                    return DriverContext.callWithLease(browsers, driver -> browse());
+                }));
+            }
+            return sum(futures);
+        }
+    }
+
+    private int runTask() throws InterruptedException {
+        think();
+        return browse();
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkMs > 0) {
+            Thread.sleep(thinkMs);
+        }
+    }
+
+    private int browse() {
+        UIActions uiActions = new UIActions("ExecutionModeBenchmark");
+        uiActions.navigateToPage(server.url("results.html"));
+        return uiActions.countElements(results);
+    }
+
+    private static int sum(List<Future<Integer>> futures) throws Exception {
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+}
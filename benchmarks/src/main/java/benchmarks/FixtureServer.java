@@ -0,0 +1,141 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP server that serves the static fixture pages from the classpath
+ * ({@code /fixtures/*}) on a free local port, so benchmarks run fully offline.
+ * Paths under {@code /heavy/} return generated assets of {@code ?kb=} kilobytes (default 256),
+ * typed by their extension, and every response is counted so benchmarks can report bytes served.
+ */
+public class FixtureServer implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(FixtureServer.class.getName());
+
+    private static final String HEAVY_PREFIX = "/heavy/";
+
+    private final HttpServer server;
+    private final AtomicLong requestsServed = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    private FixtureServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a server on a free loopback port.
+     *
+     * @return the running server
+     * @throws IOException if the server cannot bind
+     */
+    public static FixtureServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        FixtureServer fixtureServer = new FixtureServer(server);
+        server.createContext("/", fixtureServer::serve);
+        server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        logger.info("Fixture server listening on " + fixtureServer.baseUrl());
+        return fixtureServer;
+    }
+
+    /**
+     * @return the server's base URL, e.g. {@code http://127.0.0.1:51234}
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @param page the fixture file name, e.g. {@code results.html}
+     * @return the absolute URL of that fixture
+     */
+    public String url(String page) {
+        return baseUrl() + "/" + page;
+    }
+
+    /**
+     * @return the number of successful responses since the server started
+     */
+    public long requestsServed() {
+        return requestsServed.get();
+    }
+
+    /**
+     * @return the response body bytes sent since the server started
+     */
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith(HEAVY_PREFIX)) {
+            serveHeavy(exchange, path);
+            return;
+        }
+        String resource = "/fixtures" + (path.equals("/") ? "/home.html" : path);
+        try (InputStream in = FixtureServer.class.getResourceAsStream(resource)) {
+            if (in == null || resource.contains("..")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = in.readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", contentType(resource));
+            respond(exchange, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serveHeavy(HttpExchange exchange, String path) throws IOException {
+        try {
+            String query = exchange.getRequestURI().getQuery();
+            int kb = query != null && query.startsWith("kb=") ? Integer.parseInt(query.substring(3)) : 256;
+            byte[] body = new byte[kb * 1024];
+            new Random(path.hashCode()).nextBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", contentType(path));
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            respond(exchange, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        requestsServed.incrementAndGet();
+        bytesServed.addAndGet(body.length);
+    }
+
+    private static String contentType(String resource) {
+        if (resource.endsWith(".html")) return "text/html; charset=utf-8";
+        if (resource.endsWith(".js")) return "application/javascript";
+        if (resource.endsWith(".css")) return "text/css";
+        if (resource.endsWith(".png")) return "image/png";
+        if (resource.endsWith(".jpg")) return "image/jpeg";
+        if (resource.endsWith(".woff2")) return "font/woff2";
+        return "application/octet-stream";
+    }
+}
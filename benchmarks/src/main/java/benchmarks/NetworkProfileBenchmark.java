@@ -0,0 +1,74 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import actions.NetworkProfiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures loading a result page weighed down by images, a web font and a tracking script
+ * ({@code heavy.html}) under each network profile. At the end of each trial the bytes and requests
+ * the fixture server actually served per page load are logged next to the profile's own report,
+ * so the savings of a blocking profile can be checked against the {@code none} baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NetworkProfileBenchmark {
+    private static final Logger logger = Logger.getLogger(NetworkProfileBenchmark.class.getName());
+
+    @Param({"CHROME"})
+    public String browser;
+
+    @Param({"none", "lean"})
+    public String profile;
+
+    private FixtureServer server;
+    private WebDriver driver;
+    private long loads;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = FixtureServer.start();
+        BrowserActions.setWebDriver(BrowserActions.Browsers.valueOf(browser));
+        driver = BrowserActions.getDriver();
+        NetworkProfiles.apply(driver, profile);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (loads > 0) {
+            logger.info(String.format("Profile '%s': fixture server sent %d requests, %dKB per page load",
+                    profile, server.requestsServed() / loads, server.bytesServed() / loads / 1024));
+        }
+        NetworkProfiles.writeReport();
+        BrowserActions.quitDriver();
+        server.close();
+    }
+
+    @Benchmark
+    public String loadHeavyPage() {
+        driver.navigate().to(server.url("heavy.html"));
+        loads++;
+        return driver.getTitle();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (for example from two commits) and prints the
+ * score change of every benchmark present in both.
+ * <pre>
+ * java -cp target/benchmarks.jar benchmarks.ResultComparator results/base.json results/head.json
+ * </pre>
+ */
+public class ResultComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ResultComparator <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, double[]> baseline = read(args[0]);
+        Map<String, double[]> candidate = read(args[1]);
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, double[]> entry : candidate.entrySet()) {
+            double[] base = baseline.get(entry.getKey());
+            if (base == null) continue;
+            double before = base[0];
+            double after = entry.getValue()[0];
+            double change = before == 0 ? 0 : (after - before) / before * 100;
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%n", entry.getKey(), before, after, change);
+        }
+    }
+
+    /**
+     * Reads a JMH result file into benchmark key (name plus params) to {score, error}.
+     */
+    private static Map<String, double[]> read(String file) throws IOException {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file))) {
+            JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : results) {
+                JsonObject result = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+                if (result.has("params")) {
+                    result.getAsJsonObject("params").entrySet().forEach(param ->
+                            key.append(' ').append(param.getKey()).append('=').append(param.getValue().getAsString()));
+                }
+                JsonObject metric = result.getAsJsonObject("primaryMetric");
+                scores.put(key.toString(), new double[]{
+                        metric.get("score").getAsDouble(), metric.get("scoreError").getAsDouble()});
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import actions.BrowserActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ScreenShot;
+import utils.ScreenshotPipeline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long screenshot capture blocks the calling (test) thread,
+ * synchronously and through the background pipeline.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ScreenShotBenchmark {
+
+    @Benchmark
+    public String captureScreenshot(BrowserState state) {
+        return ScreenShot.captureScreenshot(BrowserActions.getDriver(), "benchmark");
+    }
+
+    @Benchmark
+    public String captureScreenshotAsync(BrowserState state) {
+        return ScreenShot.captureScreenshotAsync(BrowserActions.getDriver(), "benchmark");
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        ScreenshotPipeline.flush();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import actions.Locator;
+import actions.LocatorRegistry;
+import actions.UIActions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the framework overhead of the main {@link UIActions} operations against the
+ * results fixture page, with the element already present (the common case).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class UIActionsBenchmark {
+    private static final Locator noopButton =
+            Locator.of(UIActions.LocatorType.id, "noop", UIActions.ExplicitWaitCondition.elementToBeClickable);
+    private static final Locator scratchInput =
+            Locator.of(UIActions.LocatorType.id, "scratch", UIActions.ExplicitWaitCondition.visibilityOfElement);
+
+    @Setup(Level.Iteration)
+    public void clearScratch(BrowserState state) {
+        state.uiActions.clearText(scratchInput);
+    }
+
+    @Benchmark
+    public void click(BrowserState state) {
+        state.uiActions.click(noopButton);
+    }
+
+    @Benchmark
+    public void sendKeys(BrowserState state) {
+        state.uiActions.sendKeys(scratchInput, "a");
+    }
+
+    /** Two actions on the same element: the second reuses the cached handle (see {@code elementCache.enabled}). */
+    @Benchmark
+    public void clearThenSendKeys(BrowserState state) {
+        state.uiActions.clearText(scratchInput);
+        state.uiActions.sendKeys(scratchInput, "a");
+    }
+
+    @Benchmark
+    public List<?> findAllElements(BrowserState state) {
+        return state.uiActions.findAllElements(LocatorRegistry.get("searchResultsLocator"));
+    }
+
+    @Benchmark
+    public boolean areElementsContainText(BrowserState state) {
+        return state.uiActions.areElementsContainText(LocatorRegistry.get("relatedSearchItems"), "vodafone");
+    }
+}
@@ -0,0 +1,135 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Raster;
+import utils.VisualDiff;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a naive pixel-by-pixel screenshot comparison through {@link BufferedImage#getRGB(int, int)}
+ * with the tiled parallel {@link VisualDiff}, decoding included, on generated page-like PNGs of
+ * full-HD and 4K size: an identical pair, a pair with a small change inside the budget and a pair
+ * that differs almost everywhere, where the tiled comparison stops early.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisualComparisonBenchmark {
+
+    @Param({"1920x1080", "3840x2160"})
+    public String size;
+
+    private byte[] baseline;
+    private byte[] identical;
+    private byte[] smallChange;
+    private byte[] largeChange;
+    private long budget;
+
+    @Setup(Level.Trial)
+    public void generateFixtures() throws IOException {
+        String[] dimensions = size.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        BufferedImage page = page(width, height, 0);
+        baseline = png(page);
+        identical = png(page);
+
+        BufferedImage changed = page(width, height, 0);
+        Graphics2D g = changed.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(width / 2, height / 2, 40, 20);
+        g.dispose();
+        smallChange = png(changed);
+
+        largeChange = png(page(width, height, 1));
+        budget = (long) width * height / 1000;
+    }
+
+    @Benchmark
+    public long naivePixelByPixel() throws IOException {
+        BufferedImage expected = ImageIO.read(new ByteArrayInputStream(baseline));
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(identical));
+        long different = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) different++;
+            }
+        }
+        return different;
+    }
+
+    @Benchmark
+    public VisualDiff.Result tiledIdentical() throws IOException {
+        return compare(identical);
+    }
+
+    @Benchmark
+    public VisualDiff.Result tiledSmallChange() throws IOException {
+        return compare(smallChange);
+    }
+
+    @Benchmark
+    public VisualDiff.Result tiledEarlyExit() throws IOException {
+        return compare(largeChange);
+    }
+
+    private VisualDiff.Result compare(byte[] actual) throws IOException {
+        return VisualDiff.compare(Raster.decode(baseline), Raster.decode(actual),
+                List.of(new Rectangle(0, 0, 200, 60)), 64, 0, budget);
+    }
+
+    /**
+     * Draws a results-page-like image: header bar, blocks of text lines and a sidebar.
+     * A different variant shifts and recolors every block.
+     */
+    private static BufferedImage page(int width, int height, int variant) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = image.createGraphics();
+        g.setColor(variant == 0 ? Color.WHITE : new Color(0xF4F4F4));
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(0x1A73E8));
+        g.fillRect(0, 0, width, 60 + variant * 8);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
+        Random random = new Random(42 + variant);
+        for (int y = 100 + variant * 5; y < height - 40; y += 28) {
+            g.setColor(y % 140 == 100 ? new Color(0x1A0DAB) : new Color(0x4D5156));
+            g.drawString("result " + random.nextInt(100_000) + " lorem ipsum dolor sit amet", 40 + variant * 3, y);
+        }
+        g.setColor(new Color(0xE8EAED));
+        g.fillRect(width * 2 / 3, 100, width / 4, height / 2);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
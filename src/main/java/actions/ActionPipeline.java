@@ -0,0 +1,330 @@
+package actions;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import utils.ActionLog;
+import utils.ActionMetrics;
+import utils.DependencyRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * A sequence of interactions recorded against locators and run with as few round trips as possible.
+ * Created with {@link UIActions#pipeline(String)}; page objects declare a flow by chaining steps and calling {@link #run()}.
+ * <p>
+ * The steps are run in segments that end after each {@code click} or {@code submit}, since those may
+ * replace the page. For each segment, one script resolves every element of the segment, polled only until the
+ * first step's element is ready. If all elements are ready, consecutive {@code type} and {@code click} steps are
+ * sent as one Selenium {@link Actions} chain, while {@code clear} and {@code submit} run as single
+ * {@link WebElement#clear()} and {@link WebElement#submit()} calls between chains. Otherwise the segment falls back
+ * to the regular {@link UIActions} methods step by step, with their own waits, and so do the remaining steps when a
+ * single call fails. A chain that fails is not replayed, since the browser may already have run part of it: the
+ * pipeline fails there. A step that fails is reported with its position and locator.
+ * </p>
+ * <pre>
+ * uiActions.pipeline("search")
+ *         .clear(searchBar)
+ *         .type(searchBar, term)
+ *         .submit(searchIcon)
+ *         .run();
+ * </pre>
+ */
+public class ActionPipeline {
+    private static final Logger logger = Logger.getLogger(ActionPipeline.class.getName());
+
+    /**
+     * Resolves the first match of each locator and reports whether it is displayed and enabled.
+     * Arguments: list of [locator type, selector]. Returns one {element, shown, enabled} per locator.
+     */
+    private static final String RESOLVE_SCRIPT =
+            "function first(type, sel) {"
+            + "  switch (type) {"
+            + "    case 'css': return document.querySelector(sel);"
+            + "    case 'xpath': return document.evaluate(sel, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'id': return document.getElementById(sel);"
+            + "    case 'name': return document.querySelector('[name=' + JSON.stringify(sel) + ']');"
+            + "    case 'classname': return document.getElementsByClassName(sel)[0] || null;"
+            + "    case 'tagname': return document.getElementsByTagName(sel)[0] || null;"
+            + "    case 'linktext': case 'partialLinkText':"
+            + "      return Array.prototype.find.call(document.getElementsByTagName('a'), function (a) {"
+            + "        var t = (a.innerText || a.textContent || '').trim(); return type === 'linktext' ? t === sel : t.indexOf(sel) >= 0;"
+            + "      }) || null;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "return arguments[0].map(function (loc) {"
+            + "  var el = first(loc[0], loc[1]);"
+            + "  if (!el) return {element: null, shown: false, enabled: false};"
+            + "  var s = window.getComputedStyle(el);"
+            + "  return {element: el, shown: el.getClientRects().length > 0 && s.visibility !== 'hidden' && s.display !== 'none',"
+            + "    enabled: !el.disabled};"
+            + "});";
+
+    private final UIActions uiActions;
+    private final String name;
+    private final WebDriver driver;
+    private final WaitEngine waitEngine;
+    private final ElementCache elementCache;
+    private final String pageName;
+    private final List<Step> steps = new ArrayList<>();
+
+    ActionPipeline(UIActions uiActions, String name, WebDriver driver, WaitEngine waitEngine,
+                   ElementCache elementCache, String pageName) {
+        this.uiActions = uiActions;
+        this.name = name;
+        this.driver = driver;
+        this.waitEngine = waitEngine;
+        this.elementCache = elementCache;
+        this.pageName = pageName;
+    }
+
+    /**
+     * Adds a step that clears an input element.
+     *
+     * @param locator the input element
+     * @return this pipeline, for chaining
+     */
+    public ActionPipeline clear(Locator locator) {
+        steps.add(new Step(StepType.clear, locator, null));
+        return this;
+    }
+
+    /**
+     * Adds a step that types text into an element.
+     *
+     * @param locator the element to type into
+     * @param text    the text to type
+     * @return this pipeline, for chaining
+     */
+    public ActionPipeline type(Locator locator, String text) {
+        steps.add(new Step(StepType.type, locator, text));
+        return this;
+    }
+
+    /**
+     * Adds a step that clicks an element. Ends the current batched segment.
+     *
+     * @param locator the element to click
+     * @return this pipeline, for chaining
+     */
+    public ActionPipeline click(Locator locator) {
+        steps.add(new Step(StepType.click, locator, null));
+        return this;
+    }
+
+    /**
+     * Adds a step that submits the form of an element. Ends the current batched segment.
+     *
+     * @param locator the element whose form is submitted
+     * @return this pipeline, for chaining
+     */
+    public ActionPipeline submit(Locator locator) {
+        steps.add(new Step(StepType.submit, locator, null));
+        return this;
+    }
+
+    /**
+     * Runs every step in order.
+     *
+     * @throws RuntimeException naming the step's position and locator if a step fails
+     */
+    public void run() {
+        long start = System.nanoTime();
+        int batched = 0;
+        for (Step step : steps) {
+            DependencyRecorder.locator(step.locator().key());
+        }
+        try {
+            int next = 0;
+            while (next < steps.size()) {
+                int end = segmentEnd(next);
+                List<WebElement> elements;
+                try {
+                    elements = resolve(next, end);
+                } catch (RuntimeException e) {
+                    throw new RuntimeException(String.format("Pipeline '%s' failed at step %d of %d: %s",
+                            name, next + 1, steps.size(), steps.get(next)), e);
+                }
+                if (elements == null) {
+                    runStep(next);
+                    next++;
+                    continue;
+                }
+                int done = runBatched(next, end, elements);
+                batched += done - next;
+                for (int i = done; i < end; i++) {
+                    runStep(i);
+                }
+                next = end;
+            }
+            ActionLog.record("pipeline", name, batched + "/" + steps.size() + " steps batched", start);
+        } catch (RuntimeException e) {
+            ActionLog.recordFailure("pipeline", name, batched + "/" + steps.size() + " steps batched", start, e);
+            throw e;
+        } finally {
+            ActionMetrics.record("pipeline", name, pageName, start);
+        }
+    }
+
+    /**
+     * Returns the index after the segment starting at {@code from}: up to and including the next click or submit.
+     */
+    private int segmentEnd(int from) {
+        for (int i = from; i < steps.size(); i++) {
+            if (steps.get(i).type().endsSegment()) return i + 1;
+        }
+        return steps.size();
+    }
+
+    /**
+     * Waits until the first step's element is ready and resolves the elements of the whole segment in the same script.
+     *
+     * @return the elements of steps {@code from} to {@code end - 1}, or {@code null} if any of them is not ready yet
+     */
+    @SuppressWarnings("unchecked")
+    private List<WebElement> resolve(int from, int end) {
+        List<List<String>> locators = new ArrayList<>();
+        for (int i = from; i < end; i++) {
+            Locator locator = steps.get(i).locator();
+            locators.add(List.of(locator.type().name(), locator.selector()));
+        }
+        Step first = steps.get(from);
+        List<Map<String, Object>> resolved = waitEngine.until(() -> {
+            List<Map<String, Object>> result = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                    .executeScript(RESOLVE_SCRIPT, locators);
+            return ready(result.get(0), first.type()) ? result : null;
+        }, first.locator().defaultCondition().pollingEquivalent(), first.locator());
+
+        List<WebElement> elements = new ArrayList<>();
+        for (int i = 0; i < resolved.size(); i++) {
+            if (!ready(resolved.get(i), steps.get(from + i).type())) return null;
+            elements.add((WebElement) resolved.get(i).get("element"));
+        }
+        return elements;
+    }
+
+    private static boolean ready(Map<String, Object> element, StepType type) {
+        return element.get("element") != null && Boolean.TRUE.equals(element.get("shown"))
+                && (type != StepType.click || Boolean.TRUE.equals(element.get("enabled")));
+    }
+
+    /**
+     * Runs a resolved segment: runs of {@code type} and {@code click} steps as one {@link Actions} chain each,
+     * {@code clear} and {@code submit} as single element calls.
+     *
+     * @return the index of the first step that did not complete; {@code end} if all did
+     * @throws RuntimeException if a chain fails, since it cannot be known which of its steps already ran
+     */
+    private int runBatched(int from, int end, List<WebElement> elements) {
+        Actions chain = null;
+        int chainStart = from;
+        for (int i = from; i < end; i++) {
+            Step step = steps.get(i);
+            WebElement element = elements.get(i - from);
+            switch (step.type()) {
+                case type:
+                case click:
+                    if (chain == null) {
+                        chain = new Actions(driver);
+                        chainStart = i;
+                    }
+                    if (step.type() == StepType.type) {
+                        chain.sendKeys(element, step.text());
+                    } else {
+                        chain.click(element);
+                    }
+                    break;
+                case clear:
+                case submit:
+                    perform(chain, chainStart, i);
+                    chain = null;
+                    try {
+                        if (step.type() == StepType.clear) {
+                            element.clear();
+                        } else {
+                            element.submit();
+                        }
+                    } catch (WebDriverException e) {
+                        logger.fine("Batched " + step + " of pipeline '" + name + "' failed, running it and the rest of"
+                                + " its segment step by step: " + e.getMessage());
+                        return i;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown step: " + step);
+            }
+        }
+        perform(chain, chainStart, end);
+        if (steps.get(end - 1).type().endsSegment()) {
+            elementCache.invalidate();
+        } else {
+            for (int i = from; i < end; i++) {
+                elementCache.put(steps.get(i).locator(), elements.get(i - from));
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Performs a chain of steps {@code from} to {@code end - 1}; does nothing when there is no chain.
+     */
+    private void perform(Actions chain, int from, int end) {
+        if (chain == null) return;
+        try {
+            chain.perform();
+        } catch (WebDriverException e) {
+            throw new RuntimeException(String.format("Pipeline '%s' failed at steps %d-%d of %d: %s to %s; not replayed,"
+                            + " the browser may have run part of it", name, from + 1, end, steps.size(),
+                    steps.get(from), steps.get(end - 1)), e);
+        }
+    }
+
+    private void runStep(int index) {
+        Step step = steps.get(index);
+        try {
+            switch (step.type()) {
+                case clear:
+                    uiActions.clearText(step.locator());
+                    break;
+                case type:
+                    uiActions.sendKeys(step.locator(), step.text());
+                    break;
+                case click:
+                    uiActions.click(step.locator());
+                    break;
+                case submit:
+                    uiActions.submit(step.locator());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown step: " + step);
+            }
+        } catch (RuntimeException e) {
+            throw new RuntimeException(String.format("Pipeline '%s' failed at step %d of %d: %s",
+                    name, index + 1, steps.size(), step), e);
+        }
+    }
+
+    private enum StepType {
+        clear,
+        type,
+        click,
+        submit;
+
+        boolean endsSegment() {
+            return this == click || this == submit;
+        }
+    }
+
+    private record Step(StepType type, Locator locator, String text) {
+        @Override
+        public String toString() {
+            return type + "(" + locator.key() + ")";
+        }
+    }
+}
@@ -1,32 +1,39 @@
 package actions;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import utils.ActionMetrics;
 import utils.ConfigReader;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 /**
  * Utility class for managing WebDriver instances and browser actions.
  * Supports multiple browsers (Chrome, Firefox, Edge) with ThreadLocal
  * to allow parallel execution in multi-threaded tests.
+ * Sessions can either be launched per call ({@link #setWebDriver(Browsers)})
+ * or leased from a reusable {@link DriverPool} ({@link #acquireDriver(Browsers)}).
+ * A driver bound with {@link DriverContext} takes precedence over the thread's driver for the scope's duration.
+ * Session operations are timed into {@link ActionMetrics} under the page object name {@code BrowserActions}.
  */
 
 public class BrowserActions {
     private static ThreadLocal<WebDriver> drivers = new ThreadLocal<>();
+    private static final ThreadLocal<DriverPool.Lease> leases = new ThreadLocal<>();
     private static final Logger logger = Logger.getLogger(BrowserActions.class.getName());
+    private static final String METRICS_OWNER = BrowserActions.class.getSimpleName();
 
     //Returns the WebDriver instance associated with the current thread.
     /**
-     * Returns the WebDriver instance associated with the current thread.
+     * Returns the WebDriver bound to the current {@link DriverContext} scope, or else
+     * the WebDriver instance associated with the current thread.
      *
-     * @return the WebDriver for the current thread, or null if not initialized
+     * @return the WebDriver for the current scope or thread, or null if not initialized
      */
     public static WebDriver getDriver() {
-        return drivers.get();
+        WebDriver scoped = DriverContext.current();
+        return scoped != null ? scoped : drivers.get();
     }
 //Navigation:
     // initializing WebDriver instance based on specific browser type
@@ -48,49 +55,142 @@ public class BrowserActions {
      */
 
     public static void setWebDriver(Browsers browser) {
-        if (getDriver() != null) {
+        if (drivers.get() != null) {
             quitDriver();
         }
+        long start = System.nanoTime();
         try {
-            switch (browser) {
-                case CHROME:
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    String chromeArgs = ConfigReader.getProperty("chrome.options");
-                    if (chromeArgs != null && !chromeArgs.isEmpty()) {
-                        chromeOptions.addArguments(chromeArgs.split(","));
-                    }
-                    drivers.set(WebDriverManager.chromedriver().capabilities(chromeOptions).create());
-                    logger.info(" Chrome WebDriver initialized.");
-                    break;
-
-                case FIREFOX:
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    String firefoxArgs = ConfigReader.getProperty("firefox.options");
-                    if (firefoxArgs != null && !firefoxArgs.isEmpty()) {
-                        firefoxOptions.addArguments(firefoxArgs.split(","));
-                    }
-                    drivers.set(WebDriverManager.firefoxdriver().capabilities(firefoxOptions).create());
-                    logger.info("Firefox WebDriver initialized.");
-                    break;
-
-                case EDGE:
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    String edgeArgs = ConfigReader.getProperty("edge.options");
-                    if (edgeArgs != null && !edgeArgs.isEmpty()) {
-                        edgeOptions.addArguments(edgeArgs.split(","));
-                    }
-                    drivers.set(WebDriverManager.edgedriver().capabilities(edgeOptions).create());
-                    logger.info("Edge WebDriver initialized.");
-                    break;
-                default:
-                    throw new IllegalArgumentException("Browser not supported: " + browser);
+            drivers.set(SessionPrelauncher.launch(browser));
+        } finally {
+            ActionMetrics.record("setWebDriver", browser.name(), METRICS_OWNER, start);
+        }
+    }
+
+    /**
+     * Launches a new WebDriver session for the specified browser through {@link DriverFactory},
+     * which caches driver binaries and options from config.properties once per JVM,
+     * and applies the configured {@link NetworkProfiles network profile}.
+     *
+     * @param browser the browser type to launch
+     * @return the new WebDriver session
+     * @throws RuntimeException if the driver cannot be initialized
+     */
+    static WebDriver createDriver(Browsers browser) {
+        try {
+            WebDriver driver = DriverFactory.launch(browser);
+            try {
+                NetworkProfiles.applyConfigured(driver, browser);
+            } catch (RuntimeException e) {
+                driver.quit();
+                throw e;
             }
+            logger.info(browser + " WebDriver initialized.");
+            return driver;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Failed to initialize WebDriver for " + browser, e);
             throw new RuntimeException("Failed to initialize WebDriver for " + browser, e);
         }
     }
 
+    /**
+     * Launches a new WebDriver session in the background, so the browser can start
+     * while the suite is still being prepared. The returned session is not bound to any thread.
+     *
+     * @param browser the browser type to launch
+     * @return a future completing with the new WebDriver session
+     */
+    public static CompletableFuture<WebDriver> launchAsync(Browsers browser) {
+        return DriverFactory.launchAsync(browser);
+    }
+
+    // Session pool:
+    /**
+     * Leases a WebDriver session for the specified browser from the {@link DriverPool}
+     * and binds it to the current thread, so {@link #getDriver()} keeps working for page objects.
+     * <p>
+     * When {@code pool.enabled} is false this behaves like {@link #setWebDriver(Browsers)}.
+     * If the thread already holds a driver it is released first.
+     * </p>
+     *
+     * @param browser the browser type to lease
+     * @throws IllegalStateException if no session becomes available in time
+     */
+    public static void acquireDriver(Browsers browser) {
+        SessionPrelauncher.classStarting();
+        if (!poolEnabled()) {
+            setWebDriver(browser);
+            return;
+        }
+        if (drivers.get() != null) {
+            releaseDriver();
+        }
+        long start = System.nanoTime();
+        try {
+            DriverPool.Lease lease = DriverPool.forBrowser(browser).acquire();
+            leases.set(lease);
+            drivers.set(lease.driver());
+            logger.info(browser + " session leased from pool.");
+        } finally {
+            ActionMetrics.record("acquireDriver", browser.name(), METRICS_OWNER, start);
+        }
+    }
+
+    /**
+     * Returns the current thread's WebDriver to its pool and unbinds it from the thread.
+     * Drivers that were not leased from the pool are quit.
+     */
+    public static void releaseDriver() {
+        DriverPool.Lease lease = leases.get();
+        if (lease == null) {
+            quitDriver();
+            return;
+        }
+        long start = System.nanoTime();
+        leases.remove();
+        drivers.remove();
+        try {
+            lease.pool().release(lease);
+            logger.info("Session released to pool.");
+        } finally {
+            ActionMetrics.record("releaseDriver", "-", METRICS_OWNER, start);
+        }
+    }
+
+    /**
+     * Starts launching the browsers of the first planned test classes in the background. Each later
+     * {@link #acquireDriver(Browsers)} moves the look-ahead window on, see {@link SessionPrelauncher}.
+     *
+     * @param plannedOrder the browser of each test class, in the order the classes are expected to start
+     */
+    public static void prelaunch(List<Browsers> plannedOrder) {
+        SessionPrelauncher.plan(plannedOrder);
+    }
+
+    /**
+     * Tells the pre-launcher that a test class is starting. {@link #acquireDriver(Browsers)} does this itself;
+     * classes that lease a session per test method through {@link DriverContext} call it once per class.
+     */
+    public static void classStarting() {
+        SessionPrelauncher.classStarting();
+    }
+
+    /**
+     * @return whether sessions are leased from the {@link DriverPool} ({@code pool.enabled})
+     */
+    static boolean poolEnabled() {
+        return ConfigReader.getBooleanProperty("pool.enabled", true);
+    }
+
+    /**
+     * Shuts down all session pools, quitting idle browsers and logging pool metrics, and quits
+     * pre-launched sessions that were never used, logging the hidden and exposed launch time.
+     * Intended to be called once when the suite finishes.
+     */
+    public static void shutdownPool() {
+        DriverPool.shutdownAll();
+        SessionPrelauncher.shutdown();
+    }
+
  // Quits the WebDriver for the current thread(close all open tabs/windows in current session and kill driver and browser
 // Cleans up the ThreadLocal storage
     /**
@@ -98,8 +198,21 @@ public class BrowserActions {
      * and removes the driver from ThreadLocal storage.
      */
     public static void quitDriver(){
-        checkDriverExistence().quit();
-        drivers.remove();
+        WebDriver driver = checkDriverExistence();
+        long start = System.nanoTime();
+        try {
+            DriverPool.Lease lease = leases.get();
+            if (lease != null) {
+                leases.remove();
+                lease.pool().discard(lease);
+            } else {
+                ElementCache.discard(driver);
+                driver.quit();
+            }
+        } finally {
+            drivers.remove();
+            ActionMetrics.record("quitDriver", "-", METRICS_OWNER, start);
+        }
         logger.info("WebDriver quit and ThreadLocal cleaned.");
     }
 
@@ -111,7 +224,7 @@ public class BrowserActions {
      * @throws IllegalStateException if the WebDriver has not been initialized
      */
     private static WebDriver checkDriverExistence() {
-        WebDriver driver = getDriver();
+        WebDriver driver = drivers.get();
         if (driver == null) {
             throw new IllegalStateException("WebDriver has not been initialized for this thread.");
         }
@@ -0,0 +1,114 @@
+package actions;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Scoped driver binding: a WebDriver is bound only for the duration of one call and is
+ * unbound (or the outer binding restored) when the call returns, whatever thread runs it.
+ * <p>
+ * {@link BrowserActions#getDriver()} returns the scoped driver when one is bound, so
+ * {@link UIActions} and the page objects pick it up without changes. Unlike the per-thread
+ * binding of {@link BrowserActions#setWebDriver(BrowserActions.Browsers)}, nothing outlives the
+ * task, which makes it safe for short-lived virtual threads: thousands of tasks can share the
+ * few sessions of a {@link DriverPool}, each holding one only while it runs.
+ * Example usage:
+ * <pre>
+ * DriverContext.withLease(Browsers.CHROME, driver -&gt; {
+ *     new BingHomePage().navigateToBingHomePage(url);
+ * });
+ * </pre>
+ * </p>
+ * The binding is kept in a thread-local slot restored on exit, following the semantics of
+ * {@code java.lang.ScopedValue}, which is still a preview API on Java 21.
+ */
+public final class DriverContext {
+    private static final ThreadLocal<WebDriver> scopedDriver = new ThreadLocal<>();
+
+    private DriverContext() {
+    }
+
+    /**
+     * Returns the driver bound to the current scope.
+     *
+     * @return the scoped driver, or {@code null} when the caller runs outside any scope
+     */
+    public static WebDriver current() {
+        return scopedDriver.get();
+    }
+
+    /**
+     * Runs a task with the given driver bound for its duration.
+     *
+     * @param driver the driver to bind
+     * @param task   the task, receiving the bound driver explicitly
+     * @param <T>    the result type
+     * @return the task's result
+     */
+    public static <T> T call(WebDriver driver, Function<WebDriver, T> task) {
+        if (driver == null) {
+            throw new IllegalArgumentException("Cannot bind a null WebDriver");
+        }
+        WebDriver outer = scopedDriver.get();
+        scopedDriver.set(driver);
+        try {
+            return task.apply(driver);
+        } finally {
+            if (outer == null) {
+                scopedDriver.remove();
+            } else {
+                scopedDriver.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Runs a task with the given driver bound for its duration.
+     *
+     * @param driver the driver to bind
+     * @param task   the task, receiving the bound driver explicitly
+     */
+    public static void run(WebDriver driver, Consumer<WebDriver> task) {
+        call(driver, bound -> {
+            task.accept(bound);
+            return null;
+        });
+    }
+
+    /**
+     * Leases a session from the browser's {@link DriverPool}, binds it for the duration of the task
+     * and returns it to the pool afterwards, even when the task fails.
+     *
+     * @param browser the browser type to lease
+     * @param task    the task, receiving the leased driver explicitly
+     * @param <T>     the result type
+     * @return the task's result
+     * @throws IllegalStateException if no session becomes available in time
+     */
+    public static <T> T callWithLease(BrowserActions.Browsers browser, Function<WebDriver, T> task) {
+        DriverPool pool = DriverPool.forBrowser(browser);
+        DriverPool.Lease lease = pool.acquire();
+        try {
+            return call(lease.driver(), task);
+        } finally {
+            pool.release(lease);
+        }
+    }
+
+    /**
+     * Leases a session from the browser's {@link DriverPool}, binds it for the duration of the task
+     * and returns it to the pool afterwards, even when the task fails.
+     *
+     * @param browser the browser type to lease
+     * @param task    the task, receiving the leased driver explicitly
+     * @throws IllegalStateException if no session becomes available in time
+     */
+    public static void withLease(BrowserActions.Browsers browser, Consumer<WebDriver> task) {
+        callWithLease(browser, driver -> {
+            task.accept(driver);
+            return null;
+        });
+    }
+}
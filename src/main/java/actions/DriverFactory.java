@@ -0,0 +1,400 @@
+package actions;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.Config;
+import io.github.bonigarcia.wdm.online.HttpClient;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.remote.service.DriverService;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Launches browser sessions with driver binaries and browser options resolved once per JVM.
+ * <p>
+ * Driver binaries are resolved in this order and then cached for the lifetime of the JVM:
+ * <ol>
+ *     <li>An explicit path from {@code <browser>.driverPath}</li>
+ *     <li>The resolution manifest in the local cache directory ({@code driver.cachePath}), as long as the installed
+ *     browser has the major version the cached driver was resolved for</li>
+ *     <li>WebDriverManager, unless {@code driver.offline=true}</li>
+ * </ol>
+ * Every launch records how long the resolve, process spawn and first session phases took.
+ * </p>
+ */
+public class DriverFactory {
+    private static final Logger logger = Logger.getLogger(DriverFactory.class.getName());
+    private static final String MANIFEST_NAME = "resolved-drivers.properties";
+
+    private static final Map<BrowserActions.Browsers, Path> driverBinaries = new ConcurrentHashMap<>();
+    private static final Map<BrowserActions.Browsers, Capabilities> baseOptions = new ConcurrentHashMap<>();
+    private static final Map<BrowserActions.Browsers, PhaseTotals> phaseTotals = new EnumMap<>(BrowserActions.Browsers.class);
+
+    private static final ExecutorService launcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "browser-launcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        for (BrowserActions.Browsers browser : BrowserActions.Browsers.values()) {
+            phaseTotals.put(browser, new PhaseTotals());
+        }
+    }
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Launches a new browser session on the calling thread.
+     *
+     * @param browser the browser type to launch
+     * @return the new WebDriver session
+     * @throws RuntimeException if the driver cannot be resolved or the session cannot be started
+     */
+    public static WebDriver launch(BrowserActions.Browsers browser) {
+        long start = System.nanoTime();
+        Path binary = resolveDriverBinary(browser);
+        long resolved = System.nanoTime();
+
+        DriverService service = startService(browser, binary);
+        long spawned = System.nanoTime();
+
+        WebDriver driver;
+        try {
+            driver = newSession(browser, service);
+        } catch (RuntimeException e) {
+            service.stop();
+            throw e;
+        }
+        long ready = System.nanoTime();
+
+        StartupTimings timings = new StartupTimings(browser,
+                TimeUnit.NANOSECONDS.toMillis(resolved - start),
+                TimeUnit.NANOSECONDS.toMillis(spawned - resolved),
+                TimeUnit.NANOSECONDS.toMillis(ready - spawned));
+        phaseTotals.get(browser).add(timings);
+        logger.info(timings.toString());
+        return driver;
+    }
+
+    /**
+     * Launches a new browser session on a background thread.
+     *
+     * @param browser the browser type to launch
+     * @return a future completing with the new WebDriver session
+     */
+    public static CompletableFuture<WebDriver> launchAsync(BrowserActions.Browsers browser) {
+        return CompletableFuture.supplyAsync(() -> launch(browser), launcher);
+    }
+
+    /**
+     * @return the daemon executor browser sessions are launched on in the background
+     */
+    static ExecutorService launcher() {
+        return launcher;
+    }
+
+    /**
+     * Resolves driver binaries and builds browser options in the background, so the
+     * first launch of each browser does not pay for resolution.
+     *
+     * @param browsers the browser types that are about to be used
+     * @return a future completing once every browser has been resolved
+     */
+    public static CompletableFuture<Void> prewarm(Iterable<BrowserActions.Browsers> browsers) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (BrowserActions.Browsers browser : browsers) {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+                resolveDriverBinary(browser);
+                baseOptions(browser);
+            }, launcher).exceptionally(e -> {
+                logger.log(Level.WARNING, "Failed to pre-warm " + browser, e);
+                return null;
+            });
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Returns accumulated startup timings for a browser type.
+     *
+     * @param browser the browser type
+     * @return a summary of every launch so far
+     */
+    public static String getStartupSummary(BrowserActions.Browsers browser) {
+        return phaseTotals.get(browser).summary(browser);
+    }
+
+    /**
+     * Returns the resolved driver binary for a browser, resolving it on first use.
+     *
+     * @param browser the browser type
+     * @return the path of the driver executable
+     * @throws IllegalStateException if no driver can be found while running offline
+     */
+    public static Path resolveDriverBinary(BrowserActions.Browsers browser) {
+        return driverBinaries.computeIfAbsent(browser, DriverFactory::locateDriverBinary);
+    }
+
+    private static Path locateDriverBinary(BrowserActions.Browsers browser) {
+        String key = browser.name().toLowerCase();
+        String explicit = ConfigReader.getProperty(key + ".driverPath", null);
+        if (explicit != null && Files.isExecutable(Paths.get(explicit))) {
+            logger.info("Using configured " + browser + " driver: " + explicit);
+            return Paths.get(explicit);
+        }
+
+        Path cacheDir = cacheDirectory();
+        Path manifest = cacheDir.resolve(MANIFEST_NAME);
+        Properties resolved = readManifest(manifest);
+        String cached = resolved.getProperty(key);
+        boolean offline = ConfigReader.getBooleanProperty("driver.offline", false);
+        String browserVersion = browserMajorVersion(browser);
+        if (cached != null && Files.isExecutable(Paths.get(cached))) {
+            String cachedFor = resolved.getProperty(key + ".browserVersion");
+            if (browserVersion == null || browserVersion.equals(cachedFor)) {
+                logger.info("Using cached " + browser + " driver: " + cached);
+                return Paths.get(cached);
+            }
+            if (offline) {
+                logger.warning("Cached " + browser + " driver " + cached + " was resolved for browser version " + cachedFor
+                        + " but " + browserVersion + " is installed; using it anyway since driver.offline=true");
+                return Paths.get(cached);
+            }
+            logger.info("Cached " + browser + " driver was resolved for browser version " + cachedFor + " but "
+                    + browserVersion + " is installed; resolving it again");
+        }
+
+        if (offline) {
+            throw new IllegalStateException("No cached " + browser + " driver in " + cacheDir
+                    + " and driver.offline=true; run once online or set " + key + ".driverPath");
+        }
+
+        WebDriverManager manager = managerFor(browser).cachePath(cacheDir.toString());
+        manager.setup();
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        String resolvedFor = manager.getResolvedBrowserVersion() != null
+                ? VersionDetector.getMajorVersion(manager.getResolvedBrowserVersion()) : browserVersion;
+        synchronized (DriverFactory.class) {
+            Properties latest = readManifest(manifest);
+            latest.setProperty(key, downloaded.toAbsolutePath().toString());
+            if (resolvedFor != null) {
+                latest.setProperty(key + ".browserVersion", resolvedFor);
+            } else {
+                latest.remove(key + ".browserVersion");
+            }
+            writeManifest(manifest, latest);
+        }
+        logger.info("Resolved " + browser + " driver via WebDriverManager: " + downloaded);
+        return downloaded;
+    }
+
+    /**
+     * Detects the major version of the installed browser the way WebDriverManager does, without going online.
+     *
+     * @return the major version, or {@code null} if it cannot be detected
+     */
+    private static String browserMajorVersion(BrowserActions.Browsers browser) {
+        WebDriverManager manager = managerFor(browser);
+        Config config = manager.config();
+        String binary;
+        switch (browser) {
+            case CHROME: binary = config.getChromeBinary(); break;
+            case FIREFOX: binary = config.getFirefoxBinary(); break;
+            case EDGE: binary = config.getEdgeBinary(); break;
+            default: throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+        try (HttpClient httpClient = new HttpClient(config)) {
+            return new VersionDetector(config, httpClient)
+                    .getBrowserVersionFromTheShell(manager.getDriverManagerType().getBrowserNameLowerCase(), binary)
+                    .map(VersionDetector::getMajorVersion)
+                    .orElse(null);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.FINE, "Cannot detect the installed " + browser + " version", e);
+            return null;
+        }
+    }
+
+    private static WebDriverManager managerFor(BrowserActions.Browsers browser) {
+        switch (browser) {
+            case CHROME: return WebDriverManager.chromedriver();
+            case FIREFOX: return WebDriverManager.firefoxdriver();
+            case EDGE: return WebDriverManager.edgedriver();
+            default: throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    /**
+     * Returns a fresh copy of the browser options, built from config.properties once per JVM:
+     * {@code <browser>.options} arguments and the {@code <browser>.pageLoadStrategy} ({@code normal},
+     * {@code eager} or {@code none}).
+     *
+     * @param browser the browser type
+     * @return mutable options that the caller may customise
+     */
+    public static Capabilities options(BrowserActions.Browsers browser) {
+        Capabilities base = baseOptions(browser);
+        switch (browser) {
+            case CHROME: return new ChromeOptions().merge(base);
+            case FIREFOX: return new FirefoxOptions().merge(base);
+            case EDGE: return new EdgeOptions().merge(base);
+            default: throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    private static Capabilities baseOptions(BrowserActions.Browsers browser) {
+        return baseOptions.computeIfAbsent(browser, DriverFactory::buildOptions);
+    }
+
+    private static Capabilities buildOptions(BrowserActions.Browsers browser) {
+        String key = browser.name().toLowerCase();
+        List<String> arguments = ConfigReader.getListProperty(key + ".options");
+        AbstractDriverOptions<?> options;
+        switch (browser) {
+            case CHROME: options = new ChromeOptions().addArguments(arguments); break;
+            case FIREFOX: options = new FirefoxOptions().addArguments(arguments); break;
+            case EDGE: options = new EdgeOptions().addArguments(arguments); break;
+            default: throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+        String strategy = ConfigReader.getProperty(key + ".pageLoadStrategy", null);
+        if (strategy != null) {
+            PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(strategy);
+            if (pageLoadStrategy == null) {
+                throw new IllegalArgumentException("Invalid " + key + ".pageLoadStrategy: " + strategy
+                        + " (expected normal, eager or none)");
+            }
+            options.setPageLoadStrategy(pageLoadStrategy);
+        }
+        return options;
+    }
+
+    private static DriverService startService(BrowserActions.Browsers browser, Path binary) {
+        DriverService service;
+        switch (browser) {
+            case CHROME:
+                service = new ChromeDriverService.Builder().usingDriverExecutable(binary.toFile()).usingAnyFreePort().build();
+                break;
+            case FIREFOX:
+                service = new GeckoDriverService.Builder().usingDriverExecutable(binary.toFile()).usingAnyFreePort().build();
+                break;
+            case EDGE:
+                service = new EdgeDriverService.Builder().usingDriverExecutable(binary.toFile()).usingAnyFreePort().build();
+                break;
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start " + browser + " driver service", e);
+        }
+        return service;
+    }
+
+    private static WebDriver newSession(BrowserActions.Browsers browser, DriverService service) {
+        switch (browser) {
+            case CHROME: return new ChromeDriver((ChromeDriverService) service, (ChromeOptions) options(browser));
+            case FIREFOX: return new FirefoxDriver((GeckoDriverService) service, (FirefoxOptions) options(browser));
+            case EDGE: return new EdgeDriver((EdgeDriverService) service, (EdgeOptions) options(browser));
+            default: throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    private static Path cacheDirectory() {
+        String configured = ConfigReader.getProperty("driver.cachePath", null);
+        return configured != null
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".cache", "selenium");
+    }
+
+    private static Properties readManifest(Path manifest) {
+        Properties properties = new Properties();
+        if (Files.exists(manifest)) {
+            try (InputStream in = Files.newInputStream(manifest)) {
+                properties.load(in);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to read driver manifest " + manifest, e);
+            }
+        }
+        return properties;
+    }
+
+    private static void writeManifest(Path manifest, Properties properties) {
+        try {
+            Files.createDirectories(manifest.getParent());
+            try (OutputStream out = Files.newOutputStream(manifest)) {
+                properties.store(out, "Driver binaries resolved by DriverFactory");
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write driver manifest " + manifest, e);
+        }
+    }
+
+    /**
+     * Time spent in each startup phase of a single launch.
+     *
+     * @param browser        the launched browser type
+     * @param resolveMs      driver binary resolution (near zero once cached)
+     * @param spawnMs        starting the driver process
+     * @param firstSessionMs creating the browser session
+     */
+    public record StartupTimings(BrowserActions.Browsers browser, long resolveMs, long spawnMs, long firstSessionMs) {
+        @Override
+        public String toString() {
+            return String.format("%s startup: resolve=%dms, spawn=%dms, firstSession=%dms, total=%dms",
+                    browser, resolveMs, spawnMs, firstSessionMs, resolveMs + spawnMs + firstSessionMs);
+        }
+    }
+
+    private static final class PhaseTotals {
+        private final AtomicLong launches = new AtomicLong();
+        private final AtomicLong resolveMs = new AtomicLong();
+        private final AtomicLong spawnMs = new AtomicLong();
+        private final AtomicLong firstSessionMs = new AtomicLong();
+
+        void add(StartupTimings timings) {
+            launches.incrementAndGet();
+            resolveMs.addAndGet(timings.resolveMs());
+            spawnMs.addAndGet(timings.spawnMs());
+            firstSessionMs.addAndGet(timings.firstSessionMs());
+        }
+
+        String summary(BrowserActions.Browsers browser) {
+            return String.format("%s startup totals: launches=%d, resolve=%dms, spawn=%dms, firstSession=%dms",
+                    browser, launches.get(), resolveMs.get(), spawnMs.get(), firstSessionMs.get());
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package actions;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.ConfigReader;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of reusable WebDriver sessions, one pool per browser type.
+ * <p>
+ * Sessions are leased with {@link #acquire()} and handed back with {@link #release(Lease)}.
+ * Between leases the browser state is reset, and a session is recycled once it has served
+ * {@code pool.maxLeasesPerSession} leases.
+ * </p>
+ * <p>
+ * The reset replaces every window with one new blank tab, which drops the navigation history and the
+ * session storage of all origins. On Chrome and Edge it then clears the cookies of every domain and,
+ * through CDP {@code Storage.clearDataForOrigin}, the local storage, IndexedDB, caches and service workers
+ * of every origin in the history of the windows open at release. Firefox has no CDP: there only the local
+ * storage and cookies of the page each window shows at release are cleared, so state left by earlier pages
+ * of a lease can reach the next one. Origins only embedded in frames, or visited in windows the test closed
+ * itself, are not cleared on any browser; lower {@code pool.maxLeasesPerSession} when tests depend on that.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code pool.maxSessionsPerBrowser} - maximum live sessions per browser type</li>
+ *     <li>{@code pool.maxLeasesPerSession} - leases served before a session is recycled</li>
+ *     <li>{@code pool.acquireTimeoutSeconds} - how long acquire waits for a free session</li>
+ * </ul>
+ */
+public class DriverPool {
+    private static final Logger logger = Logger.getLogger(DriverPool.class.getName());
+    private static final Map<BrowserActions.Browsers, DriverPool> pools = new ConcurrentHashMap<>();
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final BrowserActions.Browsers browser;
+    private final int maxSessions;
+    private final int maxLeasesPerSession;
+    private final long acquireTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition sessionReturned = lock.newCondition();
+    private final Deque<Lease> idle = new ArrayDeque<>();
+    private int liveSessions;
+    private boolean closed;
+
+    // metrics, guarded by lock
+    private long acquisitions;
+    private long hits;
+    private long launches;
+    private long recycled;
+    private long discarded;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    private DriverPool(BrowserActions.Browsers browser) {
+        this.browser = browser;
+        this.maxSessions = Math.max(1, ConfigReader.getIntProperty("pool.maxSessionsPerBrowser", 3));
+        this.maxLeasesPerSession = Math.max(1, ConfigReader.getIntProperty("pool.maxLeasesPerSession", 10));
+        this.acquireTimeoutNanos = ConfigReader.getDurationProperty("pool.acquireTimeoutSeconds", ChronoUnit.SECONDS, Duration.ofSeconds(120)).toNanos();
+    }
+
+    /**
+     * Returns the pool for the given browser type, creating it on first use.
+     *
+     * @param browser the browser type
+     * @return the pool serving that browser type
+     */
+    public static DriverPool forBrowser(BrowserActions.Browsers browser) {
+        return pools.computeIfAbsent(browser, DriverPool::new);
+    }
+
+    /**
+     * Leases a session, reusing an idle one when available, launching a new one while
+     * the pool is below its bound, and otherwise waiting for a session to be released.
+     *
+     * @return the leased session
+     * @throws IllegalStateException if the pool is closed or no session frees up in time
+     */
+    public Lease acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            long remaining = acquireTimeoutNanos;
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Driver pool for " + browser + " is shut down.");
+                }
+                Lease lease = idle.pollFirst();
+                if (lease != null) {
+                    lease.leaseCount++;
+                    hits++;
+                    recordAcquire(start);
+                    return lease;
+                }
+                if (liveSessions < maxSessions) {
+                    liveSessions++;
+                    launches++;
+                    recordAcquire(start);
+                    break;
+                }
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting for a free " + browser + " session.");
+                }
+                remaining = sessionReturned.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browser + " session.", e);
+        } finally {
+            lock.unlock();
+        }
+
+        // launch outside the lock so other threads can keep leasing idle sessions; a pre-launched one is taken first
+        try {
+            Lease lease = new Lease(this, SessionPrelauncher.launch(browser));
+            lease.leaseCount = 1;
+            return lease;
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                liveSessions--;
+                sessionReturned.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tells whether an {@link #acquire()} now would launch a new browser: no session is idle and the pool
+     * is still below its bound once the given sessions that are already being launched are counted.
+     *
+     * @param launching sessions already being launched for this pool outside it
+     * @return {@code true} if the pool would launch a session
+     */
+    boolean willLaunch(int launching) {
+        lock.lock();
+        try {
+            return !closed && idle.isEmpty() && liveSessions + launching < maxSessions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a leased session to the pool. The session is reset before it becomes
+     * available again, or quit if it reached its lease limit, failed to reset, or the
+     * pool has been shut down.
+     *
+     * @param lease the lease to return
+     */
+    public void release(Lease lease) {
+        boolean reusable = lease.leaseCount < maxLeasesPerSession && resetSession(lease.driver);
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                idle.addFirst(lease);
+                sessionReturned.signal();
+                return;
+            }
+            if (!reusable && lease.leaseCount >= maxLeasesPerSession) {
+                recycled++;
+            } else if (!reusable) {
+                discarded++;
+            }
+            liveSessions--;
+            sessionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        quitQuietly(lease.driver);
+    }
+
+    /**
+     * Removes a leased session from the pool without returning it, quitting its browser.
+     *
+     * @param lease the lease to discard
+     */
+    public void discard(Lease lease) {
+        lock.lock();
+        try {
+            discarded++;
+            liveSessions--;
+            sessionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        quitQuietly(lease.driver);
+    }
+
+    /**
+     * Shuts down every pool, quitting all idle sessions and logging the final metrics.
+     * Sessions still leased are quit when they are released. Pools are removed as they shut down,
+     * so a later {@link #forBrowser} creates a fresh pool.
+     */
+    public static void shutdownAll() {
+        for (Map.Entry<BrowserActions.Browsers, DriverPool> entry : pools.entrySet()) {
+            DriverPool pool = entry.getValue();
+            pools.remove(entry.getKey(), pool);
+            pool.shutdown();
+            logger.info(pool.getMetrics().toString());
+        }
+    }
+
+    private void shutdown() {
+        Deque<Lease> toQuit;
+        lock.lock();
+        try {
+            closed = true;
+            toQuit = new ArrayDeque<>(idle);
+            liveSessions -= idle.size();
+            idle.clear();
+            sessionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toQuit.forEach(lease -> quitQuietly(lease.driver));
+    }
+
+    /**
+     * Returns a snapshot of this pool's metrics.
+     *
+     * @return the current metrics
+     */
+    public Metrics getMetrics() {
+        lock.lock();
+        try {
+            return new Metrics(browser, acquisitions, hits, launches, recycled, discarded,
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordAcquire(long start) {
+        long waited = System.nanoTime() - start;
+        acquisitions++;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+    }
+
+    /**
+     * Restores a session to a clean state: clears the storage of the visited origins and all cookies,
+     * and replaces every window with a new blank tab.
+     *
+     * @return {@code true} if the session is clean and can be leased again
+     */
+    private boolean resetSession(WebDriver driver) {
+        try {
+            HasCdp cdp = driver instanceof HasCdp ? (HasCdp) driver : null;
+            Set<String> origins = new LinkedHashSet<>();
+            Set<String> handles = driver.getWindowHandles();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+                if (cdp != null) {
+                    origins.addAll(visitedOrigins(cdp));
+                } else {
+                    // without CDP cookies can only be deleted for the domain of the current page
+                    driver.manage().deleteAllCookies();
+                }
+            }
+            // a new tab starts without history or session storage
+            String fresh = driver.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(fresh);
+            if (cdp != null) {
+                for (String origin : origins) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            ElementCache.discard(driver);
+            return true;
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to reset pooled " + browser + " session, discarding it.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Lists the origins in the navigation history of the current window.
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Map<String, Object> history = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of());
+        for (Map<String, Object> entry : (List<Map<String, Object>>) history.getOrDefault("entries", List.of())) {
+            try {
+                URI url = new URI(String.valueOf(entry.get("url")));
+                if (("http".equals(url.getScheme()) || "https".equals(url.getScheme())) && url.getHost() != null) {
+                    origins.add(url.getScheme() + "://" + url.getHost() + (url.getPort() == -1 ? "" : ":" + url.getPort()));
+                }
+            } catch (URISyntaxException e) {
+                logger.fine("Skipping unparsable history entry " + entry.get("url"));
+            }
+        }
+        return origins;
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        ElementCache.discard(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to quit pooled " + browser + " session.", e);
+        }
+    }
+
+    /**
+     * A leased WebDriver session together with the pool it belongs to.
+     */
+    public static final class Lease {
+        private final DriverPool pool;
+        private final WebDriver driver;
+        private int leaseCount;
+
+        private Lease(DriverPool pool, WebDriver driver) {
+            this.pool = pool;
+            this.driver = driver;
+        }
+
+        /** @return the leased WebDriver */
+        public WebDriver driver() {
+            return driver;
+        }
+
+        /** @return the pool this lease belongs to */
+        public DriverPool pool() {
+            return pool;
+        }
+    }
+
+    /**
+     * Snapshot of a pool's usage.
+     *
+     * @param browser      the browser type served by the pool
+     * @param acquisitions total leases handed out
+     * @param hits         leases served by an already running session
+     * @param launches     new browser sessions started
+     * @param recycled     sessions quit after reaching their lease limit
+     * @param discarded    sessions quit because they could not be reset
+     * @param totalWaitMs  total time spent inside acquire
+     * @param maxWaitMs    longest single acquire
+     */
+    public record Metrics(BrowserActions.Browsers browser, long acquisitions, long hits, long launches,
+                          long recycled, long discarded, long totalWaitMs, long maxWaitMs) {
+
+        /** @return fraction of acquisitions served without launching a browser */
+        public double hitRate() {
+            return acquisitions == 0 ? 0 : (double) hits / acquisitions;
+        }
+
+        /** @return browser launches saved by reusing sessions */
+        public long launchesAvoided() {
+            return hits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Driver pool [%s]: acquisitions=%d, hitRate=%.1f%%, launchesAvoided=%d, launches=%d, "
+                            + "recycled=%d, discarded=%d, totalWait=%dms, maxWait=%dms",
+                    browser, acquisitions, hitRate() * 100, launchesAvoided(), launches, recycled, discarded,
+                    totalWaitMs, maxWaitMs);
+        }
+    }
+}
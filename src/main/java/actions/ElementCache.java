@@ -0,0 +1,145 @@
+package actions;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import utils.ConfigReader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Element handles resolved by {@link UIActions}, cached per browser session and per locator,
+ * so repeated actions on the same element of the same page skip the wait and find round trips.
+ * <p>
+ * Every {@link UIActions} instance on a session shares that session's cache, so page objects
+ * created for the same page reuse each other's handles. The cache is cleared on navigation, click,
+ * submit and window switches, which may replace the page, and dropped when the session is reset for
+ * another lease or quit. A cached handle that has gone stale or cannot be interacted with is evicted
+ * and the element is found again transparently.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code elementCache.enabled} - set to {@code false} to find elements on every action</li>
+ * </ul>
+ */
+public class ElementCache {
+    private static final boolean enabled = ConfigReader.getBooleanProperty("elementCache.enabled", true);
+    private static final Map<WebDriver, ElementCache> caches = new ConcurrentHashMap<>();
+    private static final Totals totals = new Totals();
+
+    private final Map<By, WebElement> elements = new HashMap<>();
+
+    private ElementCache() {
+    }
+
+    /**
+     * Returns the cache shared by every {@link UIActions} instance on a session.
+     *
+     * @param driver the browser session
+     * @return the session's cache
+     */
+    public static ElementCache forDriver(WebDriver driver) {
+        return caches.computeIfAbsent(driver, key -> new ElementCache());
+    }
+
+    /**
+     * Drops a session's cache, e.g. because the session is quit or reset for another lease.
+     *
+     * @param driver the browser session
+     */
+    public static void discard(WebDriver driver) {
+        caches.remove(driver);
+    }
+
+    /**
+     * Returns the cached handle for a locator.
+     *
+     * @param locator the element locator
+     * @return the cached element, or {@code null} on a miss or when caching is disabled
+     */
+    public synchronized WebElement get(Locator locator) {
+        if (!enabled) return null;
+        WebElement element = elements.get(locator.by());
+        if (element != null) {
+            totals.hits.increment();
+        } else {
+            totals.misses.increment();
+        }
+        return element;
+    }
+
+    /**
+     * Caches a freshly resolved handle.
+     *
+     * @param locator the element locator
+     * @param element the resolved element
+     */
+    public synchronized void put(Locator locator, WebElement element) {
+        if (enabled) elements.put(locator.by(), element);
+    }
+
+    /**
+     * Evicts a handle that turned out to be stale or not interactable; the caller finds the element again.
+     *
+     * @param locator the element locator
+     */
+    public synchronized void evictStale(Locator locator) {
+        if (elements.remove(locator.by()) != null) totals.staleRefinds.increment();
+    }
+
+    /**
+     * Drops every cached handle, e.g. because the page was replaced.
+     */
+    public synchronized void invalidate() {
+        if (elements.isEmpty()) return;
+        elements.clear();
+        totals.invalidations.increment();
+    }
+
+    /**
+     * Returns the cache counters of every session in this JVM.
+     *
+     * @return the totals so far
+     */
+    public static Stats getTotals() {
+        return new Stats(totals.hits.sum(), totals.misses.sum(), totals.staleRefinds.sum(), totals.invalidations.sum());
+    }
+
+    /**
+     * Element cache counters.
+     *
+     * @param hits          lookups served from the cache, each saving a wait and a find round trip
+     * @param misses        lookups that had to find the element
+     * @param staleRefinds  cached handles that were stale or not interactable and had to be found again
+     * @param invalidations times a non-empty cache was cleared
+     */
+    public record Stats(long hits, long misses, long staleRefinds, long invalidations) {
+
+        /** @return fraction of lookups served from the cache */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        /** @return lookups that saved a find, i.e. hits that were not stale */
+        public long findsSaved() {
+            return hits - staleRefinds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Element cache: hits=%d, misses=%d, hitRate=%.1f%%, findsSaved=%d, staleRefinds=%d, invalidations=%d",
+                    hits, misses, hitRate() * 100, findsSaved(), staleRefinds, invalidations);
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder staleRefinds = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+    }
+}
@@ -0,0 +1,44 @@
+package actions;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a bulk element query made by {@link UIActions#queryElements}: everything
+ * about the matching elements collected in a single {@code executeScript} round trip.
+ *
+ * @param elements   the matching elements, in document order
+ * @param texts      the trimmed visible text of each element
+ * @param visible    whether each element is displayed
+ * @param attributes the requested attributes of each element (missing attributes map to {@code null})
+ */
+public record ElementsSnapshot(List<WebElement> elements, List<String> texts, List<Boolean> visible,
+                               List<Map<String, String>> attributes) {
+
+    /** @return the number of matching elements */
+    public int count() {
+        return elements.size();
+    }
+
+    /** @return {@code true} if there is at least one match and every match is displayed */
+    public boolean allVisible() {
+        return !visible.isEmpty() && !visible.contains(Boolean.FALSE);
+    }
+
+    /**
+     * Checks whether every element's text contains the expected text (case-insensitive).
+     *
+     * @param expectedText the text expected in each element
+     * @return {@code true} if there is at least one match and all of them contain the text
+     */
+    public boolean allTextsContain(String expectedText) {
+        if (texts.isEmpty()) return false;
+        String expected = expectedText.toLowerCase();
+        for (String text : texts) {
+            if (!text.toLowerCase().contains(expected)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package actions;
+
+import org.openqa.selenium.By;
+
+/**
+ * A typed, pre-built element locator: the locator strategy, its selector, the wait
+ * condition normally applied before using it, and the Selenium {@link By} built once.
+ *
+ * @param key              the registry key (or the selector for ad-hoc locators)
+ * @param type             the locator strategy
+ * @param selector         the actual locator string
+ * @param defaultCondition the explicit wait condition applied when none is given
+ * @param by               the pre-built Selenium locator
+ */
+public record Locator(String key, UIActions.LocatorType type, String selector,
+                      UIActions.ExplicitWaitCondition defaultCondition, By by) {
+
+    /**
+     * Builds an ad-hoc locator that is not backed by the {@link LocatorRegistry}.
+     *
+     * @param type      the locator strategy
+     * @param selector  the actual locator string
+     * @param condition the wait condition to apply
+     * @return a new locator
+     */
+    public static Locator of(UIActions.LocatorType type, String selector, UIActions.ExplicitWaitCondition condition) {
+        return new Locator(selector, type, selector, condition, toBy(type, selector));
+    }
+
+    /**
+     * Returns a copy of this locator that waits for a different condition, reusing the pre-built {@link By}.
+     *
+     * @param condition the wait condition to apply
+     * @return this locator if the condition is unchanged, otherwise a copy
+     */
+    public Locator withCondition(UIActions.ExplicitWaitCondition condition) {
+        return condition == defaultCondition ? this : new Locator(key, type, selector, condition, by);
+    }
+
+    /**
+     * Converts a {@link UIActions.LocatorType} and selector string into a Selenium {@link By} object.
+     *
+     * @param type     type of locator
+     * @param selector the actual locator string
+     * @return a {@link By} instance
+     * @throws IllegalArgumentException if the locator type is unsupported
+     */
+    static By toBy(UIActions.LocatorType type, String selector) {
+        switch (type) {
+            case id: return By.id(selector);
+            case css: return By.cssSelector(selector);
+            case xpath: return By.xpath(selector);
+            case tagname: return By.tagName(selector);
+            case linktext: return By.linkText(selector);
+            case classname: return By.className(selector);
+            case name: return By.name(selector);
+            case partialLinkText: return By.partialLinkText(selector);
+            default: throw new IllegalArgumentException("Unsupported LocatorType: " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return key.equals(selector) ? type + ": " + selector : key + " (" + type + ": " + selector + ")";
+    }
+}
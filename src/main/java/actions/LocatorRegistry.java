@@ -0,0 +1,151 @@
+package actions;
+
+import utils.ConfigReader;
+import utils.DependencyRecorder;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Registry of every element locator declared in config.properties, loaded and validated once.
+ * <p>
+ * A locator is declared by its selector plus a {@code .type} entry, and optionally a
+ * {@code .wait} entry for its default {@link UIActions.ExplicitWaitCondition}:
+ * <pre>
+ * searchBarLocator=textarea#sb_form_q
+ * searchBarLocator.type=css
+ * searchBarLocator.wait=visibilityOfElement
+ * </pre>
+ * XPath and CSS selectors are syntax-checked at load time, so a broken selector fails the
+ * run immediately instead of surfacing as a wait timeout.
+ * </p>
+ */
+public class LocatorRegistry {
+    private static final Logger logger = Logger.getLogger(LocatorRegistry.class.getName());
+    private static final String TYPE_SUFFIX = ".type";
+    private static final String WAIT_SUFFIX = ".wait";
+
+    private static final Map<String, Locator> locators = DependencyRecorder.untracked(LocatorRegistry::load);
+
+    private LocatorRegistry() {
+    }
+
+    /**
+     * Returns the locator registered under the given key.
+     *
+     * @param key the locator key in config.properties
+     * @return the pre-built locator
+     * @throws IllegalArgumentException if no locator is registered under the key
+     */
+    public static Locator get(String key) {
+        Locator locator = locators.get(key);
+        if (locator == null) {
+            throw new IllegalArgumentException("No locator registered for key: " + key
+                    + " (declare '" + key + TYPE_SUFFIX + "' in config.properties)");
+        }
+        return locator;
+    }
+
+    /**
+     * @return every registered locator, keyed by name
+     */
+    public static Map<String, Locator> all() {
+        return locators;
+    }
+
+    private static Map<String, Locator> load() {
+        Map<String, Locator> loaded = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (String property : ConfigReader.getKeys()) {
+            if (!property.endsWith(TYPE_SUFFIX)) continue;
+            String key = property.substring(0, property.length() - TYPE_SUFFIX.length());
+            String selector = ConfigReader.getProperty(key);
+            try {
+                UIActions.LocatorType type = UIActions.LocatorType.valueOf(ConfigReader.getProperty(property).trim());
+                UIActions.ExplicitWaitCondition condition = UIActions.ExplicitWaitCondition.valueOf(
+                        ConfigReader.getProperty(key + WAIT_SUFFIX, UIActions.ExplicitWaitCondition.visibilityOfElement.name()));
+                String problem = validate(type, selector);
+                if (problem != null) {
+                    errors.add(key + ": " + problem);
+                    continue;
+                }
+                loaded.put(key, new Locator(key, type, selector, condition, Locator.toBy(type, selector)));
+            } catch (IllegalArgumentException e) {
+                errors.add(key + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid locators in config.properties: " + errors);
+        }
+        logger.info("Loaded " + loaded.size() + " locators into the registry.");
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Checks a selector's syntax for its locator type.
+     *
+     * @return a description of the problem, or {@code null} if the selector is valid
+     */
+    static String validate(UIActions.LocatorType type, String selector) {
+        if (selector == null || selector.isBlank()) {
+            return "selector is missing";
+        }
+        switch (type) {
+            case xpath:
+                try {
+                    XPathFactory.newInstance().newXPath().compile(selector);
+                    return null;
+                } catch (XPathExpressionException e) {
+                    return "invalid XPath '" + selector + "'";
+                }
+            case css:
+                return validateCss(selector);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Structural CSS check: balanced brackets, parentheses and quotes, and no dangling combinator.
+     */
+    private static String validateCss(String selector) {
+        Deque<Character> open = new ArrayDeque<>();
+        char quote = 0;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') i++;
+                else if (c == quote) quote = 0;
+                continue;
+            }
+            switch (c) {
+                case '\'': case '"': quote = c; break;
+                case '[': case '(': open.push(c); break;
+                case ']':
+                    if (open.isEmpty() || open.pop() != '[') return "unbalanced ']' in CSS '" + selector + "'";
+                    break;
+                case ')':
+                    if (open.isEmpty() || open.pop() != '(') return "unbalanced ')' in CSS '" + selector + "'";
+                    break;
+                default:
+            }
+        }
+        if (quote != 0) return "unterminated string in CSS '" + selector + "'";
+        if (!open.isEmpty()) return "unclosed '" + open.peek() + "' in CSS '" + selector + "'";
+        String trimmed = selector.trim();
+        char first = trimmed.charAt(0);
+        char last = trimmed.charAt(trimmed.length() - 1);
+        if (first == ',' || last == ',' || last == '>' || last == '+' || last == '~') {
+            return "dangling combinator in CSS '" + selector + "'";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,278 @@
+package actions;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Named network profiles applied to new Chromium sessions (Chrome, Edge) through the Chrome DevTools Protocol,
+ * so pages skip the images, fonts and tracking scripts that assertions never look at.
+ * <p>
+ * The profile is selected with {@code network.profile} in config.properties or {@code -Dnetwork.profile};
+ * {@code none} leaves sessions untouched. A profile {@code <name>} is defined by:
+ * <ul>
+ *     <li>{@code network.profile.<name>.blockUrls} - comma-separated URL patterns, {@code *} matches any characters</li>
+ *     <li>{@code network.profile.<name>.blockTypes} - comma-separated CDP resource types, e.g. {@code Image,Font,Media}</li>
+ *     <li>{@code network.profile.<name>.disableCache} - bypass the browser cache</li>
+ *     <li>{@code network.profile.<name>.latencyMs}, {@code .downloadKbps}, {@code .uploadKbps} - throttling, 0 = unlimited</li>
+ * </ul>
+ * Every finished and blocked request is counted per profile. A blocked request counts its size as saved when
+ * the same URL was downloaded earlier in this JVM (e.g. by a session on the {@code none} profile);
+ * {@link #writeReport()} writes the totals to {@code network.reportPath}.
+ * Firefox sessions are left untouched because they have no CDP endpoint.
+ * </p>
+ */
+public class NetworkProfiles {
+    private static final Logger logger = Logger.getLogger(NetworkProfiles.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final String NONE = "none";
+
+    private static final Event<Map<String, Object>> requestWillBeSent = event("Network.requestWillBeSent");
+    private static final Event<Map<String, Object>> loadingFinished = event("Network.loadingFinished");
+    private static final Event<Map<String, Object>> loadingFailed = event("Network.loadingFailed");
+    private static final Event<Map<String, Object>> requestPaused = event("Fetch.requestPaused");
+
+    private static final Map<String, Long> knownSizes = new ConcurrentHashMap<>();
+    private static final Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    private NetworkProfiles() {
+    }
+
+    /**
+     * @return the profile selected with {@code -Dnetwork.profile} or {@code network.profile}, {@code none} by default
+     */
+    public static String configuredProfile() {
+        String name = System.getProperty("network.profile");
+        return name == null || name.isBlank() ? ConfigReader.getProperty("network.profile", NONE) : name.trim();
+    }
+
+    /**
+     * Applies the configured profile to a new session.
+     *
+     * @param driver  the new session
+     * @param browser the browser type of the session
+     */
+    static void applyConfigured(WebDriver driver, BrowserActions.Browsers browser) {
+        String name = configuredProfile();
+        if (NONE.equalsIgnoreCase(name)) return;
+        if (browser == BrowserActions.Browsers.FIREFOX) {
+            logger.warning("Network profile '" + name + "' needs the Chrome DevTools Protocol; not applied to FIREFOX");
+            return;
+        }
+        apply(driver, name);
+    }
+
+    /**
+     * Applies a named profile to a session and starts counting its requests. Should be called
+     * before the session loads its first page.
+     *
+     * @param driver the session, which must support the Chrome DevTools Protocol
+     * @param name   the profile name; {@code none} only counts requests
+     * @throws IllegalArgumentException if the session does not support the Chrome DevTools Protocol
+     */
+    public static void apply(WebDriver driver, String name) {
+        if (!(driver instanceof HasDevTools)) {
+            throw new IllegalArgumentException("Network profiles need a Chrome DevTools session: " + driver);
+        }
+        Profile profile = Profile.fromConfig(name);
+        Totals stats = totals.computeIfAbsent(profile.name(), key -> new Totals());
+        stats.sessions.increment();
+
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        Map<String, String> urls = new ConcurrentHashMap<>();
+        devTools.addListener(requestWillBeSent, e -> {
+            Object request = e.get("request");
+            if (request instanceof Map<?, ?> map) urls.put(String.valueOf(e.get("requestId")), String.valueOf(map.get("url")));
+        });
+        devTools.addListener(loadingFinished, e -> {
+            String url = urls.remove(String.valueOf(e.get("requestId")));
+            long bytes = e.get("encodedDataLength") instanceof Number number ? number.longValue() : 0;
+            stats.requests.increment();
+            stats.bytesReceived.add(bytes);
+            if (url != null && bytes > 0) knownSizes.put(url, bytes);
+        });
+        devTools.addListener(loadingFailed, e -> {
+            String url = urls.remove(String.valueOf(e.get("requestId")));
+            if (e.get("blockedReason") == null && !String.valueOf(e.get("errorText")).contains("ERR_BLOCKED_BY_CLIENT")) return;
+            stats.blockedRequests.increment();
+            Long size = url == null ? null : knownSizes.get(url);
+            if (size != null) {
+                stats.bytesSaved.add(size);
+            } else {
+                stats.blockedUnknownSize.increment();
+            }
+        });
+        devTools.send(new Command<>("Network.enable", Map.of()));
+
+        if (!profile.blockUrls().isEmpty()) {
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", profile.blockUrls())));
+        }
+        if (profile.disableCache()) {
+            devTools.send(new Command<>("Network.setCacheDisabled", Map.of("cacheDisabled", true)));
+        }
+        if (profile.throttled()) {
+            devTools.send(new Command<>("Network.emulateNetworkConditions", Map.of(
+                    "offline", false,
+                    "latency", profile.latencyMs(),
+                    "downloadThroughput", bytesPerSecond(profile.downloadKbps()),
+                    "uploadThroughput", bytesPerSecond(profile.uploadKbps()))));
+        }
+        if (!profile.blockTypes().isEmpty()) {
+            devTools.addListener(requestPaused, e -> devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", e.get("requestId"), "errorReason", "BlockedByClient"))));
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String type : profile.blockTypes()) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+            }
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+        logger.info("Network profile applied: " + profile);
+    }
+
+    /**
+     * Returns the request totals of every profile used so far.
+     *
+     * @return the totals keyed by profile name
+     */
+    public static Map<String, Summary> getSummaries() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        totals.forEach((name, stats) -> summaries.put(name, stats.summary()));
+        return summaries;
+    }
+
+    /**
+     * Logs the totals of every profile used so far and writes them as JSON to {@code network.reportPath}.
+     *
+     * @return the report path, or {@code null} when no session used a profile
+     */
+    public static Path writeReport() {
+        if (totals.isEmpty()) return null;
+        Map<String, Summary> summaries = getSummaries();
+        summaries.forEach((name, summary) -> logger.info("Network profile '" + name + "': " + summary));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", summaries);
+        Path path = Paths.get(ConfigReader.getProperty("network.reportPath", "test-output/network-savings.json"));
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Files.writeString(path, gson.toJson(report), StandardCharsets.UTF_8);
+            logger.info("Network savings report written: " + path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write network savings report: " + path, e);
+        }
+        return path;
+    }
+
+    private static long bytesPerSecond(int kbps) {
+        return kbps <= 0 ? -1 : kbps * 1000L / 8;
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    /**
+     * One network profile as configured in config.properties.
+     *
+     * @param name         the profile name
+     * @param blockUrls    URL patterns to block
+     * @param blockTypes   CDP resource types to block, e.g. {@code Image}
+     * @param disableCache whether the browser cache is bypassed
+     * @param latencyMs    added round-trip latency, 0 for none
+     * @param downloadKbps download throughput in kbit/s, 0 for unlimited
+     * @param uploadKbps   upload throughput in kbit/s, 0 for unlimited
+     */
+    public record Profile(String name, List<String> blockUrls, List<String> blockTypes, boolean disableCache,
+                          int latencyMs, int downloadKbps, int uploadKbps) {
+
+        /**
+         * Reads a profile from config.properties.
+         *
+         * @param name the profile name
+         * @return the profile; {@code none} and undefined names yield an empty profile
+         * @throws IllegalArgumentException if a named profile other than {@code none} defines nothing
+         */
+        public static Profile fromConfig(String name) {
+            String prefix = "network.profile." + name + ".";
+            Profile profile = new Profile(name,
+                    list(ConfigReader.getProperty(prefix + "blockUrls", "")),
+                    list(ConfigReader.getProperty(prefix + "blockTypes", "")),
+                    ConfigReader.getBooleanProperty(prefix + "disableCache", false),
+                    ConfigReader.getIntProperty(prefix + "latencyMs", 0),
+                    ConfigReader.getIntProperty(prefix + "downloadKbps", 0),
+                    ConfigReader.getIntProperty(prefix + "uploadKbps", 0));
+            if (!NONE.equalsIgnoreCase(name) && profile.isEmpty()) {
+                throw new IllegalArgumentException("Network profile '" + name + "' is not defined in config.properties");
+            }
+            return profile;
+        }
+
+        /** @return whether latency or throughput is emulated */
+        public boolean throttled() {
+            return latencyMs > 0 || downloadKbps > 0 || uploadKbps > 0;
+        }
+
+        private boolean isEmpty() {
+            return blockUrls.isEmpty() && blockTypes.isEmpty() && !disableCache && !throttled();
+        }
+
+        private static List<String> list(String value) {
+            return Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty()).toList();
+        }
+    }
+
+    /**
+     * Request totals of one profile.
+     *
+     * @param sessions           sessions the profile was applied to
+     * @param requests           requests that finished loading
+     * @param bytesReceived      encoded bytes received by those requests
+     * @param blockedRequests    requests blocked by the profile
+     * @param bytesSaved         known size of the blocked requests
+     * @param blockedUnknownSize blocked requests whose URL was never downloaded in this JVM
+     */
+    public record Summary(long sessions, long requests, long bytesReceived, long blockedRequests,
+                          long bytesSaved, long blockedUnknownSize) {
+        @Override
+        public String toString() {
+            return String.format("sessions=%d, requests=%d, received=%dKB, blocked=%d, saved=%dKB (%d blocked of unknown size)",
+                    sessions, requests, bytesReceived / 1024, blockedRequests, bytesSaved / 1024, blockedUnknownSize);
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder sessions = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder blockedRequests = new LongAdder();
+        private final LongAdder bytesSaved = new LongAdder();
+        private final LongAdder blockedUnknownSize = new LongAdder();
+
+        Summary summary() {
+            return new Summary(sessions.sum(), requests.sum(), bytesReceived.sum(), blockedRequests.sum(),
+                    bytesSaved.sum(), blockedUnknownSize.sum());
+        }
+    }
+}
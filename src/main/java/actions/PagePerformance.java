@@ -0,0 +1,445 @@
+package actions;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Page performance capture: Navigation Timing, a Resource Timing summary and, on Chromium, the CDP
+ * {@code Performance.getMetrics} counters, recorded as one {@link Entry} per measured step.
+ * <p>
+ * {@link UIActions#navigateToPage(String)} and {@link UIActions#measurePageLoad(String, Runnable)} capture an entry
+ * when {@code perf.enabled} is set. The timing entries are read and aggregated in the page with one script call;
+ * only the totals per resource type and the slowest resources travel back. Entries are kept per thread like
+ * {@code ActionMetrics}: {@link #attachToAllure()} attaches a test's entries together with the trend of its steps
+ * over earlier runs, and {@link #writeTrend()} appends the suite's per-step medians to {@code perf.trendPath}.
+ * </p>
+ * <p>
+ * Tests assert thresholds with {@link Budget}, e.g.
+ * {@code PagePerformance.budget().max("ttfbMs", 800).max("transferSize", 2_000_000).assertWithin("BingHomePage.navigateToPage")}.
+ * {@link #budget()} starts from the {@code perf.budget.<metric>} keys.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code perf.enabled} - capture page performance entries</li>
+ *     <li>{@code perf.topResources} - slowest resources listed per entry</li>
+ *     <li>{@code perf.navigationTimeoutMs} - how long a measured action may take to load the next document</li>
+ *     <li>{@code perf.trendPath}, {@code perf.trendRuns} - trend file and how many runs it keeps</li>
+ *     <li>{@code perf.budget.<metric>} - default budget, e.g. {@code perf.budget.ttfbMs=800}</li>
+ * </ul>
+ */
+public class PagePerformance {
+    private static final Logger logger = Logger.getLogger(PagePerformance.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final String BUDGET_PREFIX = "perf.budget.";
+
+    private static final boolean enabled = ConfigReader.getBooleanProperty("perf.enabled", false);
+    private static final int topResources = Math.max(0, ConfigReader.getIntProperty("perf.topResources", 5));
+    private static final long navigationTimeoutMs = ConfigReader.getIntProperty("perf.navigationTimeoutMs", 10000);
+    private static final Path trendPath = Paths.get(ConfigReader.getProperty("perf.trendPath", "test-history/page-performance.json"));
+    private static final int trendRuns = Math.max(1, ConfigReader.getIntProperty("perf.trendRuns", 30));
+
+    /**
+     * Reads the navigation entry and aggregates the resource entries of the current document.
+     * Argument: number of slowest resources to list.
+     */
+    private static final String TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0], out = {url: location.href, types: {}, slowest: []};"
+            + "if (nav) { out.type = nav.type; out.ttfb = nav.responseStart; out.dcl = nav.domContentLoadedEventEnd;"
+            + "  out.load = nav.loadEventEnd; out.transfer = nav.transferSize; out.decoded = nav.decodedBodySize; }"
+            + "var res = performance.getEntriesByType('resource'), count = 0, bytes = 0;"
+            + "res.forEach(function (r) { var t = out.types[r.initiatorType] || (out.types[r.initiatorType] = [0, 0]);"
+            + "  t[0]++; t[1] += r.transferSize || 0; count++; bytes += r.transferSize || 0; });"
+            + "out.count = count; out.bytes = bytes;"
+            + "out.slowest = res.slice().sort(function (a, b) { return b.duration - a.duration; }).slice(0, arguments[0])"
+            + "  .map(function (r) { return [r.name, r.initiatorType, r.duration, r.transferSize || 0]; });"
+            + "return out;";
+    private static final String DOCUMENT_SCRIPT = "return [performance.timeOrigin, document.readyState];";
+
+    private static final ThreadLocal<List<Entry>> threadEntries = ThreadLocal.withInitial(ArrayList::new);
+    private static final List<Entry> suiteEntries = new ArrayList<>();
+    private static final Set<WebDriver> cdpEnabled = ConcurrentHashMap.newKeySet();
+    private static volatile Trend previousRuns;
+
+    private PagePerformance() {
+    }
+
+    /**
+     * @return whether page performance is captured ({@code perf.enabled})
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Captures the timing of the document currently loaded in the session, when capture is enabled.
+     *
+     * @param driver the session
+     * @param step   the stable name the entry is recorded and trended under
+     * @return the captured entry, or {@code null} when capture is disabled or failed
+     */
+    public static Entry capture(WebDriver driver, String step) {
+        if (!enabled) return null;
+        try {
+            Entry entry = read(driver, step);
+            threadEntries.get().add(entry);
+            return entry;
+        } catch (WebDriverException | ClassCastException e) {
+            logger.log(Level.WARNING, "Failed to capture page performance of " + step, e);
+            return null;
+        }
+    }
+
+    /**
+     * Runs an action that loads another document, waits until the new document has loaded and captures it.
+     * Without capture enabled only the action runs.
+     *
+     * @param driver the session
+     * @param step   the stable name the entry is recorded and trended under
+     * @param action the action that navigates, e.g. a click on a link
+     * @return the captured entry, or {@code null} when capture is disabled or failed
+     */
+    public static Entry measure(WebDriver driver, String step, Runnable action) {
+        if (!enabled) {
+            action.run();
+            return null;
+        }
+        Object origin = document(driver).get(0);
+        action.run();
+        long deadline = System.currentTimeMillis() + navigationTimeoutMs;
+        while (true) {
+            List<?> document = document(driver);
+            if (!origin.equals(document.get(0)) && "complete".equals(document.get(1))) break;
+            if (System.currentTimeMillis() > deadline) {
+                logger.warning("No new document loaded within " + navigationTimeoutMs + "ms after " + step
+                        + "; capturing the current one.");
+                break;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return capture(driver, step);
+    }
+
+    /**
+     * @return the entries captured on the current thread since the last drain, oldest first
+     */
+    public static List<Entry> currentThreadEntries() {
+        return List.copyOf(threadEntries.get());
+    }
+
+    /**
+     * @return a budget holding the {@code perf.budget.<metric>} thresholds from the configuration
+     */
+    public static Budget budget() {
+        Budget budget = new Budget();
+        for (String key : ConfigReader.getKeys()) {
+            if (!key.startsWith(BUDGET_PREFIX)) continue;
+            double limit = ConfigReader.getDoubleProperty(key, Double.NaN);
+            if (!Double.isNaN(limit)) budget.max(key.substring(BUDGET_PREFIX.length()), limit);
+        }
+        return budget;
+    }
+
+    /**
+     * Moves the current thread's entries into the suite totals and attaches them as JSON to the current Allure
+     * result, together with the medians of the same steps in earlier runs. Nothing is attached when the thread
+     * captured no entries.
+     */
+    public static void attachToAllure() {
+        List<Entry> entries = threadEntries.get();
+        if (entries.isEmpty()) return;
+        List<Entry> drained = List.copyOf(entries);
+        threadEntries.remove();
+        synchronized (suiteEntries) {
+            suiteEntries.addAll(drained);
+        }
+        Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("entries", drained);
+        Map<String, List<Map<String, Object>>> trend = new TreeMap<>();
+        Map<String, Map<String, Double>> current = medians(drained);
+        for (Run run : previousRuns().runs()) {
+            current.keySet().forEach(step -> {
+                Map<String, Double> medians = run.steps().get(step);
+                if (medians != null) trend.computeIfAbsent(step, key -> new ArrayList<>()).add(point(run.runAt(), medians));
+            });
+        }
+        current.forEach((step, medians) -> trend.computeIfAbsent(step, key -> new ArrayList<>()).add(point("current", medians)));
+        attachment.put("trend", trend);
+        Allure.addAttachment("Page performance", "application/json", gson.toJson(attachment), ".json");
+    }
+
+    /**
+     * Appends the per-step medians of every drained entry as one run to {@code perf.trendPath},
+     * keeping the last {@code perf.trendRuns} runs.
+     *
+     * @return the path of the trend file, or {@code null} when nothing was captured
+     */
+    public static Path writeTrend() {
+        Map<String, Map<String, Double>> medians;
+        synchronized (suiteEntries) {
+            if (suiteEntries.isEmpty()) return null;
+            medians = medians(suiteEntries);
+            suiteEntries.clear();
+        }
+        List<Run> runs = new ArrayList<>(previousRuns().runs());
+        runs.add(new Run(Instant.now().toString(), medians));
+        if (runs.size() > trendRuns) runs = new ArrayList<>(runs.subList(runs.size() - trendRuns, runs.size()));
+        Trend trend = new Trend(runs);
+        try {
+            if (trendPath.getParent() != null) Files.createDirectories(trendPath.getParent());
+            Files.writeString(trendPath, gson.toJson(trend), StandardCharsets.UTF_8);
+            previousRuns = trend;
+            logger.info("Page performance trend written: " + trendPath.toAbsolutePath() + " (" + runs.size() + " runs)");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write page performance trend: " + trendPath, e);
+        }
+        return trendPath;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Entry read(WebDriver driver, String step) {
+        Map<String, Object> timing = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT, topResources);
+        Map<String, ResourceType> types = new TreeMap<>();
+        ((Map<String, List<Number>>) timing.get("types")).forEach((type, totals) ->
+                types.put(type, new ResourceType(totals.get(0).intValue(), totals.get(1).longValue())));
+        List<Resource> slowest = new ArrayList<>();
+        for (List<Object> resource : (List<List<Object>>) timing.get("slowest")) {
+            slowest.add(new Resource((String) resource.get(0), (String) resource.get(1),
+                    ((Number) resource.get(2)).doubleValue(), ((Number) resource.get(3)).longValue()));
+        }
+        return new Entry(step, (String) timing.get("url"), Instant.now().toString(), (String) timing.get("type"),
+                millis(timing.get("ttfb")), millis(timing.get("dcl")), millis(timing.get("load")),
+                bytes(timing.get("transfer")), bytes(timing.get("decoded")),
+                ((Number) timing.get("count")).intValue(), ((Number) timing.get("bytes")).longValue(),
+                types, slowest, cdpMetrics(driver));
+    }
+
+    /**
+     * Reads {@code Performance.getMetrics} on Chromium sessions, enabling the domain once per session.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> cdpMetrics(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) return null;
+        HasCdp cdp = (HasCdp) driver;
+        try {
+            if (cdpEnabled.add(driver)) cdp.executeCdpCommand("Performance.enable", Map.of());
+            Map<String, Object> result = cdp.executeCdpCommand("Performance.getMetrics", Map.of());
+            Map<String, Double> metrics = new TreeMap<>();
+            for (Map<String, Object> metric : (List<Map<String, Object>>) result.get("metrics")) {
+                metrics.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+            }
+            return metrics;
+        } catch (WebDriverException e) {
+            logger.log(Level.FINE, "CDP performance metrics unavailable", e);
+            return null;
+        }
+    }
+
+    private static List<?> document(WebDriver driver) {
+        return (List<?>) ((JavascriptExecutor) driver).executeScript(DOCUMENT_SCRIPT);
+    }
+
+    /** Timing values of 0 mark events that have not happened yet, e.g. the load event with an eager page-load strategy. */
+    private static Double millis(Object value) {
+        return value instanceof Number number && number.doubleValue() > 0 ? number.doubleValue() : null;
+    }
+
+    private static Long bytes(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static Map<String, Map<String, Double>> medians(List<Entry> entries) {
+        Map<String, Map<String, List<Double>>> samples = new TreeMap<>();
+        for (Entry entry : entries) {
+            Map<String, List<Double>> step = samples.computeIfAbsent(entry.step(), key -> new TreeMap<>());
+            entry.metrics().forEach((name, value) -> step.computeIfAbsent(name, key -> new ArrayList<>()).add(value));
+        }
+        Map<String, Map<String, Double>> medians = new TreeMap<>();
+        samples.forEach((step, metrics) -> {
+            Map<String, Double> stepMedians = new TreeMap<>();
+            metrics.forEach((name, values) -> {
+                values.sort(null);
+                int middle = values.size() / 2;
+                stepMedians.put(name, values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2);
+            });
+            stepMedians.put("samples", (double) metrics.values().stream().mapToInt(List::size).max().orElse(0));
+            medians.put(step, stepMedians);
+        });
+        return medians;
+    }
+
+    private static Map<String, Object> point(String runAt, Map<String, Double> medians) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("runAt", runAt);
+        point.put("medians", medians);
+        return point;
+    }
+
+    private static Trend previousRuns() {
+        Trend trend = previousRuns;
+        if (trend != null) return trend;
+        synchronized (PagePerformance.class) {
+            if (previousRuns != null) return previousRuns;
+            trend = new Trend(List.of());
+            if (Files.exists(trendPath)) {
+                try (Reader reader = Files.newBufferedReader(trendPath, StandardCharsets.UTF_8)) {
+                    Trend loaded = gson.fromJson(reader, Trend.class);
+                    if (loaded != null && loaded.runs() != null) trend = loaded;
+                } catch (IOException | JsonParseException e) {
+                    logger.log(Level.WARNING, "Ignoring unreadable page performance trend: " + trendPath, e);
+                }
+            }
+            previousRuns = trend;
+            return trend;
+        }
+    }
+
+    /**
+     * Performance of one measured step.
+     *
+     * @param step                 the stable step name, e.g. {@code BingHomePage.navigateToPage}
+     * @param url                  the document's URL
+     * @param capturedAt           when the entry was captured (ISO-8601)
+     * @param navigationType       {@code navigate}, {@code reload}, {@code back_forward} or {@code prerender}
+     * @param ttfbMs               time to first byte, from the start of the navigation
+     * @param domContentLoadedMs   end of the DOMContentLoaded event, from the start of the navigation
+     * @param loadMs               end of the load event, from the start of the navigation
+     * @param transferSize         bytes transferred for the document itself
+     * @param decodedBodySize      decoded size of the document body
+     * @param resourceCount        resources loaded by the document
+     * @param resourceTransferSize bytes transferred for all resources
+     * @param resourceTypes        count and bytes per initiator type ({@code img}, {@code script}, ...)
+     * @param slowestResources     the {@code perf.topResources} slowest resources
+     * @param cdpMetrics           CDP {@code Performance.getMetrics} values, {@code null} on non-Chromium sessions
+     */
+    public record Entry(String step, String url, String capturedAt, String navigationType,
+                        Double ttfbMs, Double domContentLoadedMs, Double loadMs, Long transferSize, Long decodedBodySize,
+                        int resourceCount, long resourceTransferSize, Map<String, ResourceType> resourceTypes,
+                        List<Resource> slowestResources, Map<String, Double> cdpMetrics) {
+
+        /**
+         * Returns every numeric value by the name budgets use: the timing and size components,
+         * {@code totalTransferSize} (document plus resources) and {@code cdp.<Name>} for CDP metrics.
+         *
+         * @return metric name to value, without the values that were not available
+         */
+        public Map<String, Double> metrics() {
+            Map<String, Double> metrics = new TreeMap<>();
+            if (ttfbMs != null) metrics.put("ttfbMs", ttfbMs);
+            if (domContentLoadedMs != null) metrics.put("domContentLoadedMs", domContentLoadedMs);
+            if (loadMs != null) metrics.put("loadMs", loadMs);
+            if (transferSize != null) metrics.put("transferSize", (double) transferSize);
+            if (decodedBodySize != null) metrics.put("decodedBodySize", (double) decodedBodySize);
+            metrics.put("resourceCount", (double) resourceCount);
+            metrics.put("resourceTransferSize", (double) resourceTransferSize);
+            metrics.put("totalTransferSize", (double) (transferSize == null ? 0 : transferSize) + resourceTransferSize);
+            if (cdpMetrics != null) cdpMetrics.forEach((name, value) -> metrics.put("cdp." + name, value));
+            return metrics;
+        }
+    }
+
+    /**
+     * @param count        resources of the type
+     * @param transferSize bytes transferred for them
+     */
+    public record ResourceType(int count, long transferSize) {
+    }
+
+    /**
+     * @param name          the resource URL
+     * @param initiatorType what requested it, e.g. {@code img} or {@code script}
+     * @param durationMs    fetch duration
+     * @param transferSize  bytes transferred, 0 when served from cache or cross-origin without Timing-Allow-Origin
+     */
+    public record Resource(String name, String initiatorType, double durationMs, long transferSize) {
+    }
+
+    private record Run(String runAt, Map<String, Map<String, Double>> steps) {
+    }
+
+    private record Trend(List<Run> runs) {
+    }
+
+    /**
+     * Upper thresholds on {@link Entry#metrics()} values.
+     */
+    public static final class Budget {
+        private final Map<String, Double> limits = new TreeMap<>();
+
+        private Budget() {
+        }
+
+        /**
+         * @param metric a name from {@link Entry#metrics()}, e.g. {@code ttfbMs}, {@code transferSize} or {@code cdp.JSHeapUsedSize}
+         * @param limit  the largest allowed value
+         * @return this budget, for chaining
+         */
+        public Budget max(String metric, double limit) {
+            limits.put(metric, limit);
+            return this;
+        }
+
+        /**
+         * @param entry the entry to check
+         * @return one description per exceeded threshold; empty when the entry is within budget
+         */
+        public List<String> violations(Entry entry) {
+            Map<String, Double> metrics = entry.metrics();
+            List<String> violations = new ArrayList<>();
+            limits.forEach((metric, limit) -> {
+                Double value = metrics.get(metric);
+                if (value != null && value > limit) {
+                    violations.add(String.format("%s %s=%.0f exceeds %.0f", entry.step(), metric, value, limit));
+                }
+            });
+            return violations;
+        }
+
+        /**
+         * Asserts that the latest entry of a step captured on the current thread is within this budget.
+         * Logs a warning instead when capture is disabled or the step was not captured.
+         *
+         * @param step the step name
+         * @throws AssertionError if a threshold is exceeded
+         */
+        public void assertWithin(String step) {
+            List<Entry> entries = threadEntries.get();
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (!entries.get(i).step().equals(step)) continue;
+                List<String> violations = violations(entries.get(i));
+                if (!violations.isEmpty()) throw new AssertionError("Performance budget exceeded: " + violations);
+                return;
+            }
+            logger.warning("No performance entry for " + step + " to check against the budget"
+                    + (enabled ? "." : " (perf.enabled=false)."));
+        }
+    }
+}
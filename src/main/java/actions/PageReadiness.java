@@ -0,0 +1,107 @@
+package actions;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import utils.DependencyRecorder;
+
+import java.util.List;
+
+/**
+ * When a page counts as usable after {@link UIActions#navigateToPage(String, PageReadiness)}.
+ * <p>
+ * With the {@code eager} or {@code none} page-load strategy ({@code <browser>.pageLoadStrategy}),
+ * navigation returns before images, fonts and scripts have finished loading; a readiness predicate
+ * then waits only for what the test actually needs. Element and DOM waits use the timeout of their
+ * {@link WaitEngine} condition; {@code readyState} and {@code script} waits use {@code wait.timeoutSeconds}.
+ * </p>
+ */
+public final class PageReadiness {
+    private static final List<String> READY_STATES = List.of("loading", "interactive", "complete");
+
+    private final String description;
+    private final Waiter waiter;
+
+    private PageReadiness(String description, Waiter waiter) {
+        this.description = description;
+        this.waiter = waiter;
+    }
+
+    /**
+     * Ready once an element matching the locator is in the DOM and displayed,
+     * detected by the event-driven {@code elementAppears} wait.
+     *
+     * @param locator the element the test needs first
+     * @return the readiness predicate
+     */
+    public static PageReadiness visible(Locator locator) {
+        return new PageReadiness("visible(" + locator.key() + ")",
+                (driver, waitEngine) -> {
+                    DependencyRecorder.locator(locator.key());
+                    waitEngine.waitForEvent(locator, UIActions.ExplicitWaitCondition.elementAppears, null);
+                });
+    }
+
+    /**
+     * Ready once {@code document.readyState} has reached the given state or a later one.
+     *
+     * @param state {@code loading}, {@code interactive} or {@code complete}
+     * @return the readiness predicate
+     * @throws IllegalArgumentException if the state is not a document ready state
+     */
+    public static PageReadiness readyState(String state) {
+        int required = READY_STATES.indexOf(state);
+        if (required < 0) {
+            throw new IllegalArgumentException("Not a document.readyState: " + state);
+        }
+        return new PageReadiness("readyState(" + state + ")", (driver, waitEngine) -> waitEngine.until(
+                () -> READY_STATES.indexOf(String.valueOf(((JavascriptExecutor) driver).executeScript("return document.readyState"))) >= required
+                        ? Boolean.TRUE : null,
+                WaitEngine.defaultTimeout(), "document.readyState=" + state));
+    }
+
+    /**
+     * Ready once a JavaScript condition returns a truthy value. Truthiness is decided in the page, so
+     * {@code 0}, {@code NaN}, {@code ""}, {@code null}, {@code undefined} and {@code false} keep waiting.
+     *
+     * @param script script body returning the condition, e.g. {@code return window.appReady}
+     * @return the readiness predicate
+     */
+    public static PageReadiness script(String script) {
+        // run the body as a function so its return value can be coerced with JavaScript's own rules
+        String truthy = "return !!(function () {\n" + script + "\n}).apply(this, arguments);";
+        return new PageReadiness("script", (driver, waitEngine) -> waitEngine.until(
+                () -> Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(truthy)) ? Boolean.TRUE : null,
+                WaitEngine.defaultTimeout(), "script " + script));
+    }
+
+    /**
+     * Ready once the DOM has stopped changing for {@code wait.domStableQuietMs}.
+     *
+     * @return the readiness predicate
+     */
+    public static PageReadiness domStable() {
+        return new PageReadiness("domStable", (driver, waitEngine) -> waitEngine.waitForDomStable());
+    }
+
+    /**
+     * Blocks until the page is ready.
+     *
+     * @param driver     the driver that navigated
+     * @param waitEngine the wait engine of the calling {@link UIActions}
+     * @throws TimeoutException if the page does not become ready in time
+     */
+    void await(WebDriver driver, WaitEngine waitEngine) {
+        waiter.await(driver, waitEngine);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    @FunctionalInterface
+    private interface Waiter {
+        void await(WebDriver driver, WaitEngine waitEngine);
+    }
+}
@@ -0,0 +1,257 @@
+package actions;
+
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Look-ahead launcher that starts the browsers of upcoming test classes in the background,
+ * so their launch overlaps with the tests already running instead of sitting on each class's critical path.
+ * <p>
+ * The suite's planned order of test classes and their browsers is handed over with {@link #plan(List)}.
+ * The launcher keeps up to {@code prelaunch.depth} sessions starting or ready for the next classes in that
+ * order; each class that requests a session moves the window forward. Whenever {@link DriverPool} or
+ * {@link BrowserActions#setWebDriver(BrowserActions.Browsers)} needs a new browser, {@link #launch(BrowserActions.Browsers)}
+ * hands over a pre-launched session of that type (waiting for it if it is still starting) before launching one itself.
+ * Pre-launched sessions go through {@link BrowserActions#createDriver(BrowserActions.Browsers)}, so they get the same
+ * options and network profile as any other session.
+ * </p>
+ * <p>
+ * With the session pool enabled, a planned class only gets a pre-launched session when the pool would have to
+ * launch one for it: no idle session of that browser and room under {@code pool.maxSessionsPerBrowser} after the
+ * sessions already being pre-launched. Classes that will reuse a pooled session are passed over.
+ * </p>
+ * <p>
+ * Launch time is split into the part hidden behind running tests and the part a test had to wait for;
+ * sessions never handed over are quit by {@link #shutdown()} and reported as unused.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code prelaunch.depth} - sessions kept starting or ready ahead of the running classes; 0 disables pre-launching</li>
+ * </ul>
+ */
+public class SessionPrelauncher {
+    private static final Logger logger = Logger.getLogger(SessionPrelauncher.class.getName());
+    private static final int depth = Math.max(0, ConfigReader.getIntProperty("prelaunch.depth", 1));
+
+    private static final Map<BrowserActions.Browsers, Deque<Pending>> pending = new EnumMap<>(BrowserActions.Browsers.class);
+    private static final Map<BrowserActions.Browsers, Totals> totals = new EnumMap<>(BrowserActions.Browsers.class);
+    private static List<BrowserActions.Browsers> planned = List.of();
+    private static int started;
+    private static int launched;
+    private static int waiting;
+    private static boolean closed;
+
+    static {
+        for (BrowserActions.Browsers browser : BrowserActions.Browsers.values()) {
+            pending.put(browser, new ArrayDeque<>());
+            totals.put(browser, new Totals());
+        }
+    }
+
+    private SessionPrelauncher() {
+    }
+
+    /**
+     * Sets the order in which test classes will request sessions and starts launching the first ones.
+     *
+     * @param order the browser of each planned test class, in the order the classes are expected to start
+     */
+    public static synchronized void plan(List<BrowserActions.Browsers> order) {
+        planned = List.copyOf(order);
+        started = 0;
+        launched = 0;
+        closed = false;
+        logger.info("Pre-launch plan: " + planned.size() + " classes, depth " + depth);
+        topUp();
+    }
+
+    /**
+     * Moves the look-ahead window past one class that is starting, launching the next planned browsers.
+     * Called when a test class leases its session, or from a class-level hook for classes that lease per method.
+     */
+    static synchronized void classStarting() {
+        if (started < planned.size()) started++;
+        topUp();
+    }
+
+    /**
+     * Returns a new session for the browser: a pre-launched one when available, otherwise one launched now.
+     *
+     * @param browser the browser type
+     * @return the new session
+     * @throws RuntimeException if the driver cannot be initialized
+     */
+    static WebDriver launch(BrowserActions.Browsers browser) {
+        Pending next = take(browser);
+        Totals stats = totals.get(browser);
+        if (next != null) {
+            long waitStart = System.nanoTime();
+            try {
+                WebDriver driver = next.future.join();
+                long waited = System.nanoTime() - waitStart;
+                stats.used.increment();
+                stats.exposedNanos.add(waited);
+                stats.hiddenNanos.add(Math.max(0, next.launchNanos - waited));
+                return driver;
+            } catch (CompletionException e) {
+                stats.failed.increment();
+                logger.log(Level.WARNING, "Pre-launched " + browser + " session failed, launching one now.", e.getCause());
+            }
+        }
+        long start = System.nanoTime();
+        WebDriver driver = BrowserActions.createDriver(browser);
+        stats.onDemand.increment();
+        stats.exposedNanos.add(System.nanoTime() - start);
+        return driver;
+    }
+
+    /**
+     * Stops pre-launching and quits every session that was launched but never handed over.
+     */
+    public static void shutdown() {
+        List<Pending> unused = new ArrayList<>();
+        synchronized (SessionPrelauncher.class) {
+            closed = true;
+            pending.values().forEach(queue -> {
+                unused.addAll(queue);
+                queue.clear();
+            });
+            waiting = 0;
+        }
+        for (Pending session : unused) {
+            try {
+                WebDriver driver = session.future.join();
+                totals.get(session.browser).unused.increment();
+                driver.quit();
+            } catch (CompletionException e) {
+                totals.get(session.browser).failed.increment();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to quit unused pre-launched " + session.browser + " session.", e);
+            }
+        }
+        getSummaries().forEach(summary -> {
+            if (summary.prelaunched() > 0 || summary.launches() > 0) logger.info(summary.toString());
+        });
+    }
+
+    /**
+     * Returns the launch totals of every browser type.
+     *
+     * @return one summary per browser type
+     */
+    public static List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<>();
+        totals.forEach((browser, stats) -> summaries.add(stats.summary(browser)));
+        return summaries;
+    }
+
+    private static synchronized Pending take(BrowserActions.Browsers browser) {
+        Pending next = pending.get(browser).pollFirst();
+        if (next != null) {
+            waiting--;
+            topUp();
+        }
+        return next;
+    }
+
+    /**
+     * Launches planned browsers until {@code depth} sessions are waiting or the window of the next
+     * {@code depth} classes is covered. Caller holds the class lock.
+     */
+    private static void topUp() {
+        while (!closed && waiting < depth && launched < planned.size() && launched < started + depth) {
+            BrowserActions.Browsers browser = planned.get(launched++);
+            if (!poolWillLaunch(browser)) continue;
+            Pending session = new Pending(browser);
+            session.future = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                WebDriver driver = BrowserActions.createDriver(browser);
+                session.launchNanos = System.nanoTime() - start;
+                return driver;
+            }, DriverFactory.launcher());
+            pending.get(browser).addLast(session);
+            waiting++;
+            totals.get(browser).prelaunched.increment();
+        }
+    }
+
+    /**
+     * Whether the next session request for the browser will launch a browser rather than reuse a pooled one.
+     * Caller holds the class lock.
+     */
+    private static boolean poolWillLaunch(BrowserActions.Browsers browser) {
+        return !BrowserActions.poolEnabled() || DriverPool.forBrowser(browser).willLaunch(pending.get(browser).size());
+    }
+
+    /**
+     * Launch totals of one browser type.
+     *
+     * @param browser     the browser type
+     * @param prelaunched sessions launched ahead of time
+     * @param used        pre-launched sessions handed to a test class
+     * @param unused      pre-launched sessions quit without being used
+     * @param failed      pre-launches that failed
+     * @param onDemand    sessions launched while a test waited, because none was pre-launched
+     * @param hiddenMs    launch time that overlapped with running tests
+     * @param exposedMs   launch time tests waited for
+     */
+    public record Summary(BrowserActions.Browsers browser, long prelaunched, long used, long unused, long failed,
+                          long onDemand, long hiddenMs, long exposedMs) {
+
+        /** @return sessions handed to tests, pre-launched or not */
+        public long launches() {
+            return used + onDemand;
+        }
+
+        /** @return fraction of the launch time that overlapped with running tests */
+        public double hiddenRatio() {
+            long total = hiddenMs + exposedMs;
+            return total == 0 ? 0 : (double) hiddenMs / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Browser launches [%s]: prelaunched=%d (used=%d, unused=%d, failed=%d), onDemand=%d, "
+                            + "launchTime hidden=%dms, exposed=%dms (%.1f%% hidden)",
+                    browser, prelaunched, used, unused, failed, onDemand, hiddenMs, exposedMs, hiddenRatio() * 100);
+        }
+    }
+
+    private static final class Pending {
+        private final BrowserActions.Browsers browser;
+        private CompletableFuture<WebDriver> future;
+        private volatile long launchNanos;
+
+        Pending(BrowserActions.Browsers browser) {
+            this.browser = browser;
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder prelaunched = new LongAdder();
+        private final LongAdder used = new LongAdder();
+        private final LongAdder unused = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder onDemand = new LongAdder();
+        private final LongAdder hiddenNanos = new LongAdder();
+        private final LongAdder exposedNanos = new LongAdder();
+
+        Summary summary(BrowserActions.Browsers browser) {
+            return new Summary(browser, prelaunched.sum(), used.sum(), unused.sum(), failed.sum(), onDemand.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(hiddenNanos.sum()), TimeUnit.NANOSECONDS.toMillis(exposedNanos.sum()));
+        }
+    }
+}
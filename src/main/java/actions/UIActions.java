@@ -3,9 +3,16 @@ package actions;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.ActionLog;
+import utils.ActionMetrics;
+import utils.ConfigReader;
+import utils.DependencyRecorder;
+import utils.VisualAssert;
 
-import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 /**
@@ -16,38 +23,185 @@ import java.util.logging.Logger;
  * Each method uses logging and exception handling to ensure test failures
  * are properly reported instead of silently passing.
  * </p>
+ * <p>
+ * Every operation is timed into {@link ActionMetrics} under its operation name,
+ * locator key and the page object that owns this instance.
+ * </p>
+ * <p>
+ * Resolved element handles are reused through the session's {@link ElementCache} until the page may have changed.
+ * </p>
+ * <p>
+ * Completed actions are not logged one by one: they go into the thread's {@link ActionLog}
+ * ring buffer, which is only formatted and written out when a test fails.
+ * Failures are still logged immediately at {@code SEVERE}.
+ * </p>
  */
 public class UIActions {
 
     private final Logger logger = Logger.getLogger(UIActions.class.getName());
-    private final int waitDuration; // Instance variable بدل static
+    private static final StackWalker callerWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Resolves every match of a locator in the page and returns their elements, texts,
+     * visibility flags and requested attributes in one round trip.
+     * Arguments: locator type, selector, attribute names.
+     */
+    private static final String BULK_QUERY_SCRIPT =
+            "var type = arguments[0], sel = arguments[1], attrNames = arguments[2], nodes = [];"
+            + "function all(list) { for (var i = 0; i < list.length; i++) nodes.push(list[i]); }"
+            + "function links(partial) { all(Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {"
+            + "  var t = (a.innerText || a.textContent || '').trim(); return partial ? t.indexOf(sel) >= 0 : t === sel; })); }"
+            + "switch (type) {"
+            + "  case 'css': all(document.querySelectorAll(sel)); break;"
+            + "  case 'xpath': var r = document.evaluate(sel, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "    for (var i = 0; i < r.snapshotLength; i++) nodes.push(r.snapshotItem(i)); break;"
+            + "  case 'id': all(document.querySelectorAll('[id=' + JSON.stringify(sel) + ']')); break;"
+            + "  case 'name': all(document.querySelectorAll('[name=' + JSON.stringify(sel) + ']')); break;"
+            + "  case 'classname': all(document.getElementsByClassName(sel)); break;"
+            + "  case 'tagname': all(document.getElementsByTagName(sel)); break;"
+            + "  case 'linktext': links(false); break;"
+            + "  case 'partialLinkText': links(true); break;"
+            + "}"
+            + "var texts = [], visible = [], attrs = [];"
+            + "nodes.forEach(function (el) {"
+            + "  var style = window.getComputedStyle(el);"
+            + "  var shown = el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none'"
+            + "    && (!el.checkVisibility || el.checkVisibility({opacityProperty: true, visibilityProperty: true}));"
+            + "  visible.push(shown);"
+            + "  texts.push(shown ? (el.innerText || '').trim() : '');"
+            + "  var a = {}; attrNames.forEach(function (n) { a[n] = el.getAttribute(n); }); attrs.push(a);"
+            + "});"
+            + "return {elements: nodes, texts: texts, visible: visible, attrs: attrs};";
     private final WebDriver driver;
+    private final WaitEngine waitEngine;
+    private final ElementCache elementCache;
+    private final String pageName;
+    private WaitMode waitMode;
 
 
+    /**
+     * Creates UI actions for the current thread's driver, attributing latency metrics
+     * to the class that calls this constructor (normally the page object).
+     */
     public UIActions() {
+        this(callerWalker.getCallerClass());
+    }
+
+    private UIActions(Class<?> pageObject) {
+        this(pageObject.getSimpleName());
+        DependencyRecorder.type(pageObject);
+    }
+
+    /**
+     * Creates UI actions for the current thread's driver.
+     *
+     * @param pageName the page object name latency metrics are recorded under
+     */
+    public UIActions(String pageName) {
+        this.pageName = pageName;
         this.driver = BrowserActions.getDriver();
         if (this.driver == null) {
             throw new IllegalStateException("WebDriver not initialized in BrowserActions");
         }
-        this.waitDuration = 30; // default wait duration
+        this.waitEngine = new WaitEngine(driver);
+        this.elementCache = ElementCache.forDriver(driver);
+        this.waitMode = ConfigReader.getEnumProperty("wait.mode", WaitMode.class, WaitMode.classic);
+    }
+
+    /**
+     * Selects how explicit wait conditions are evaluated by this instance; {@code wait.mode} sets the default,
+     * {@link WaitMode#classic}.
+     *
+     * @param waitMode {@link WaitMode#classic} for Selenium's WebDriverWait, or
+     *                 {@link WaitMode#adaptive} for the {@link WaitEngine} fast path with backoff polling
+     * @return this instance, for chaining
+     */
+    public UIActions withWaitMode(WaitMode waitMode) {
+        this.waitMode = waitMode;
+        return this;
     }
 
 
     // Navigation
 
     /**
-     * Navigates to a given URL.
+     * Navigates to a given URL. With {@code perf.enabled} the page's timing is captured by
+     * {@link PagePerformance} under the step {@code <page object>.navigateToPage}.
      *
      * @param url the URL to open
      * @throws RuntimeException if navigation fails
      */
     public void navigateToPage(String url) {
+        long start = System.nanoTime();
         try {
+            elementCache.invalidate();
             driver.navigate().to(url);
-            logger.info("Navigated to page: " + url);
+            ActionLog.record("navigateToPage", url, null, start);
         } catch (Exception e) {
+            ActionLog.recordFailure("navigateToPage", url, null, start, e);
             logger.log(Level.SEVERE, "Failed to navigate to page: " + url, e);
             throw e;
+        } finally {
+            recordMetrics("navigateToPage", "-", start);
+        }
+        PagePerformance.capture(driver, pageName + ".navigateToPage");
+    }
+
+    /**
+     * Runs an interaction that loads another document, such as a click on a link, and with {@code perf.enabled}
+     * captures the new page's timing through {@link PagePerformance} once it has loaded.
+     *
+     * @param step   the step name, unique per page and interaction, e.g. {@code BingSearchResults.nextPage}
+     * @param action the interaction, usually another method of this instance
+     * @return the captured entry, or {@code null} when capture is disabled or failed
+     */
+    public PagePerformance.Entry measurePageLoad(String step, Runnable action) {
+        return PagePerformance.measure(driver, step, action);
+    }
+
+    /**
+     * Navigates to a given URL and waits until the page is usable by the test. With the
+     * {@code eager} or {@code none} page-load strategy this returns as soon as the readiness
+     * predicate holds instead of waiting for every subresource.
+     * The time from starting the navigation until the page is ready is recorded as {@code timeToUsableDom}.
+     *
+     * @param url       the URL to open
+     * @param readiness when the page counts as usable, e.g. {@link PageReadiness#visible(Locator)}
+     * @throws RuntimeException if navigation fails or the page does not become ready in time
+     */
+    public void navigateToPage(String url, PageReadiness readiness) {
+        long start = System.nanoTime();
+        try {
+            navigateToPage(url);
+            readiness.await(driver, waitEngine);
+            ActionLog.record("timeToUsableDom", url, readiness.toString(), start);
+        } catch (Exception e) {
+            ActionLog.recordFailure("timeToUsableDom", url, readiness.toString(), start, e);
+            logger.log(Level.SEVERE, "Page not ready (" + readiness + "): " + url, e);
+            throw e;
+        } finally {
+            recordMetrics("timeToUsableDom", readiness.toString(), start);
+        }
+    }
+
+    /**
+     * Switches to another window or tab and clears the session's cached element handles.
+     *
+     * @param nameOrHandle the window name or handle, e.g. from {@link WebDriver#getWindowHandles()}
+     * @throws RuntimeException if the window cannot be switched to
+     */
+    public void switchToWindow(String nameOrHandle) {
+        long start = System.nanoTime();
+        try {
+            elementCache.invalidate();
+            driver.switchTo().window(nameOrHandle);
+            ActionLog.record("switchToWindow", nameOrHandle, null, start);
+        } catch (Exception e) {
+            ActionLog.recordFailure("switchToWindow", nameOrHandle, null, start, e);
+            logger.log(Level.SEVERE, "Failed to switch to window: " + nameOrHandle, e);
+            throw e;
+        } finally {
+            recordMetrics("switchToWindow", "-", start);
         }
     }
 
@@ -63,13 +217,27 @@ public class UIActions {
      * @throws RuntimeException if the element cannot be clicked
      */
     public void click(LocatorType locator, String selector, ExplicitWaitCondition condition) {
+        click(Locator.of(locator, selector, condition));
+    }
+
+    /**
+     * Clicks on an element using a pre-built locator and its default wait condition.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @throws RuntimeException if the element cannot be clicked
+     */
+    public void click(Locator locator) {
+        long start = System.nanoTime();
         try {
-            WebElement element = waitToFindElement(locator, selector, condition);
-            element.click();
-            logger.info("Clicked element: " + selector);
+            actOn(locator, WebElement::click);
+            elementCache.invalidate();
+            ActionLog.record("click", locator.key(), null, start);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to click element: " + selector, e);
+            ActionLog.recordFailure("click", locator.key(), null, start, e);
+            logger.log(Level.SEVERE, "Failed to click element: " + locator.selector(), e);
             throw e;
+        } finally {
+            recordMetrics("click", locator.key(), start);
         }
     }
 
@@ -82,13 +250,27 @@ public class UIActions {
      * @throws RuntimeException if the element cannot be submitted
      */
     public void submit(LocatorType locator, String selector, ExplicitWaitCondition condition) {
+        submit(Locator.of(locator, selector, condition));
+    }
+
+    /**
+     * Submits a form element using a pre-built locator and its default wait condition.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @throws RuntimeException if the element cannot be submitted
+     */
+    public void submit(Locator locator) {
+        long start = System.nanoTime();
         try {
-            WebElement element = waitToFindElement(locator, selector, condition);
-            element.submit();
-            logger.info("Submitted element" );
+            actOn(locator, WebElement::submit);
+            elementCache.invalidate();
+            ActionLog.record("submit", locator.key(), null, start);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to submit element: " + selector, e);
+            ActionLog.recordFailure("submit", locator.key(), null, start, e);
+            logger.log(Level.SEVERE, "Failed to submit element: " + locator.selector(), e);
             throw e;
+        } finally {
+            recordMetrics("submit", locator.key(), start);
         }
     }
 
@@ -102,13 +284,27 @@ public class UIActions {
      * @throws RuntimeException if sending keys fails
      */
     public void sendKeys(LocatorType locator, String selector, ExplicitWaitCondition condition, String text) {
+        sendKeys(Locator.of(locator, selector, condition), text);
+    }
+
+    /**
+     * Sends keys (text) to an input element using a pre-built locator and its default wait condition.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @param text    the text to send
+     * @throws RuntimeException if sending keys fails
+     */
+    public void sendKeys(Locator locator, String text) {
+        long start = System.nanoTime();
         try {
-            WebElement element = waitToFindElement(locator, selector, condition);
-            element.sendKeys(text);
-            logger.info("Sent keys"+text+" to element ");
+            actOn(locator, element -> element.sendKeys(text));
+            ActionLog.record("sendKeys", locator.key(), text, start);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to send keys to element: " + selector, e);
+            ActionLog.recordFailure("sendKeys", locator.key(), text, start, e);
+            logger.log(Level.SEVERE, "Failed to send keys to element: " + locator.selector(), e);
             throw e;
+        } finally {
+            recordMetrics("sendKeys", locator.key(), start);
         }
     }
 
@@ -122,13 +318,26 @@ public class UIActions {
      * @throws RuntimeException if clearing text fails
      */
     public void clearText(LocatorType locator, String selector, ExplicitWaitCondition condition) {
+        clearText(Locator.of(locator, selector, condition));
+    }
+
+    /**
+     * Clears the text inside an input element using a pre-built locator and its default wait condition.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @throws RuntimeException if clearing text fails
+     */
+    public void clearText(Locator locator) {
+        long start = System.nanoTime();
         try {
-            WebElement element = waitToFindElement(locator, selector, condition);
-            element.clear();
-            logger.info("Cleared text " );
+            actOn(locator, WebElement::clear);
+            ActionLog.record("clearText", locator.key(), null, start);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to clear text in element: " + selector,  e);
+            ActionLog.recordFailure("clearText", locator.key(), null, start, e);
+            logger.log(Level.SEVERE, "Failed to clear text in element: " + locator.selector(),  e);
             throw e;
+        } finally {
+            recordMetrics("clearText", locator.key(), start);
         }
     }
 
@@ -142,13 +351,134 @@ public class UIActions {
      * @return {@code true} if all elements contain the expected text, otherwise {@code false}
      */
     public boolean areElementsContainText(LocatorType locator, String selector, ExplicitWaitCondition condition, String expectedText) {
-        List<WebElement> elements = findAllElements(locator, selector, condition);
-        if (elements.isEmpty()) return false;
-        for (WebElement e : elements) {
-            if (!e.getText().toLowerCase().contains(expectedText.toLowerCase())) return false;
+        return areElementsContainText(Locator.of(locator, selector, condition), expectedText);
+    }
+
+    /**
+     * Checks whether all elements matching a pre-built locator contain the expected text (case-insensitive).
+     *
+     * @param locator      the locator, usually from {@link LocatorRegistry}
+     * @param expectedText the text expected to be found in each element's text
+     * @return {@code true} if all elements contain the expected text, otherwise {@code false}
+     */
+    public boolean areElementsContainText(Locator locator, String expectedText) {
+        long start = System.nanoTime();
+        try {
+            ElementsSnapshot snapshot = query(locator);
+            boolean contain = snapshot.allTextsContain(expectedText);
+            ActionLog.record("areElementsContainText", locator.key(), expectedText, start);
+            return contain;
+        } catch (Exception e) {
+            ActionLog.recordFailure("areElementsContainText", locator.key(), expectedText, start, e);
+            throw e;
+        } finally {
+            recordMetrics("areElementsContainText", locator.key(), start);
+        }
+    }
+
+    /**
+     * Counts the elements matching the given locator once the condition holds,
+     * using a single bulk query instead of one round trip per element.
+     *
+     * @param locator   type of locator (like id, xpath, css...)
+     * @param selector  the actual locator string
+     * @param condition explicit wait condition ({@code presenceOfElement} or {@code visibilityOfElement})
+     * @return the number of matching elements
+     */
+    public int countElements(LocatorType locator, String selector, ExplicitWaitCondition condition) {
+        return countElements(Locator.of(locator, selector, condition));
+    }
+
+    /**
+     * Counts the elements matching a pre-built locator once its default condition holds.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @return the number of matching elements
+     */
+    public int countElements(Locator locator) {
+        long start = System.nanoTime();
+        try {
+            int count = query(locator).count();
+            ActionLog.record("countElements", locator.key(), null, start);
+            return count;
+        } catch (Exception e) {
+            ActionLog.recordFailure("countElements", locator.key(), null, start, e);
+            throw e;
+        } finally {
+            recordMetrics("countElements", locator.key(), start);
+        }
+    }
+
+    /**
+     * Collects elements, texts, visibility flags and the given attributes for every match of a
+     * locator with one {@code executeScript} call per poll. Waits until at least one element
+     * matches and, for {@code visibilityOfElement}, until all matches are displayed.
+     *
+     * @param locator    type of locator (like id, xpath, css...)
+     * @param selector   the actual locator string
+     * @param condition  explicit wait condition ({@code presenceOfElement} or {@code visibilityOfElement})
+     * @param attributes names of attributes to read from every element
+     * @return a snapshot of all matching elements
+     * @throws RuntimeException if no matching elements satisfy the condition in time
+     */
+    public ElementsSnapshot queryElements(LocatorType locator, String selector, ExplicitWaitCondition condition, String... attributes) {
+        return queryElements(Locator.of(locator, selector, condition), attributes);
+    }
+
+    /**
+     * Bulk-queries every match of a pre-built locator once its default condition holds.
+     *
+     * @param locator    the locator, usually from {@link LocatorRegistry}
+     * @param attributes names of attributes to read from every element
+     * @return a snapshot of all matching elements
+     * @throws RuntimeException if no matching elements satisfy the condition in time
+     */
+    public ElementsSnapshot queryElements(Locator locator, String... attributes) {
+        long start = System.nanoTime();
+        try {
+            ElementsSnapshot snapshot = query(locator, attributes);
+            ActionLog.record("queryElements", locator.key(), null, start);
+            return snapshot;
+        } catch (Exception e) {
+            ActionLog.recordFailure("queryElements", locator.key(), null, start, e);
+            throw e;
+        } finally {
+            recordMetrics("queryElements", locator.key(), start);
+        }
+    }
+
+    private ElementsSnapshot query(Locator locator, String... attributes) {
+        ExplicitWaitCondition condition = locator.defaultCondition();
+        if (condition == ExplicitWaitCondition.elementToBeClickable) {
+            throw new IllegalArgumentException("Unsupported wait condition: " + condition);
+        }
+        try {
+            if (condition.isEventDriven()) {
+                waitEngine.waitForEvent(locator, condition, null);
+                condition = condition.pollingEquivalent();
+            }
+            boolean mustBeVisible = condition == ExplicitWaitCondition.visibilityOfElement;
+            return waitEngine.until(() -> {
+                ElementsSnapshot snapshot = runBulkQuery(locator, attributes);
+                if (snapshot.count() == 0) return null;
+                if (mustBeVisible && !snapshot.allVisible()) return null;
+                return snapshot;
+            }, condition, locator);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to query elements : " + locator.selector(), e);
+            throw e;
         }
-        logger.info("All elements contain the expected text: " + expectedText);
-        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ElementsSnapshot runBulkQuery(Locator locator, String... attributes) {
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(BULK_QUERY_SCRIPT, locator.type().name(), locator.selector(), Arrays.asList(attributes));
+        return new ElementsSnapshot(
+                (List<WebElement>) result.get("elements"),
+                (List<String>) result.get("texts"),
+                (List<Boolean>) result.get("visible"),
+                (List<Map<String, String>>) result.get("attrs"));
     }
 
     /**
@@ -161,13 +491,116 @@ public class UIActions {
      * @throws RuntimeException if execution fails
      */
     public void executeJavaScriptCode(LocatorType locator, String selector, ExplicitWaitCondition condition, String javaScript) {
+        executeJavaScriptCode(Locator.of(locator, selector, condition), javaScript);
+    }
+
+    /**
+     * Executes a given JavaScript code on an element located by a pre-built locator.
+     *
+     * @param locator    the locator, usually from {@link LocatorRegistry}
+     * @param javaScript the JavaScript code to execute
+     * @throws RuntimeException if execution fails
+     */
+    public void executeJavaScriptCode(Locator locator, String javaScript) {
+        long start = System.nanoTime();
         try {
-            WebElement element = waitToFindElement(locator, selector, condition);
-            ((JavascriptExecutor) driver).executeScript(javaScript, element);
-            logger.info("Executed JavaScript on element: " + selector + " -> " + javaScript);
+            actOn(locator, element -> ((JavascriptExecutor) driver).executeScript(javaScript, element));
+            ActionLog.record("executeJavaScriptCode", locator.key(), javaScript, start);
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to execute JavaScript on element: " + selector, e);
+            ActionLog.recordFailure("executeJavaScriptCode", locator.key(), javaScript, start, e);
+            logger.log(Level.SEVERE, "Failed to execute JavaScript on element: " + locator.selector(), e);
+            throw e;
+        } finally {
+            recordMetrics("executeJavaScriptCode", locator.key(), start);
+        }
+    }
+
+
+    // Pipelines
+
+    /**
+     * Starts recording a sequence of interactions that runs with one readiness wait and as few
+     * round trips as possible, falling back to these methods step by step when needed.
+     *
+     * @param name the flow name used in metrics, the action log and error messages
+     * @return an empty pipeline bound to this instance
+     */
+    public ActionPipeline pipeline(String name) {
+        return new ActionPipeline(this, name, driver, waitEngine, elementCache, pageName);
+    }
+
+
+    // Event-driven waits
+
+    /**
+     * Waits until the element located by a pre-built locator is displayed and contains the expected text,
+     * resolved by DOM mutation events instead of polling ({@link ExplicitWaitCondition#textAppears}).
+     *
+     * @param locator      the locator, usually from {@link LocatorRegistry}
+     * @param expectedText the text the element must contain
+     * @return the matching element
+     * @throws RuntimeException if the text does not appear in time
+     */
+    public WebElement waitForText(Locator locator, String expectedText) {
+        long start = System.nanoTime();
+        try {
+            WebElement element = waitEngine.waitForEvent(locator, ExplicitWaitCondition.textAppears, expectedText);
+            ActionLog.record("waitForText", locator.key(), expectedText, start);
+            return element;
+        } catch (Exception e) {
+            ActionLog.recordFailure("waitForText", locator.key(), expectedText, start, e);
+            logger.log(Level.SEVERE, "Text did not appear in element: " + locator.selector(), e);
+            throw e;
+        } finally {
+            recordMetrics("waitForText", locator.key(), start);
+        }
+    }
+
+    /**
+     * Waits until the page's DOM stops changing ({@link ExplicitWaitCondition#domStable}),
+     * for example after a client-side render.
+     *
+     * @throws RuntimeException if the DOM keeps changing for the whole timeout
+     */
+    public void waitForDomStable() {
+        long start = System.nanoTime();
+        try {
+            waitEngine.waitForDomStable();
+            ActionLog.record("waitForDomStable", "-", null, start);
+        } catch (Exception e) {
+            ActionLog.recordFailure("waitForDomStable", "-", null, start, e);
+            logger.log(Level.SEVERE, "DOM did not become stable", e);
+            throw e;
+        } finally {
+            recordMetrics("waitForDomStable", "-", start);
+        }
+    }
+
+
+    // Visual assertions
+
+    /**
+     * Asserts that the current viewport matches a stored baseline image ({@link VisualAssert}),
+     * leaving the areas of the given elements out of the comparison.
+     *
+     * @param baselineName  the baseline file name without extension
+     * @param ignoreRegions locators of dynamic elements whose area is not compared
+     * @throws AssertionError if the viewport differs from the baseline by more than the configured budget
+     */
+    public void assertVisualMatch(String baselineName, Locator... ignoreRegions) {
+        long start = System.nanoTime();
+        try {
+            VisualAssert.assertMatchesBaseline(driver, baselineName, Arrays.stream(ignoreRegions).map(Locator::by).toList());
+            ActionLog.record("assertVisualMatch", baselineName, null, start);
+        } catch (RuntimeException | AssertionError e) {
+            ActionLog.recordFailure("assertVisualMatch", baselineName, null, start, e);
+            logger.log(Level.SEVERE, "Visual assertion failed: " + baselineName, e);
             throw e;
+        } finally {
+            for (Locator region : ignoreRegions) {
+                DependencyRecorder.locator(region.key());
+            }
+            recordMetrics("assertVisualMatch", "-", start);
         }
     }
 
@@ -184,73 +617,188 @@ public class UIActions {
      * @throws RuntimeException if no elements found or wait fails
      */
     public List<WebElement> findAllElements(LocatorType locator, String selector, ExplicitWaitCondition condition) {
+        return findAllElements(Locator.of(locator, selector, condition));
+    }
+
+    /**
+     * Finds all elements matching a pre-built locator once its default condition holds.
+     *
+     * @param locator the locator, usually from {@link LocatorRegistry}
+     * @return a list of matching elements
+     * @throws RuntimeException if no elements found or wait fails
+     */
+    public List<WebElement> findAllElements(Locator locator) {
+        long start = System.nanoTime();
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
-            switch (condition) {
+            if (waitMode == WaitMode.adaptive || locator.defaultCondition().isEventDriven()) {
+                return query(locator).elements();
+            }
+            List<WebElement> elements;
+            switch (locator.defaultCondition()) {
                 case presenceOfElement:
-                    return wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locateElement(locator, selector)));
+                    elements = classicWait(locator.defaultCondition()).until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator.by()));
+                    break;
                 case visibilityOfElement:
-                    return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locateElement(locator, selector)));
+                    elements = classicWait(locator.defaultCondition()).until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator.by()));
+                    break;
                 default:
-                    throw new IllegalArgumentException("Unsupported wait condition: " + condition);
+                    throw new IllegalArgumentException("Unsupported wait condition: " + locator.defaultCondition());
             }
+            WaitEngine.currentStats().recordWait(System.nanoTime() - start, false);
+            return elements;
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to find elements : " + selector,   e);
+            logger.log(Level.SEVERE, "Failed to find elements : " + locator.selector(),   e);
             throw e;
+        } finally {
+            recordMetrics("findAllElements", locator.key(), start);
         }
     }
+
     /**
-     * Waits until a single element is located with the given condition.
+     * Performs an action on the element, using the session's cached handle when there is one and it still
+     * meets the locator's wait condition. A cached handle that does not, is stale or is not interactable is
+     * evicted and the element is waited for and found again; a freshly found handle that goes stale before
+     * the action is found once more.
+     */
+    private void actOn(Locator locator, Consumer<WebElement> action) {
+        WebElement cached = elementCache.get(locator);
+        if (cached != null) {
+            long acting = System.nanoTime();
+            try {
+                if (meetsCondition(cached, locator.defaultCondition())) {
+                    action.accept(cached);
+                    waitEngine.recordAction(acting);
+                    return;
+                }
+                elementCache.evictStale(locator);
+            } catch (StaleElementReferenceException | InvalidElementStateException e) {
+                // InvalidElementStateException covers ElementNotInteractableException and ElementClickInterceptedException
+                elementCache.evictStale(locator);
+            }
+        }
+        WebElement element = waitToFindElement(locator);
+        long acting = System.nanoTime();
+        try {
+            action.accept(element);
+        } catch (StaleElementReferenceException e) {
+            element = waitToFindElement(locator);
+            acting = System.nanoTime();
+            action.accept(element);
+        }
+        waitEngine.recordAction(acting);
+        elementCache.put(locator, element);
+    }
+
+    /**
+     * Checks a cached handle against the condition it was found with, without waiting.
+     */
+    private static boolean meetsCondition(WebElement element, ExplicitWaitCondition condition) {
+        switch (condition.pollingEquivalent()) {
+            case elementToBeClickable:
+                return element.isDisplayed() && element.isEnabled();
+            case visibilityOfElement:
+                return element.isDisplayed();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Records an operation's latency under this page object and, for a registered locator,
+     * the locator as a dependency of the running test.
+     */
+    private void recordMetrics(String operation, String locatorKey, long start) {
+        ActionMetrics.record(operation, locatorKey, pageName, start);
+        if (LocatorRegistry.all().containsKey(locatorKey)) DependencyRecorder.locator(locatorKey);
+    }
+
+    /**
+     * Waits until a single element is located with the locator's default condition.
      *
-     * @param locator   type of locator (like id, xpath, css...)
-     * @param selector  the actual locator string
-     * @param condition explicit wait condition
+     * @param locator the pre-built locator
      * @return the located WebElement
      * @throws RuntimeException if element is not found
      */
-    private WebElement waitToFindElement(LocatorType locator, String selector, ExplicitWaitCondition condition) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
-        switch (condition) {
+    private WebElement waitToFindElement(Locator locator) {
+        if (locator.defaultCondition().isEventDriven()) {
+            return waitEngine.waitForEvent(locator, locator.defaultCondition(), null);
+        }
+        if (waitMode == WaitMode.adaptive) {
+            return waitEngine.waitFor(locator.by(), locator.defaultCondition());
+        }
+        long start = System.nanoTime();
+        WebElement element;
+        switch (locator.defaultCondition()) {
             case presenceOfElement:
-                return wait.until(ExpectedConditions.presenceOfElementLocated(locateElement(locator, selector)));
+                element = classicWait(locator.defaultCondition()).until(ExpectedConditions.presenceOfElementLocated(locator.by()));
+                break;
             case elementToBeClickable:
-                return wait.until(ExpectedConditions.elementToBeClickable(locateElement(locator, selector)));
+                element = classicWait(locator.defaultCondition()).until(ExpectedConditions.elementToBeClickable(locator.by()));
+                break;
             case visibilityOfElement:
-                return wait.until(ExpectedConditions.visibilityOfElementLocated(locateElement(locator, selector)));
+                element = classicWait(locator.defaultCondition()).until(ExpectedConditions.visibilityOfElementLocated(locator.by()));
+                break;
             default:
-                throw new IllegalArgumentException("Unsupported wait condition: " + condition);
+                throw new IllegalArgumentException("Unsupported wait condition: " + locator.defaultCondition());
         }
+        WaitEngine.currentStats().recordWait(System.nanoTime() - start, false);
+        return element;
     }
+
     /**
-     * Converts a {@link LocatorType} and selector string into a Selenium {@link By} object.
-     *
-     * @param locator  type of locator
-     * @param selector the actual locator string
-     * @return a {@link By} instance
-     * @throws IllegalArgumentException if the locator type is unsupported
-     */
-    private By locateElement(LocatorType locator, String selector) {
-        switch (locator) {
-            case id: return By.id(selector);
-            case css: return By.cssSelector(selector);
-            case xpath: return By.xpath(selector);
-            case tagname: return By.tagName(selector);
-            case linktext: return By.linkText(selector);
-            case classname: return By.className(selector);
-            case name: return By.name(selector);
-            case partialLinkText: return By.partialLinkText(selector);
-            default: throw new IllegalArgumentException("Unsupported LocatorType: " + locator);
-        }
+     * Selenium's WebDriverWait with the configured timeout of the condition ({@code wait.timeout.<condition>}).
+     */
+    private WebDriverWait classicWait(ExplicitWaitCondition condition) {
+        return new WebDriverWait(driver, WaitEngine.timeoutFor(condition));
     }
 
     // Enums
     /**
      * Supported explicit wait conditions for element interactions.
+     * <p>
+     * {@code elementAppears}, {@code textAppears} and {@code domStable} are event-driven: they are resolved by a
+     * {@code MutationObserver} in the page instead of polling (see {@link WaitEngine}).
+     * </p>
      */
     public enum ExplicitWaitCondition {
         elementToBeClickable,
         presenceOfElement,
-        visibilityOfElement
+        visibilityOfElement,
+        elementAppears,
+        textAppears,
+        domStable;
+
+        /** @return whether the condition is resolved by DOM mutation events instead of polling */
+        public boolean isEventDriven() {
+            return this == elementAppears || this == textAppears || this == domStable;
+        }
+
+        /** @return the polling condition that holds once this condition holds */
+        public ExplicitWaitCondition pollingEquivalent() {
+            switch (this) {
+                case elementAppears:
+                case textAppears:
+                    return visibilityOfElement;
+                case domStable:
+                    return presenceOfElement;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    /**
+     * How explicit wait conditions are evaluated.
+     * <ul>
+     *     <li>{@code classic} - the default: Selenium's WebDriverWait with fixed 500 ms polling</li>
+     *     <li>{@code adaptive} - opt-in: {@link WaitEngine}, direct find first, then short polling with backoff</li>
+     * </ul>
+     * Both honour the per-condition timeouts {@code wait.timeout.<condition>}; the event-driven conditions always
+     * use {@link WaitEngine}.
+     */
+    public enum WaitMode {
+        classic,
+        adaptive
     }
 
     /**
@@ -0,0 +1,425 @@
+package actions;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import utils.ConfigReader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reusable wait engine used by {@link UIActions} in the opt-in {@link UIActions.WaitMode#adaptive} mode
+ * and for the event-driven conditions.
+ * <p>
+ * Every wait first tries a direct find (zero-wait fast path). Only when the element is not
+ * ready yet does it start polling, beginning with a short interval that backs off up to a cap.
+ * Timeouts can be configured per {@link UIActions.ExplicitWaitCondition}.
+ * </p>
+ * <p>
+ * The event-driven conditions ({@code elementAppears}, {@code textAppears}, {@code domStable}) do not poll:
+ * a {@code MutationObserver} injected with {@code executeAsyncScript} resolves as soon as the condition holds.
+ * If the script cannot run or is interrupted (for example by a navigation), the wait falls back to polling
+ * with the equivalent classic condition for the rest of the timeout; {@code domStable} then polls the element count
+ * and markup size of the page until they stay unchanged for {@code wait.domStableQuietMs}.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code wait.timeoutSeconds} - default timeout for every condition</li>
+ *     <li>{@code wait.timeout.<condition>} - timeout override for one condition, in seconds</li>
+ *     <li>{@code wait.initialPollMs}, {@code wait.maxPollMs}, {@code wait.backoffFactor} - polling schedule</li>
+ *     <li>{@code wait.domStableQuietMs} - how long the DOM must stay unchanged for {@code domStable}</li>
+ * </ul>
+ */
+public class WaitEngine {
+    private static final Logger logger = Logger.getLogger(WaitEngine.class.getName());
+    private static final ThreadLocal<Stats> stats = ThreadLocal.withInitial(Stats::new);
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 1000;
+
+    /**
+     * Resolves once the condition holds, observing DOM mutations instead of polling.
+     * Arguments: mode, locator type, selector (null for the whole document), expected text,
+     * quiet period for domStable, timeout. Resolves to {value, immediate}; value is null on timeout.
+     */
+    /**
+     * Summary of the DOM polled when the {@code domStable} observer cannot run: load state, element count and markup size.
+     */
+    private static final String DOM_SIGNATURE_SCRIPT = "return document.readyState + ':' + document.getElementsByTagName('*').length"
+            + " + ':' + (document.body ? document.body.innerHTML.length : -1);";
+
+    private static final String EVENT_WAIT_SCRIPT =
+            "var mode = arguments[0], type = arguments[1], sel = arguments[2], text = arguments[3],"
+            + "  quietMs = arguments[4], timeoutMs = arguments[5], done = arguments[arguments.length - 1];"
+            + "function first() {"
+            + "  if (!sel) return document.documentElement;"
+            + "  switch (type) {"
+            + "    case 'css': return document.querySelector(sel);"
+            + "    case 'xpath': return document.evaluate(sel, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'id': return document.getElementById(sel);"
+            + "    case 'name': return document.querySelector('[name=' + JSON.stringify(sel) + ']');"
+            + "    case 'classname': return document.getElementsByClassName(sel)[0] || null;"
+            + "    case 'tagname': return document.getElementsByTagName(sel)[0] || null;"
+            + "    case 'linktext': case 'partialLinkText':"
+            + "      return Array.prototype.find.call(document.getElementsByTagName('a'), function (a) {"
+            + "        var t = (a.innerText || a.textContent || '').trim(); return type === 'linktext' ? t === sel : t.indexOf(sel) >= 0;"
+            + "      }) || null;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function shown(el) { var s = window.getComputedStyle(el);"
+            + "  return el.getClientRects().length > 0 && s.visibility !== 'hidden' && s.display !== 'none'; }"
+            + "function check() {"
+            + "  var el = first(); if (!el) return null;"
+            + "  if (mode === 'elementAppears') return shown(el) ? el : null;"
+            + "  if (mode === 'textAppears') { var t = el.innerText || el.textContent || '';"
+            + "    return shown(el) && (text ? t.indexOf(text) >= 0 : t.trim().length > 0) ? el : null; }"
+            + "  return el;"
+            + "}"
+            + "var finished = false, quietTimer = null, deadline = null, observer = null;"
+            + "function finish(value, immediate) { if (finished) return; finished = true;"
+            + "  if (observer) observer.disconnect(); clearTimeout(quietTimer); clearTimeout(deadline);"
+            + "  done({value: value, immediate: immediate}); }"
+            + "function settle() { var hit = check(); if (hit) finish(hit, false); }"
+            + "if (mode !== 'domStable') { var hit = check(); if (hit) { finish(hit, true); return; } }"
+            + "observer = new MutationObserver(function () {"
+            + "  if (mode === 'domStable') { clearTimeout(quietTimer); quietTimer = setTimeout(settle, quietMs); }"
+            + "  else settle();"
+            + "});"
+            + "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "if (mode === 'domStable') quietTimer = setTimeout(settle, quietMs);"
+            + "deadline = setTimeout(function () { finish(null, false); }, timeoutMs);";
+
+    private final WebDriver driver;
+    private final long initialPollMs;
+    private final long maxPollMs;
+    private final double backoffFactor;
+    private final long domStableQuietMs;
+    private long scriptTimeoutMs = -1;
+
+    /**
+     * Creates a wait engine for the given driver using the polling schedule from config.properties.
+     *
+     * @param driver the WebDriver to wait on
+     */
+    public WaitEngine(WebDriver driver) {
+        this.driver = driver;
+        this.initialPollMs = Math.max(1, ConfigReader.getIntProperty("wait.initialPollMs", 25));
+        this.maxPollMs = Math.max(initialPollMs, ConfigReader.getIntProperty("wait.maxPollMs", 500));
+        this.backoffFactor = Math.max(1.0, ConfigReader.getDoubleProperty("wait.backoffFactor", 1.5));
+        this.domStableQuietMs = Math.max(0, ConfigReader.getIntProperty("wait.domStableQuietMs", 300));
+    }
+
+    /**
+     * Returns the configured timeout for a wait condition.
+     *
+     * @param condition the wait condition
+     * @return the timeout for that condition
+     */
+    public static Duration timeoutFor(UIActions.ExplicitWaitCondition condition) {
+        return Duration.ofSeconds(ConfigReader.getIntProperty("wait.timeout." + condition.name(), (int) defaultTimeout().getSeconds()));
+    }
+
+    /**
+     * Returns the timeout of waits that are not tied to a condition, {@code wait.timeoutSeconds}.
+     *
+     * @return the default timeout
+     */
+    public static Duration defaultTimeout() {
+        return Duration.ofSeconds(ConfigReader.getIntProperty("wait.timeoutSeconds", 30));
+    }
+
+    /**
+     * Waits until a single element matching the locator satisfies the condition.
+     *
+     * @param by        the element locator
+     * @param condition the condition the element must satisfy
+     * @return the matching element
+     * @throws TimeoutException if the condition is not met within its timeout
+     */
+    public WebElement waitFor(By by, UIActions.ExplicitWaitCondition condition) {
+        return until(() -> findSatisfying(by, condition), condition, by);
+    }
+
+    /**
+     * Evaluates a probe immediately and then with backoff polling until it returns a non-null result.
+     *
+     * @param probe     returns the result once ready, or {@code null} to keep waiting
+     * @param condition the condition whose timeout applies
+     * @param target    what is being waited for, used in the timeout message
+     * @param <T>       the result type
+     * @return the first non-null probe result
+     * @throws TimeoutException if the probe does not succeed within the condition's timeout
+     */
+    public <T> T until(Supplier<T> probe, UIActions.ExplicitWaitCondition condition, Object target) {
+        long start = System.nanoTime();
+        Duration timeout = timeoutFor(condition);
+        return until(probe, condition, target, timeout, start, start + timeout.toNanos());
+    }
+
+    /**
+     * Evaluates a probe immediately and then with backoff polling until it returns a non-null result,
+     * for waits that are not about an element.
+     *
+     * @param probe   returns the result once ready, or {@code null} to keep waiting
+     * @param timeout how long to keep polling
+     * @param target  what is being waited for, used in the timeout message
+     * @param <T>     the result type
+     * @return the first non-null probe result
+     * @throws TimeoutException if the probe does not succeed within the timeout
+     */
+    public <T> T until(Supplier<T> probe, Duration timeout, Object target) {
+        long start = System.nanoTime();
+        return until(probe, null, target, timeout, start, start + timeout.toNanos());
+    }
+
+    /**
+     * Waits for an event-driven condition ({@code elementAppears}, {@code textAppears} or {@code domStable})
+     * on the first element matching a locator.
+     *
+     * @param locator      the element locator
+     * @param condition    an event-driven condition
+     * @param expectedText for {@code textAppears}, the text the element must contain; {@code null} for any text
+     * @return the matching element
+     * @throws TimeoutException if the condition is not met within its timeout
+     */
+    public WebElement waitForEvent(Locator locator, UIActions.ExplicitWaitCondition condition, String expectedText) {
+        if (!condition.isEventDriven()) {
+            throw new IllegalArgumentException("Not an event-driven wait condition: " + condition);
+        }
+        return (WebElement) awaitEvent(locator, condition, expectedText);
+    }
+
+    /**
+     * Waits until the document has had no DOM mutations for {@code wait.domStableQuietMs}.
+     *
+     * @throws TimeoutException if the DOM keeps changing for the whole {@code domStable} timeout
+     */
+    public void waitForDomStable() {
+        awaitEvent(null, UIActions.ExplicitWaitCondition.domStable, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object awaitEvent(Locator locator, UIActions.ExplicitWaitCondition condition, String expectedText) {
+        long start = System.nanoTime();
+        Duration timeout = timeoutFor(condition);
+        long deadline = start + timeout.toNanos();
+        Object target = locator != null ? locator : "document";
+        if (driver instanceof JavascriptExecutor) {
+            long budgetMs = Math.min(TimeUnit.NANOSECONDS.toMillis(deadline - start), scriptTimeoutMs() - SCRIPT_TIMEOUT_MARGIN_MS);
+            try {
+                Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(
+                        EVENT_WAIT_SCRIPT, condition.name(),
+                        locator != null ? locator.type().name() : null, locator != null ? locator.selector() : null,
+                        expectedText, domStableQuietMs, Math.max(0, budgetMs));
+                Object value = result != null ? result.get("value") : null;
+                if (value != null) {
+                    stats.get().recordWait(System.nanoTime() - start, Boolean.TRUE.equals(result.get("immediate")));
+                    return locator != null ? value : Boolean.TRUE;
+                }
+            } catch (WebDriverException e) {
+                if (e instanceof TimeoutException) throw e;
+                logger.fine("Event wait for " + target + " failed, falling back to polling: " + e.getMessage());
+            }
+        }
+        Supplier<Object> probe = locator != null
+                ? () -> findEventCondition(locator.by(), condition, expectedText)
+                : quietProbe(() -> ((JavascriptExecutor) driver).executeScript(DOM_SIGNATURE_SCRIPT), domStableQuietMs);
+        return until(probe, condition, target, timeout, start, deadline);
+    }
+
+    /**
+     * Polling stand-in for the {@code domStable} observer: holds once the signature has stayed the same for
+     * {@code quietMs}, measured from the first poll that saw it.
+     *
+     * @param signature a cheap summary of the DOM that changes when the DOM does
+     * @param quietMs   how long the signature must stay unchanged
+     * @return a probe for {@link #until}
+     */
+    static Supplier<Object> quietProbe(Supplier<?> signature, long quietMs) {
+        Object[] last = {null};
+        long[] since = {0};
+        return () -> {
+            Object current = signature.get();
+            long now = System.nanoTime();
+            if (last[0] == null || !last[0].equals(current)) {
+                last[0] = current;
+                since[0] = now;
+                return null;
+            }
+            return now - since[0] >= TimeUnit.MILLISECONDS.toNanos(quietMs) ? Boolean.TRUE : null;
+        };
+    }
+
+    /**
+     * @param condition the condition being waited for, or {@code null} when {@code target} describes the whole wait
+     */
+    private <T> T until(Supplier<T> probe, UIActions.ExplicitWaitCondition condition, Object target, Duration timeout,
+                        long start, long deadline) {
+        long pollMs = initialPollMs;
+        boolean fastPath = true;
+        try {
+            while (true) {
+                T result = probe.get();
+                if (result != null) {
+                    stats.get().recordWait(System.nanoTime() - start, fastPath);
+                    return result;
+                }
+                fastPath = false;
+                pollMs = sleepBeforeNextPoll(target, condition, timeout, deadline, pollMs);
+            }
+        } catch (TimeoutException e) {
+            stats.get().recordWait(System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Records time spent acting on an element after the wait completed.
+     *
+     * @param actionStartNanos {@link System#nanoTime()} taken just before the action started
+     */
+    public void recordAction(long actionStartNanos) {
+        long acted = System.nanoTime() - actionStartNanos;
+        Stats current = stats.get();
+        current.recordAction(acted);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format("Last call waited %dms, acted %dms",
+                    TimeUnit.NANOSECONDS.toMillis(current.lastWaitNanos), TimeUnit.NANOSECONDS.toMillis(acted)));
+        }
+    }
+
+    /**
+     * Returns the wait/act counters collected on the current thread.
+     *
+     * @return the current thread's counters
+     */
+    public static Stats currentStats() {
+        return stats.get();
+    }
+
+    /**
+     * Clears the wait/act counters of the current thread.
+     */
+    public static void resetStats() {
+        stats.remove();
+    }
+
+    private WebElement findEventCondition(By by, UIActions.ExplicitWaitCondition condition, String expectedText) {
+        WebElement element = findSatisfying(by, condition);
+        if (element == null || condition != UIActions.ExplicitWaitCondition.textAppears) return element;
+        try {
+            String text = element.getText();
+            return (expectedText != null ? text.contains(expectedText) : !text.isBlank()) ? element : null;
+        } catch (StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the session's script timeout once; event waits must resolve before it expires.
+     */
+    private long scriptTimeoutMs() {
+        if (scriptTimeoutMs < 0) {
+            try {
+                Duration timeout = driver.manage().timeouts().getScriptTimeout();
+                scriptTimeoutMs = timeout != null ? timeout.toMillis() : 30000;
+            } catch (WebDriverException | UnsupportedOperationException e) {
+                scriptTimeoutMs = 30000;
+            }
+        }
+        return scriptTimeoutMs;
+    }
+
+    private WebElement findSatisfying(By by, UIActions.ExplicitWaitCondition condition) {
+        List<WebElement> elements = driver.findElements(by);
+        if (elements.isEmpty()) return null;
+        WebElement element = elements.get(0);
+        return satisfies(element, condition) ? element : null;
+    }
+
+    private boolean satisfies(WebElement element, UIActions.ExplicitWaitCondition condition) {
+        try {
+            switch (condition) {
+                case presenceOfElement: case domStable: return true;
+                case visibilityOfElement: case elementAppears: case textAppears: return element.isDisplayed();
+                case elementToBeClickable: return element.isDisplayed() && element.isEnabled();
+                default: throw new IllegalArgumentException("Unsupported wait condition: " + condition);
+            }
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    private long sleepBeforeNextPoll(Object target, UIActions.ExplicitWaitCondition condition, Duration timeout,
+                                     long deadline, long pollMs) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new TimeoutException("Expected condition failed: waiting for " + (condition != null ? condition + " of " : "")
+                    + target + " (tried for " + timeout.getSeconds() + " second(s))");
+        }
+        try {
+            Thread.sleep(Math.min(pollMs, remainingMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for " + target, e);
+        }
+        return Math.min(maxPollMs, (long) Math.ceil(pollMs * backoffFactor));
+    }
+
+    /**
+     * Per-thread counters of how long UI actions spent waiting versus acting.
+     */
+    public static final class Stats {
+        private long calls;
+        private long fastPathHits;
+        private long waitNanos;
+        private long actNanos;
+        private long lastWaitNanos;
+
+        void recordWait(long nanos, boolean fastPath) {
+            calls++;
+            if (fastPath) fastPathHits++;
+            waitNanos += nanos;
+            lastWaitNanos = nanos;
+        }
+
+        void recordAction(long nanos) {
+            actNanos += nanos;
+        }
+
+        /** @return number of waits performed */
+        public long getCalls() {
+            return calls;
+        }
+
+        /** @return waits satisfied by the first direct find */
+        public long getFastPathHits() {
+            return fastPathHits;
+        }
+
+        /** @return total milliseconds spent waiting */
+        public long getWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        }
+
+        /** @return total milliseconds spent acting on elements */
+        public long getActMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(actNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Waits: calls=%d, fastPathHits=%d, waited=%dms, acted=%dms",
+                    calls, fastPathHits, getWaitMillis(), getActMillis());
+        }
+    }
+}
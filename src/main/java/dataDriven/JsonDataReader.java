@@ -1,13 +1,26 @@
 package dataDriven;
 
 import com.google.gson.*;
-import java.io.FileReader;
+import utils.DependencyRecorder;
+
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.RecordComponent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
  * Utility class to read data from JSON files located in the resources folder.
  * Uses Gson library to parse JSON and java.util.logging.Logger for logging.
+ * Parsed documents are cached per file and re-parsed only when the file's
+ * modification time changes.
  */
 public class JsonDataReader {
     private static final Logger logger = Logger.getLogger(JsonDataReader.class.getName());
@@ -15,6 +28,12 @@ public class JsonDataReader {
     /** Base path where JSON test data files are stored. */
     public final static String testDataFilePath = "src/test/resources/";
 
+    private static final Gson gson = new Gson();
+    private static final Map<Path, CachedDocument> documents = new ConcurrentHashMap<>();
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+    private static final AtomicLong parseNanos = new AtomicLong();
+
     /**
      * Retrieves the value of a specific field from a JSON file.
      * Example usage:
@@ -31,24 +50,139 @@ public class JsonDataReader {
      */
 
     public static JsonElement getJsonData(String jsonFileName, String field) throws IOException {
-        try (FileReader reader = new FileReader(testDataFilePath + jsonFileName + ".json")) {
-            JsonElement jsonElement = JsonParser.parseReader(reader);
-            JsonObject jsonObject = jsonElement.getAsJsonObject();
-
-            if (jsonObject.has(field)) {
-                JsonElement value = jsonObject.get(field);
-                logger.info(String.format("Retrieved JSON field '%s' from '%s.json': %s", field, jsonFileName, value));
-                return value;
-            } else {
-                String msg = String.format("Field '%s' not found in '%s.json'", field, jsonFileName);
-                logger.warning(msg);
-                throw new IllegalArgumentException(msg);
+        DependencyRecorder.json(jsonFileName, field);
+        JsonObject jsonObject = loadDocument(jsonFileName).getAsJsonObject();
+
+        if (jsonObject.has(field)) {
+            JsonElement value = jsonObject.get(field);
+            logger.info(String.format("Retrieved JSON field '%s' from '%s.json': %s", field, jsonFileName, value));
+            return value.deepCopy();
+        } else {
+            String msg = String.format("Field '%s' not found in '%s.json'", field, jsonFileName);
+            logger.warning(msg);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Binds a whole JSON file onto a Java type (for example a record) in a single parse.
+     * Example usage:
+     * <pre>
+     * BingSearchData data = JsonDataReader.bind("testData", BingSearchData.class);
+     * </pre>
+     *
+     * @param jsonFileName the name of the JSON file (without .json extension)
+     * @param type the class to bind the document to
+     * @param <T> the bound type
+     * @return a new instance populated from the file
+     * @throws IOException if the file cannot be read or has invalid JSON syntax
+     */
+    public static <T> T bind(String jsonFileName, Class<T> type) throws IOException {
+        return bind(jsonFileName, "", type);
+    }
+
+    /**
+     * Binds a sub-tree of a JSON file onto a Java type.
+     *
+     * @param jsonFileName the name of the JSON file (without .json extension)
+     * @param path dot-separated path to the sub-tree (for example {@code "search.defaults"}); empty for the root
+     * @param type the class to bind the sub-tree to
+     * @param <T> the bound type
+     * @return a new instance populated from the sub-tree
+     * @throws IOException if the file cannot be read or has invalid JSON syntax
+     * @throws IllegalArgumentException if the path does not exist in the file
+     */
+    public static <T> T bind(String jsonFileName, String path, Class<T> type) throws IOException {
+        recordBinding(jsonFileName, path, type);
+        JsonElement node = loadDocument(jsonFileName);
+        if (!path.isEmpty()) {
+            for (String segment : path.split("\\.")) {
+                if (!node.isJsonObject() || !node.getAsJsonObject().has(segment)) {
+                    String msg = String.format("Path '%s' not found in '%s.json'", path, jsonFileName);
+                    logger.warning(msg);
+                    throw new IllegalArgumentException(msg);
+                }
+                node = node.getAsJsonObject().get(segment);
+            }
+        }
+        try {
+            return gson.fromJson(node, type);
+        } catch (JsonParseException e) {
+            String msg = String.format("Cannot bind '%s.json' path '%s' to %s: %s", jsonFileName, path, type.getSimpleName(), e.getMessage());
+            logger.severe(msg);
+            throw new IOException(msg, e);
+        }
+    }
+
+    /**
+     * @return cache hit/miss counts and total parse time so far
+     */
+    public static String getCacheStats() {
+        return String.format("JSON cache: hits=%d, misses=%d, parseTime=%dms",
+                cacheHits.get(), cacheMisses.get(), TimeUnit.NANOSECONDS.toMillis(parseNanos.get()));
+    }
+
+    /**
+     * Records the fields a binding reads: for a record bound at the root, only its components,
+     * so changing another field of the file does not count as a change for this test.
+     */
+    private static void recordBinding(String jsonFileName, String path, Class<?> type) {
+        if (path.isEmpty() && type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                DependencyRecorder.json(jsonFileName, component.getName());
             }
+        } else {
+            DependencyRecorder.json(jsonFileName, path);
+        }
+    }
+
+    /**
+     * Returns the parsed document for a JSON file, parsing it only when it is not cached yet
+     * or its modification time changed since it was cached.
+     */
+    private static JsonElement loadDocument(String jsonFileName) throws IOException {
+        Path path = Paths.get(testDataFilePath + jsonFileName + ".json").toAbsolutePath();
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        CachedDocument cached = documents.get(path);
+        if (cached != null && cached.modified == modified) {
+            cacheHits.incrementAndGet();
+            logger.fine(() -> "JSON cache hit for '" + jsonFileName + ".json' (" + getCacheStats() + ")");
+            return cached.root;
+        }
+        try {
+            return documents.compute(path, (key, current) -> {
+                if (current != null && current.modified == modified) {
+                    cacheHits.incrementAndGet();
+                    return current;
+                }
+                return parse(key, jsonFileName, modified);
+            }).root;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static CachedDocument parse(Path path, String jsonFileName, long modified) {
+        long start = System.nanoTime();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonElement root = JsonParser.parseReader(reader);
+            long elapsed = System.nanoTime() - start;
+            cacheMisses.incrementAndGet();
+            parseNanos.addAndGet(elapsed);
+            logger.info(String.format("Parsed '%s.json' in %dms (%s)", jsonFileName,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), getCacheStats()));
+            return new CachedDocument(modified, root);
         } catch (JsonSyntaxException e) {
             String msg = String.format("Invalid JSON syntax in '%s.json': %s", jsonFileName, e.getMessage());
             logger.severe(msg);
-            throw new IOException(msg, e);
+            throw new UncheckedIOException(new IOException(msg, e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    /** A parsed JSON document together with the file modification time it was parsed at. */
+    private record CachedDocument(long modified, JsonElement root) {
+    }
+
 }
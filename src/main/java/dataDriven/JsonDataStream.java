@@ -0,0 +1,197 @@
+package dataDriven;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import utils.DependencyRecorder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Streams the elements of a top-level JSON array one at a time, for use as a lazy
+ * TestNG {@code @DataProvider}. Only the current element is held in memory, whatever the file size.
+ * <p>
+ * Elements outside the selected index range or shard are skipped without being bound, so several
+ * threads or JVMs can split one dataset by shard without any of them loading it fully.
+ * Example usage:
+ * <pre>
+ * &#64;DataProvider(name = "searchTerms", parallel = true)
+ * public Iterator&lt;Object[]&gt; searchTerms() {
+ *     return JsonDataStream.of("searchTerms", SearchTerm.class).shard(0, 4);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @param <T> the type each array element is bound to
+ */
+public class JsonDataStream<T> implements Iterator<Object[]>, Closeable {
+    private static final Logger logger = Logger.getLogger(JsonDataStream.class.getName());
+    private static final Gson gson = new Gson();
+
+    private final String jsonFileName;
+    private final Path path;
+    private final Class<T> type;
+    private long fromIndex = 0;
+    private long toIndex = Long.MAX_VALUE;
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private Predicate<? super T> filter = element -> true;
+
+    private JsonReader reader;
+    private long index = -1;
+    private long emitted;
+    private Object[] next;
+    private boolean finished;
+
+    private JsonDataStream(String jsonFileName, Class<T> type) {
+        this.jsonFileName = jsonFileName;
+        this.path = Paths.get(JsonDataReader.testDataFilePath + jsonFileName + ".json");
+        this.type = type;
+    }
+
+    /**
+     * Creates a stream over the top-level array of a JSON file in the test data folder.
+     *
+     * @param jsonFileName the name of the JSON file (without .json extension)
+     * @param type the class each array element is bound to; each row is {@code new Object[]{element}}
+     * @param <T> the bound type
+     * @return a new stream; reading starts on the first {@link #hasNext()}
+     */
+    public static <T> JsonDataStream<T> of(String jsonFileName, Class<T> type) {
+        DependencyRecorder.json(jsonFileName, "");
+        return new JsonDataStream<>(jsonFileName, type);
+    }
+
+    /**
+     * Restricts the stream to elements with an index in {@code [fromIndex, toIndex)}.
+     *
+     * @param fromIndex first element index, inclusive
+     * @param toIndex last element index, exclusive
+     * @return this stream, for chaining
+     */
+    public JsonDataStream<T> range(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new IllegalArgumentException("Invalid range [" + fromIndex + ", " + toIndex + ")");
+        }
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        return this;
+    }
+
+    /**
+     * Keeps only the elements whose index falls into the given shard ({@code index % shardCount == shardIndex}).
+     *
+     * @param shardIndex zero-based shard number
+     * @param shardCount total number of shards
+     * @return this stream, for chaining
+     */
+    public JsonDataStream<T> shard(int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + "/" + shardCount);
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    /**
+     * Keeps only the bound elements that match the predicate.
+     *
+     * @param filter the predicate elements must satisfy
+     * @return this stream, for chaining
+     */
+    public JsonDataStream<T> filter(Predicate<? super T> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Returns whether another row is available. Safe to call from several data-provider threads.
+     *
+     * @return {@code true} if {@link #next()} will return a row
+     */
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null && !finished) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    /**
+     * Returns the next row. Safe to call from several data-provider threads.
+     *
+     * @return the next row, {@code new Object[]{element}}
+     * @throws NoSuchElementException if the stream is exhausted
+     */
+    @Override
+    public synchronized Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more elements in '" + jsonFileName + ".json'");
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Closes the underlying file. Called automatically once the stream is exhausted.
+     */
+    @Override
+    public synchronized void close() {
+        finished = true;
+        next = null;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close '" + jsonFileName + ".json': " + e.getMessage());
+            }
+            reader = null;
+        }
+    }
+
+    private Object[] advance() {
+        try {
+            if (reader == null) {
+                reader = new JsonReader(Files.newBufferedReader(path));
+                reader.beginArray();
+            }
+            while (reader.hasNext()) {
+                index++;
+                if (index >= toIndex) {
+                    break;
+                }
+                if (index < fromIndex || index % shardCount != shardIndex) {
+                    reader.skipValue();
+                    continue;
+                }
+                T element = gson.fromJson(reader, type);
+                if (element != null && filter.test(element)) {
+                    emitted++;
+                    return new Object[]{element};
+                }
+            }
+            logger.info(String.format("Streamed %d rows from '%s.json' (shard %d/%d, range [%d, %s))", emitted,
+                    jsonFileName, shardIndex, shardCount, fromIndex, toIndex == Long.MAX_VALUE ? "end" : toIndex));
+            close();
+            return null;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to stream '" + jsonFileName + ".json'", e);
+        } catch (JsonParseException | IllegalStateException e) {
+            close();
+            throw new IllegalArgumentException(String.format("Invalid JSON in '%s.json' at element %d: %s",
+                    jsonFileName, index, e.getMessage()), e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package execution;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Recorded durations of scheduling units (for example a test class on one browser), persisted as JSON
+ * between runs. Each unit keeps an exponentially weighted average, so one slow run shifts the estimate
+ * without replacing it.
+ */
+public class DurationHistory {
+    private static final Logger logger = Logger.getLogger(DurationHistory.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final double SMOOTHING = 0.5;
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+
+    private DurationHistory(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the history file, or starts an empty history when it does not exist or cannot be read.
+     *
+     * @param file the history file
+     * @return the loaded history
+     */
+    public static DurationHistory load(Path file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, Entry> loaded = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() { }.getType());
+                if (loaded != null) entries.putAll(loaded);
+            } catch (IOException | JsonParseException e) {
+                logger.log(Level.WARNING, "Ignoring unreadable duration history: " + file, e);
+            }
+        }
+        return new DurationHistory(file, entries);
+    }
+
+    /**
+     * Returns the estimated duration of a unit.
+     *
+     * @param key           the unit key
+     * @param defaultMillis the estimate for units that have never run
+     * @return the estimate in milliseconds
+     */
+    public synchronized long estimate(String key, long defaultMillis) {
+        Entry entry = entries.get(key);
+        return entry == null ? defaultMillis : Math.round(entry.averageMillis());
+    }
+
+    /**
+     * Returns the average estimate of every recorded unit, used for units that have never run.
+     *
+     * @param fallbackMillis the value returned when the history is empty
+     * @return the mean estimate in milliseconds
+     */
+    public synchronized long meanEstimate(long fallbackMillis) {
+        return Math.round(entries.values().stream().mapToDouble(Entry::averageMillis).average().orElse(fallbackMillis));
+    }
+
+    /**
+     * Folds a measured duration into a unit's estimate.
+     *
+     * @param key    the unit key
+     * @param millis the measured duration in milliseconds
+     */
+    public synchronized void record(String key, long millis) {
+        Entry entry = entries.get(key);
+        entries.put(key, entry == null
+                ? new Entry(millis, 1)
+                : new Entry(SMOOTHING * millis + (1 - SMOOTHING) * entry.averageMillis(), entry.runs() + 1));
+    }
+
+    /**
+     * Folds every estimate of another history into this one, as if each had been measured once more.
+     *
+     * @param other the history to fold in, e.g. the durations recorded by one shard
+     */
+    public void recordAll(DurationHistory other) {
+        Map<String, Entry> measured;
+        synchronized (other) {
+            measured = new TreeMap<>(other.entries);
+        }
+        measured.forEach((key, entry) -> record(key, Math.round(entry.averageMillis())));
+    }
+
+    /**
+     * Writes the history back to its file.
+     */
+    public synchronized void save() {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(entries, writer);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to save duration history: " + file, e);
+        }
+    }
+
+    /**
+     * Recorded duration of one unit.
+     *
+     * @param averageMillis the weighted average duration in milliseconds
+     * @param runs          the number of recorded runs
+     */
+    public record Entry(double averageMillis, int runs) {
+    }
+}
@@ -0,0 +1,224 @@
+package execution;
+
+import actions.BrowserActions;
+import com.google.gson.GsonBuilder;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Expands a suite's test classes across browsers and orders the resulting work units so the
+ * suite finishes as early as possible, based on how long each unit took in previous runs.
+ * <p>
+ * Suites opt in with the {@code matrix.browsers} suite parameter ({@code all} or a comma-separated list).
+ * Every class of every {@code <test>} then becomes one {@code <test>} per browser, named
+ * {@code Class[BROWSER]} with its {@code browser} parameter set. The units are sorted longest-first by
+ * their recorded duration and run with {@code parallel="tests"} on the configured number of slots:
+ * each slot picks the next unit as soon as it is free, which is longest-processing-time-first packing.
+ * When the suite finishes, measured durations are folded into the history file and the predicted
+ * and actual makespans are logged and written to a JSON report.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code matrix.slots} - worker slots; {@code 0} keeps the suite's {@code thread-count}
+ *     (the {@code matrix.slots} suite parameter takes precedence)</li>
+ *     <li>{@code matrix.historyFile} - JSON file holding the recorded durations</li>
+ *     <li>{@code matrix.defaultDurationMs} - estimate for units when the history is empty</li>
+ *     <li>{@code matrix.reportPath} - where the predicted versus actual schedule is written</li>
+ * </ul>
+ */
+public class MatrixScheduler implements IAlterSuiteListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(MatrixScheduler.class.getName());
+
+    /** Suite parameter listing the browsers to expand to, or {@code all}. */
+    public static final String BROWSERS_PARAMETER = "matrix.browsers";
+    private static final String SLOTS_PARAMETER = "matrix.slots";
+    private static final String UNIT_PARAMETER = "matrix.unit";
+    private static final String PREDICTED_PARAMETER = "matrix.predictedMs";
+    private static final String MAKESPAN_PARAMETER = "matrix.predictedMakespanMs";
+
+    /**
+     * Replaces the tests of every opted-in suite with one test per class and browser, longest first.
+     *
+     * @param suites the suites about to run
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        for (XmlSuite suite : suites) {
+            String browsers = suite.getParameter(BROWSERS_PARAMETER);
+            if (browsers != null) {
+                expand(suite, parseBrowsers(browsers));
+            }
+        }
+    }
+
+    /**
+     * Records the measured unit durations and reports predicted versus actual makespan.
+     *
+     * @param suite the finished suite
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        String predictedMakespan = suite.getXmlSuite().getParameter(MAKESPAN_PARAMETER);
+        if (predictedMakespan == null) return;
+
+        DurationHistory history = DurationHistory.load(historyFile());
+        List<Map<String, Object>> units = new ArrayList<>();
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        for (ISuiteResult result : suite.getResults().values()) {
+            ITestContext context = result.getTestContext();
+            String unit = context.getCurrentXmlTest().getParameter(UNIT_PARAMETER);
+            if (unit == null || context.getStartDate() == null || context.getEndDate() == null) continue;
+            long start = context.getStartDate().getTime();
+            long end = context.getEndDate().getTime();
+            firstStart = Math.min(firstStart, start);
+            lastEnd = Math.max(lastEnd, end);
+            history.record(unit, end - start);
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("unit", unit);
+            entry.put("predictedMs", Long.parseLong(context.getCurrentXmlTest().getParameter(PREDICTED_PARAMETER)));
+            entry.put("actualMs", end - start);
+            units.add(entry);
+        }
+        history.save();
+        if (units.isEmpty()) return;
+
+        long actualMakespan = lastEnd - firstStart;
+        logger.info(String.format("Matrix schedule for '%s': predicted makespan %dms, actual %dms (%d units)",
+                suite.getName(), Long.parseLong(predictedMakespan), actualMakespan, units.size()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("suite", suite.getName());
+        report.put("slots", suite.getXmlSuite().getThreadCount());
+        report.put("predictedMakespanMs", Long.parseLong(predictedMakespan));
+        report.put("actualMakespanMs", actualMakespan);
+        report.put("units", units);
+        writeReport(report);
+    }
+
+    private void expand(XmlSuite suite, Set<BrowserActions.Browsers> browsers) {
+        DurationHistory history = DurationHistory.load(historyFile());
+        long defaultMillis = history.meanEstimate(ConfigReader.getIntProperty("matrix.defaultDurationMs", 60000));
+
+        List<WorkUnit> units = new ArrayList<>();
+        for (XmlTest template : suite.getTests()) {
+            for (XmlClass xmlClass : template.getXmlClasses()) {
+                for (BrowserActions.Browsers browser : browsers) {
+                    String key = xmlClass.getName() + "|" + browser;
+                    units.add(new WorkUnit(template, xmlClass, browser, key, history.estimate(key, defaultMillis)));
+                }
+            }
+        }
+        units.sort(Comparator.comparingLong(WorkUnit::predictedMillis).reversed());
+
+        int slots = resolveSlots(suite);
+        suite.setTests(new ArrayList<>());
+        for (WorkUnit unit : units) {
+            XmlTest test = new XmlTest(suite);
+            String className = unit.xmlClass().getName();
+            test.setName(className.substring(className.lastIndexOf('.') + 1) + "[" + unit.browser() + "]");
+            Map<String, String> parameters = new HashMap<>(unit.template().getLocalParameters());
+            parameters.put("browser", unit.browser().name().toLowerCase(Locale.ROOT));
+            parameters.put(UNIT_PARAMETER, unit.key());
+            parameters.put(PREDICTED_PARAMETER, String.valueOf(unit.predictedMillis()));
+            test.setParameters(parameters);
+            XmlClass xmlClass = (XmlClass) unit.xmlClass().clone();
+            xmlClass.setXmlTest(test);
+            test.setXmlClasses(new ArrayList<>(List.of(xmlClass)));
+        }
+        suite.setParallel(XmlSuite.ParallelMode.TESTS);
+        suite.setThreadCount(slots);
+
+        long makespan = predictMakespan(units.stream().mapToLong(WorkUnit::predictedMillis).toArray(), slots);
+        Map<String, String> suiteParameters = new HashMap<>(suite.getParameters());
+        suiteParameters.put(MAKESPAN_PARAMETER, String.valueOf(makespan));
+        suite.setParameters(suiteParameters);
+        logger.info(String.format("Matrix schedule for '%s': %d units on %d slots, predicted makespan %dms",
+                suite.getName(), units.size(), slots, makespan));
+    }
+
+    /**
+     * Simulates slots taking the next unit as soon as they become free.
+     *
+     * @param durations the predicted unit durations in run order
+     * @param slots     the number of slots
+     * @return when the last unit finishes
+     */
+    static long predictMakespan(long[] durations, int slots) {
+        PriorityQueue<Long> slotLoads = new PriorityQueue<>();
+        for (int i = 0; i < slots; i++) slotLoads.add(0L);
+        long makespan = 0;
+        for (long duration : durations) {
+            long finish = slotLoads.poll() + duration;
+            makespan = Math.max(makespan, finish);
+            slotLoads.add(finish);
+        }
+        return makespan;
+    }
+
+    private static int resolveSlots(XmlSuite suite) {
+        String parameter = suite.getParameter(SLOTS_PARAMETER);
+        int slots = parameter != null ? Integer.parseInt(parameter.trim()) : ConfigReader.getIntProperty("matrix.slots", 0);
+        return slots > 0 ? slots : Math.max(1, suite.getThreadCount());
+    }
+
+    private static Set<BrowserActions.Browsers> parseBrowsers(String value) {
+        if ("all".equalsIgnoreCase(value.trim())) {
+            return EnumSet.allOf(BrowserActions.Browsers.class);
+        }
+        Set<BrowserActions.Browsers> browsers = EnumSet.noneOf(BrowserActions.Browsers.class);
+        for (String browser : value.split(",")) {
+            if (!browser.isBlank()) {
+                browsers.add(BrowserActions.Browsers.valueOf(browser.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        if (browsers.isEmpty()) {
+            throw new IllegalArgumentException("No browsers in '" + BROWSERS_PARAMETER + "': " + value);
+        }
+        return browsers;
+    }
+
+    private static Path historyFile() {
+        return Paths.get(ConfigReader.getProperty("matrix.historyFile", "test-history/durations.json"));
+    }
+
+    private static void writeReport(Map<String, Object> report) {
+        Path path = Paths.get(ConfigReader.getProperty("matrix.reportPath", "test-output/matrix-schedule.json"));
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Files.writeString(path, new GsonBuilder().setPrettyPrinting().create().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write matrix schedule report: " + path, e);
+        }
+    }
+
+    private record WorkUnit(XmlTest template, XmlClass xmlClass, BrowserActions.Browsers browser,
+                            String key, long predictedMillis) {
+    }
+}
@@ -0,0 +1,258 @@
+package execution;
+
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import utils.ConfigReader;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Splits a suite across JVMs started with {@code -Dshard=i/n}, weighting the split by recorded durations.
+ * <p>
+ * Test methods without a data provider are packed longest-first onto the least-loaded shard, over the
+ * whole suite at once. Data-provider methods run on every shard, but their rows are split: each row goes to
+ * the shard with the least accumulated weight so far. Both splits only depend on the suite, the rows and
+ * the duration history, so every JVM computes the same assignment and each method or row runs exactly once.
+ * </p>
+ * <p>
+ * Measured durations are recorded into a per-shard file that {@link ShardMerger} folds back into
+ * {@code shard.historyFile} after the run. Registered for every suite through
+ * {@code META-INF/services/org.testng.ITestNGListener}, so without {@code -Dshard} every callback does nothing:
+ * no method or row is dropped and no history is read or written.
+ * </p>
+ */
+public class ShardInterceptor implements IMethodInterceptor, IDataProviderInterceptor, ITestListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(ShardInterceptor.class.getName());
+    private static final long DEFAULT_WEIGHT_MILLIS = 1000;
+
+    private static final ShardSpec shard = ShardSpec.current();
+    private static final Map<String, Map<String, Integer>> assignments = new ConcurrentHashMap<>();
+    private static final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private static volatile DurationHistory history;
+
+    /**
+     * Keeps the methods assigned to this shard, plus every data-provider method (its rows are split instead).
+     *
+     * @param methods the methods of one {@code <test>}
+     * @param context the test context
+     * @return the methods this shard runs
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (shard == null) return methods;
+        Map<String, Integer> assignment = assignments.computeIfAbsent(context.getSuite().getName(),
+                name -> assign(context.getSuite()));
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            ITestNGMethod testMethod = method.getMethod();
+            if (testMethod.isDataDriven()) {
+                kept.add(method);
+                continue;
+            }
+            String key = methodKey(testMethod);
+            int owner = assignment.getOrDefault(key, Math.floorMod(key.hashCode(), shard.count()));
+            if (owner == shard.index()) kept.add(method);
+        }
+        logger.info(String.format("Shard %s runs %d of %d methods in '%s'", shard, kept.size(), methods.size(), context.getName()));
+        return kept;
+    }
+
+    /**
+     * Keeps the data-provider rows assigned to this shard.
+     *
+     * @param rows           the rows produced by the data provider
+     * @param dataProvider   the data provider method
+     * @param method         the test method the rows are for
+     * @param context        the test context
+     * @return the rows this shard runs
+     */
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> rows, IDataProviderMethod dataProvider,
+                                        ITestNGMethod method, ITestContext context) {
+        if (shard == null) return rows;
+        return new ShardedRows(rows, methodKey(method), shard, history());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        if (shard != null) recordDuration(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        if (shard != null) recordDuration(result);
+    }
+
+    /**
+     * Saves the durations measured in this shard.
+     *
+     * @param suite the finished suite
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (shard == null || measured.isEmpty()) return;
+        DurationHistory out = DurationHistory.load(shardHistoryFile(shard.index()));
+        for (String key : new ArrayList<>(measured.keySet())) {
+            Long millis = measured.remove(key);
+            if (millis != null) out.record(key, millis);
+        }
+        out.save();
+    }
+
+    /**
+     * @return the method-level duration history file ({@code shard.historyFile})
+     */
+    public static Path historyFile() {
+        return Paths.get(ConfigReader.getProperty("shard.historyFile", "test-history/methods.json"));
+    }
+
+    /**
+     * @param index the shard index
+     * @return the file a shard records its measured durations to
+     */
+    public static Path shardHistoryFile(int index) {
+        Path main = historyFile();
+        String name = main.getFileName().toString().replaceFirst("\\.json$", "");
+        return main.resolveSibling(name + ".shard-" + index + ".json");
+    }
+
+    /**
+     * Weighs the suite's non-data-driven methods by their recorded durations and packs them onto the shards.
+     */
+    private static Map<String, Integer> assign(ISuite suite) {
+        DurationHistory durations = history();
+        long defaultWeight = durations.meanEstimate(DEFAULT_WEIGHT_MILLIS);
+        Map<String, Long> weights = new HashMap<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            if (!method.isDataDriven()) {
+                String key = methodKey(method);
+                weights.put(key, durations.estimate(key, defaultWeight));
+            }
+        }
+        Map<String, Integer> assignment = pack(weights, shard.count());
+        long[] loads = new long[shard.count()];
+        assignment.forEach((key, target) -> loads[target] += weights.get(key));
+        logger.info("Shard assignment for '" + suite.getName() + "', predicted load per shard (ms): " + Arrays.toString(loads));
+        return assignment;
+    }
+
+    /**
+     * Packs weighted keys longest-first onto the least-loaded shard. Equal weights are taken in key order,
+     * so the result does not depend on the iteration order of {@code weights}.
+     *
+     * @param weights    the weight of every key
+     * @param shardCount the number of shards
+     * @return the shard index of every key
+     */
+    static Map<String, Integer> pack(Map<String, Long> weights, int shardCount) {
+        List<String> keys = new ArrayList<>(weights.keySet());
+        keys.sort(Comparator.comparing((String key) -> weights.get(key)).reversed().thenComparing(Comparator.naturalOrder()));
+
+        long[] loads = new long[shardCount];
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String key : keys) {
+            int target = leastLoaded(loads, 0);
+            loads[target] += weights.get(key);
+            assignment.put(key, target);
+        }
+        return assignment;
+    }
+
+    private static int leastLoaded(long[] loads, int offset) {
+        int best = offset % loads.length;
+        for (int i = 1; i < loads.length; i++) {
+            int candidate = (offset + i) % loads.length;
+            if (loads[candidate] < loads[best]) best = candidate;
+        }
+        return best;
+    }
+
+    private static void recordDuration(ITestResult result) {
+        String key = methodKey(result.getMethod());
+        if (result.getMethod().isDataDriven()) {
+            key = rowKey(key, result.getParameters());
+        }
+        measured.put(key, result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getXmlTest().getName() + "/" + method.getQualifiedName();
+    }
+
+    static String rowKey(String methodKey, Object[] row) {
+        return methodKey + Arrays.deepToString(row);
+    }
+
+    private static DurationHistory history() {
+        if (history == null) {
+            synchronized (ShardInterceptor.class) {
+                if (history == null) history = DurationHistory.load(historyFile());
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Streams the rows of one data provider, keeping those assigned to this shard. Rows are assigned in
+     * order to the shard with the least accumulated weight; ties start from a per-method offset so that
+     * small data providers do not all land on shard 0.
+     */
+    static final class ShardedRows implements Iterator<Object[]> {
+        private final Iterator<Object[]> rows;
+        private final String methodKey;
+        private final ShardSpec shard;
+        private final DurationHistory durations;
+        private final long[] loads;
+        private final int offset;
+        private final long defaultWeight;
+        private Object[] next;
+
+        ShardedRows(Iterator<Object[]> rows, String methodKey, ShardSpec shard, DurationHistory durations) {
+            this.rows = rows;
+            this.methodKey = methodKey;
+            this.shard = shard;
+            this.durations = durations;
+            this.loads = new long[shard.count()];
+            this.offset = Math.floorMod(methodKey.hashCode(), shard.count());
+            this.defaultWeight = durations.meanEstimate(DEFAULT_WEIGHT_MILLIS);
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            while (next == null && rows.hasNext()) {
+                Object[] row = rows.next();
+                int target = leastLoaded(loads, offset);
+                loads[target] += Math.max(1, durations.estimate(rowKey(methodKey, row), defaultWeight));
+                if (target == shard.index()) next = row;
+            }
+            return next != null;
+        }
+
+        @Override
+        public synchronized Object[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Object[] row = next;
+            next = null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Runs TestNG suites split across several JVMs on this machine, then merges their reports.
+ * <p>
+ * Shard {@code i} runs as {@code java -Dshard=i/n org.testng.TestNG <suites>} with its own
+ * {@code allure.results.directory} and TestNG output directory under {@code target/shards/shard-i/},
+ * and its console output in {@code output.log} there. {@link ShardInterceptor} selects each shard's
+ * methods and data-provider rows, and {@link ShardMerger} combines the results into {@code allure-results/}
+ * and {@code test-output/testng-results.xml}. {@code -D} options given to the launcher are passed on to every shard.
+ * Example usage:
+ * <pre>
+ * java -Dbrowser=chrome -cp "target/classes:target/test-classes:&lt;dependencies&gt;" execution.ShardLauncher 4 parallelExecution.xml
+ * </pre>
+ * </p>
+ */
+public class ShardLauncher {
+    private static final Logger logger = Logger.getLogger(ShardLauncher.class.getName());
+    private static final Path SHARDS_DIR = Paths.get("target", "shards");
+
+    private ShardLauncher() {
+    }
+
+    /**
+     * Forks the shards, waits for all of them, merges their results and exits with a non-zero
+     * status if any shard failed.
+     *
+     * @param args the number of shards followed by the TestNG suite XML files
+     * @throws IOException          if a shard cannot be started
+     * @throws InterruptedException if interrupted while waiting for the shards
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: ShardLauncher <shardCount> <suite.xml> [<suite.xml> ...]");
+        }
+        int shardCount = Integer.parseInt(args[0]);
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        List<String> suites = Arrays.asList(args).subList(1, args.length);
+
+        List<Process> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(start(new ShardSpec(i, shardCount), suites));
+        }
+        int status = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            int exit = shards.get(i).waitFor();
+            logger.info("Shard " + i + "/" + shardCount + " finished with exit code " + exit);
+            status = Math.max(status, exit);
+        }
+        ShardMerger.merge(SHARDS_DIR, shardCount, Paths.get("allure-results"), Paths.get("test-output"));
+        System.exit(status);
+    }
+
+    private static Process start(ShardSpec shard, List<String> suites) throws IOException {
+        Path shardDir = ShardMerger.shardDir(SHARDS_DIR, shard.index());
+        deleteRecursively(shardDir);
+        Files.createDirectories(shardDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D") && !argument.startsWith("-D" + ShardSpec.PROPERTY + "=")) {
+                command.add(argument);
+            }
+        }
+        command.add("-D" + ShardSpec.PROPERTY + "=" + shard);
+        command.add("-Dallure.results.directory=" + shardDir.resolve("allure-results").toAbsolutePath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(shardDir.resolve("testng").toString());
+        command.addAll(suites);
+
+        File log = shardDir.resolve("output.log").toFile();
+        logger.info("Starting shard " + shard + ", output in " + log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package execution;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Combines the outputs of a sharded run ({@link ShardLauncher}) into single reports:
+ * <ul>
+ *     <li>every shard's {@code allure-results} files are copied into one Allure results directory
+ *     (result files have unique names, so the Allure report shows all shards together)</li>
+ *     <li>the shards' {@code testng-results.xml} files are merged into one, with summed totals</li>
+ *     <li>the durations each shard measured are folded into the method duration history</li>
+ * </ul>
+ * Shard {@code i} is expected in {@code <shardsDir>/shard-i/} with {@code allure-results/} and {@code testng/}.
+ */
+public class ShardMerger {
+    private static final Logger logger = Logger.getLogger(ShardMerger.class.getName());
+    private static final List<String> COUNTERS = List.of("total", "passed", "failed", "skipped", "ignored");
+
+    private ShardMerger() {
+    }
+
+    /**
+     * Merges the shard outputs under {@code args[0]} (default {@code target/shards}) for {@code args[1]} shards.
+     *
+     * @param args the shards directory and the shard count
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ShardMerger <shardsDir> <shardCount>");
+        }
+        merge(Paths.get(args[0]), Integer.parseInt(args[1]), Paths.get("allure-results"), Paths.get("test-output"));
+    }
+
+    /**
+     * Merges the outputs of all shards.
+     *
+     * @param shardsDir     the directory holding {@code shard-0} to {@code shard-(n-1)}
+     * @param shardCount    the number of shards
+     * @param allureResults the Allure results directory to copy every shard's results into
+     * @param testngOutput  the directory the merged {@code testng-results.xml} is written to
+     */
+    public static void merge(Path shardsDir, int shardCount, Path allureResults, Path testngOutput) {
+        try {
+            Files.createDirectories(allureResults);
+            Files.createDirectories(testngOutput);
+            Document merged = null;
+            DurationHistory history = DurationHistory.load(ShardInterceptor.historyFile());
+            for (int i = 0; i < shardCount; i++) {
+                Path shardDir = shardDir(shardsDir, i);
+                int copied = copyAllureResults(shardDir.resolve("allure-results"), allureResults);
+                Path testngResults = shardDir.resolve("testng").resolve("testng-results.xml");
+                if (Files.exists(testngResults)) {
+                    Document shardResults = parse(testngResults);
+                    merged = merged == null ? shardResults : append(merged, shardResults);
+                }
+                Path shardHistory = ShardInterceptor.shardHistoryFile(i);
+                if (Files.exists(shardHistory)) {
+                    history.recordAll(DurationHistory.load(shardHistory));
+                    Files.delete(shardHistory);
+                }
+                logger.info(String.format("Merged shard %d: %d Allure result files", i, copied));
+            }
+            history.save();
+            if (merged != null) {
+                write(merged, testngOutput.resolve("testng-results.xml"));
+                Element root = merged.getDocumentElement();
+                logger.info(String.format("Merged TestNG results: total=%s, passed=%s, failed=%s, skipped=%s",
+                        root.getAttribute("total"), root.getAttribute("passed"),
+                        root.getAttribute("failed"), root.getAttribute("skipped")));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to merge shard results in " + shardsDir, e);
+        } catch (ParserConfigurationException | SAXException | TransformerException e) {
+            throw new IllegalStateException("Failed to merge TestNG results in " + shardsDir, e);
+        }
+    }
+
+    /**
+     * @param shardsDir the directory holding all shards
+     * @param index     the shard index
+     * @return the output directory of one shard
+     */
+    public static Path shardDir(Path shardsDir, int index) {
+        return shardsDir.resolve("shard-" + index);
+    }
+
+    private static int copyAllureResults(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) return 0;
+        int copied = 0;
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Adds the shard's counters to the merged root and appends its {@code <suite>} elements.
+     */
+    private static Document append(Document merged, Document shard) {
+        Element mergedRoot = merged.getDocumentElement();
+        Element shardRoot = shard.getDocumentElement();
+        for (String counter : COUNTERS) {
+            mergedRoot.setAttribute(counter, String.valueOf(count(mergedRoot, counter) + count(shardRoot, counter)));
+        }
+        NodeList children = shardRoot.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE && "suite".equals(child.getNodeName())) {
+                mergedRoot.appendChild(merged.importNode(child, true));
+            }
+        }
+        return merged;
+    }
+
+    private static int count(Element root, String counter) {
+        String value = root.getAttribute(counter);
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+
+    private static Document parse(Path file) throws ParserConfigurationException, IOException, SAXException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.parse(file.toFile());
+    }
+
+    private static void write(Document document, Path file) throws TransformerException {
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(document), new StreamResult(file.toFile()));
+    }
+}
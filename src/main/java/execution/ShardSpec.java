@@ -0,0 +1,54 @@
+package execution;
+
+/**
+ * The shard this JVM runs, from the {@code shard} system property in the form {@code i/n}
+ * (zero-based shard index {@code i} out of {@code n} shards, like {@code JsonDataStream.shard}).
+ *
+ * @param index zero-based shard index
+ * @param count total number of shards
+ */
+public record ShardSpec(int index, int count) {
+
+    /** System property selecting the shard, e.g. {@code -Dshard=0/4}. */
+    public static final String PROPERTY = "shard";
+
+    public ShardSpec {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+    }
+
+    /**
+     * Parses a shard in the form {@code i/n}.
+     *
+     * @param value the shard, e.g. {@code 1/4}
+     * @return the parsed shard
+     * @throws IllegalArgumentException if the value is not in the form {@code i/n}
+     */
+    public static ShardSpec parse(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Shard must be in the form i/n: " + value);
+        }
+        try {
+            return new ShardSpec(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Shard must be in the form i/n: " + value, e);
+        }
+    }
+
+    /**
+     * Returns the shard selected with {@code -Dshard}.
+     *
+     * @return the current shard, or {@code null} when sharding is off
+     */
+    public static ShardSpec current() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? null : parse(value);
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,399 @@
+package execution;
+
+import actions.UIActions;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import dataDriven.JsonDataReader;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import utils.ConfigReader;
+import utils.DependencyRecorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Test impact analysis: with {@code -Dimpact.record=true} records what each test reads and, with
+ * {@code -Dimpact.select=true}, runs only the tests whose inputs changed since they last ran.
+ * <p>
+ * While a test method, a configuration method or a data provider runs, {@link DependencyRecorder} collects the
+ * config keys, locators, JSON test data fields and page objects it uses. Configuration methods and data providers
+ * count for every test of their class. After the suite, each test's dependencies are written to
+ * {@code impact.mapFile} together with a hash of their current value: the config value, the locator's selector,
+ * type and wait entries, the JSON sub-tree, or the compiled class bytes of page objects and test classes.
+ * </p>
+ * <p>
+ * In selection mode a test is kept when it is not in the map, failed last time, or any of its dependencies now
+ * hashes differently; every other test is skipped. Changes to the framework itself (every compiled class outside
+ * {@code pages}) cannot be attributed to single tests, so they discard the map and the whole suite runs.
+ * Registered for every suite through {@code META-INF/services/org.testng.ITestNGListener}, so unless recording or
+ * selection is switched on every callback does nothing: no method is dropped and no map is read or written.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code impact.record} - record each test's dependencies into the map; implied by {@code impact.select}</li>
+ *     <li>{@code impact.select} - run only affected tests</li>
+ *     <li>both can also be set with {@code -D} or as a suite parameter, which take precedence in that order</li>
+ *     <li>{@code impact.mapFile} - where the dependency map is kept between runs</li>
+ * </ul>
+ */
+public class TestImpactSelector implements IMethodInterceptor, IInvokedMethodListener, IDataProviderListener,
+        ITestListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(TestImpactSelector.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final String MISSING = "missing";
+
+    private static final Map<String, Set<String>> methodDependencies = new ConcurrentHashMap<>();
+    private static final Map<String, Set<String>> classDependencies = new ConcurrentHashMap<>();
+    private static final Map<String, String> methodClasses = new ConcurrentHashMap<>();
+    private static final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private static final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private static volatile String frameworkHash;
+
+    /**
+     * In selection mode, keeps the methods whose recorded dependencies changed.
+     *
+     * @param methods the methods of one {@code <test>}
+     * @param context the test context
+     * @return the methods to run
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!selectionEnabled(context.getSuite())) return methods;
+        ImpactMap map = load();
+        if (map == null || !frameworkHash().equals(map.frameworkHash())) {
+            logger.info("Impact selection runs all " + methods.size() + " methods in '" + context.getName()
+                    + "': " + (map == null ? "no dependency map yet" : "framework classes changed"));
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String key = method.getMethod().getQualifiedName();
+            String reason = changeReason(map.tests().get(key));
+            if (reason != null) {
+                kept.add(method);
+                logger.info("Impact selection keeps " + key + ": " + reason);
+            }
+        }
+        logger.info(String.format("Impact selection runs %d of %d methods in '%s'", kept.size(), methods.size(), context.getName()));
+        return kept;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!recordingEnabled(testResult.getTestContext().getSuite())) return;
+        DependencyRecorder.begin();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!recordingEnabled(testResult.getTestContext().getSuite())) return;
+        Set<String> recorded = DependencyRecorder.end();
+        String className = testResult.getTestClass().getRealClass().getName();
+        if (method.isTestMethod()) {
+            String key = method.getTestMethod().getQualifiedName();
+            methodClasses.put(key, className);
+            add(methodDependencies, key, recorded);
+        } else {
+            add(classDependencies, className, recorded);
+        }
+    }
+
+    @Override
+    public void beforeDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+        if (!recordingEnabled(context.getSuite())) return;
+        DependencyRecorder.begin();
+    }
+
+    @Override
+    public void afterDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+        if (!recordingEnabled(context.getSuite())) return;
+        add(methodDependencies, method.getQualifiedName(), DependencyRecorder.end());
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        if (!recordingEnabled(result.getTestContext().getSuite())) return;
+        failed.add(result.getMethod().getQualifiedName());
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (!recordingEnabled(result.getTestContext().getSuite())) return;
+        failed.add(result.getMethod().getQualifiedName());
+    }
+
+    /**
+     * Merges the dependencies of the tests that ran into the map file when recording is on.
+     *
+     * @param suite the finished suite
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!recordingEnabled(suite) || methodClasses.isEmpty()) return;
+        ImpactMap previous = load();
+        Map<String, Entry> tests = new TreeMap<>();
+        if (previous != null && frameworkHash().equals(previous.frameworkHash())) tests.putAll(previous.tests());
+        for (String key : new ArrayList<>(methodClasses.keySet())) {
+            String className = methodClasses.remove(key);
+            if (className == null) continue;
+            Set<String> dependencies = new TreeSet<>(methodDependencies.getOrDefault(key, Set.of()));
+            methodDependencies.remove(key);
+            dependencies.addAll(classDependencies.getOrDefault(className, Set.of()));
+            for (Class<?> type = classForName(className); type != null && type != Object.class; type = type.getSuperclass()) {
+                dependencies.add("class:" + type.getName());
+            }
+            Map<String, String> hashes = new TreeMap<>();
+            DependencyRecorder.untracked(() -> {
+                dependencies.forEach(dependency -> hashes.put(dependency, fingerprint(dependency)));
+                return null;
+            });
+            tests.put(key, new Entry(!failed.remove(key), hashes));
+        }
+        save(new ImpactMap(frameworkHash(), tests));
+    }
+
+    /**
+     * @param suite the running suite, whose parameters are consulted; may be {@code null}
+     * @return whether only affected tests run ({@code impact.select})
+     */
+    public static boolean selectionEnabled(ISuite suite) {
+        return enabled("impact.select", suite);
+    }
+
+    /**
+     * @param suite the running suite, whose parameters are consulted; may be {@code null}
+     * @return whether dependencies are recorded into the map ({@code impact.record}, or selection)
+     */
+    public static boolean recordingEnabled(ISuite suite) {
+        return enabled("impact.record", suite) || selectionEnabled(suite);
+    }
+
+    /**
+     * Reads a switch from {@code -D}, then the suite parameter, then config.properties.
+     */
+    private static boolean enabled(String key, ISuite suite) {
+        String value = System.getProperty(key);
+        if ((value == null || value.isBlank()) && suite != null) value = suite.getParameter(key);
+        return value == null || value.isBlank()
+                ? ConfigReader.getBooleanProperty(key, false) : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * @return the dependency map file ({@code impact.mapFile})
+     */
+    public static Path mapFile() {
+        return Paths.get(ConfigReader.getProperty("impact.mapFile", "test-history/impact.json"));
+    }
+
+    /**
+     * Returns why a test has to run, or {@code null} when nothing it depends on changed.
+     */
+    private static String changeReason(Entry entry) {
+        if (entry == null) return "not in the dependency map";
+        if (!entry.passed()) return "failed last run";
+        return DependencyRecorder.untracked(() -> {
+            for (Map.Entry<String, String> dependency : entry.dependencies().entrySet()) {
+                if (!dependency.getValue().equals(fingerprint(dependency.getKey()))) {
+                    return dependency.getKey() + " changed";
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void add(Map<String, Set<String>> dependencies, String key, Set<String> recorded) {
+        if (recorded.isEmpty()) return;
+        dependencies.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).addAll(recorded);
+    }
+
+    /**
+     * Hashes the current value of a dependency; values are fixed for the lifetime of the JVM, so each is hashed once.
+     */
+    private static String fingerprint(String dependency) {
+        return fingerprints.computeIfAbsent(dependency, TestImpactSelector::computeFingerprint);
+    }
+
+    private static String computeFingerprint(String dependency) {
+        int colon = dependency.indexOf(':');
+        String kind = dependency.substring(0, colon);
+        String name = dependency.substring(colon + 1);
+        switch (kind) {
+            case "config":
+                return hash(ConfigReader.getProperty(name));
+            case "locator":
+                return hash(ConfigReader.getProperty(name) + "\n" + ConfigReader.getProperty(name + ".type")
+                        + "\n" + ConfigReader.getProperty(name + ".wait"));
+            case "json":
+                return hash(jsonValue(name));
+            case "class":
+                return hash(classBytes(name));
+            default:
+                return MISSING;
+        }
+    }
+
+    private static String jsonValue(String name) {
+        int hashSign = name.indexOf('#');
+        Path file = Paths.get(JsonDataReader.testDataFilePath + name.substring(0, hashSign) + ".json");
+        String path = name.substring(hashSign + 1);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement node = JsonParser.parseReader(reader);
+            if (!path.isEmpty()) {
+                for (String segment : path.split("\\.")) {
+                    if (!node.isJsonObject() || !node.getAsJsonObject().has(segment)) return null;
+                    node = node.getAsJsonObject().get(segment);
+                }
+            }
+            return node.toString();
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static byte[] classBytes(String className) {
+        try (InputStream in = TestImpactSelector.class.getClassLoader().getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> classForName(String className) {
+        try {
+            return className == null ? null : Class.forName(className, false, TestImpactSelector.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hashes every compiled framework class outside the {@code pages} package, or the framework jar.
+     */
+    private static String frameworkHash() {
+        if (frameworkHash == null) {
+            synchronized (TestImpactSelector.class) {
+                if (frameworkHash == null) frameworkHash = computeFrameworkHash();
+            }
+        }
+        return frameworkHash;
+    }
+
+    private static String computeFrameworkHash() {
+        try {
+            Path root = Paths.get(UIActions.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            MessageDigest digest = sha256();
+            if (Files.isDirectory(root)) {
+                List<Path> classes;
+                try (Stream<Path> files = Files.walk(root)) {
+                    classes = files.filter(Files::isRegularFile)
+                            .filter(file -> !root.relativize(file).startsWith("pages"))
+                            .sorted().toList();
+                }
+                for (Path file : classes) {
+                    digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } else {
+                digest.update(Files.readAllBytes(root));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.log(Level.WARNING, "Cannot hash framework classes; impact selection will run every test", e);
+            return MISSING;
+        }
+    }
+
+    private static String hash(String value) {
+        return value == null ? MISSING : hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(byte[] value) {
+        return value == null ? MISSING : HexFormat.of().formatHex(sha256().digest(value), 0, 8);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ImpactMap load() {
+        Path file = mapFile();
+        if (!Files.exists(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImpactMap map = gson.fromJson(reader, ImpactMap.class);
+            return map == null || map.tests() == null ? null : map;
+        } catch (IOException | JsonParseException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable dependency map: " + file, e);
+            return null;
+        }
+    }
+
+    private static void save(ImpactMap map) {
+        Path file = mapFile();
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(map, writer);
+            }
+            logger.info("Dependency map of " + map.tests().size() + " tests written: " + file.toAbsolutePath());
+        } catch (IOException | UncheckedIOException e) {
+            logger.log(Level.WARNING, "Failed to save dependency map: " + file, e);
+        }
+    }
+
+    /**
+     * The persisted dependency map.
+     *
+     * @param frameworkHash hash of the framework classes the map was recorded with
+     * @param tests         the tests by qualified method name
+     */
+    private record ImpactMap(String frameworkHash, Map<String, Entry> tests) {
+    }
+
+    /**
+     * What one test depended on when it last ran.
+     *
+     * @param passed       whether no invocation failed or was skipped
+     * @param dependencies the value hash of each dependency
+     */
+    private record Entry(boolean passed, Map<String, String> dependencies) {
+    }
+}
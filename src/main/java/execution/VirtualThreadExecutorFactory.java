@@ -0,0 +1,96 @@
+package execution;
+
+import org.testng.IExecutorServiceFactory;
+import utils.ConfigReader;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * TestNG executor factory that runs every test method (and parallel data-provider row) on its own
+ * virtual thread instead of a fixed pool of platform threads.
+ * <p>
+ * A test blocked on a WebDriver HTTP call or on a free {@code DriverPool} session only parks its virtual
+ * thread, so the suite's {@code thread-count} can be raised far above the number of browser sessions.
+ * Concurrency is still bounded: at most {@code execution.maxConcurrency} tasks run at once
+ * (default: the suite's {@code thread-count}); the others wait in arrival order.
+ * Drivers should be bound with {@link actions.DriverContext} per task rather than per thread.
+ * </p>
+ * Enable it with {@link VirtualThreadLauncher} or TestNG's {@code -threadpoolfactoryclass execution.VirtualThreadExecutorFactory}.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+    private static final Logger logger = Logger.getLogger(VirtualThreadExecutorFactory.class.getName());
+
+    /**
+     * Creates a virtual-thread executor. TestNG's queue and thread factory are not used,
+     * and {@code maximumPoolSize} becomes the concurrency bound unless {@code execution.maxConcurrency} is set.
+     */
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        int concurrency = ConfigReader.getIntProperty("execution.maxConcurrency", 0);
+        concurrency = Integer.getInteger("execution.maxConcurrency", concurrency);
+        if (concurrency <= 0) {
+            concurrency = Math.max(1, maximumPoolSize);
+        }
+        logger.info("Running tests on virtual threads, max concurrency " + concurrency);
+        return new BoundedVirtualThreadExecutor(concurrency);
+    }
+
+    /**
+     * Starts one virtual thread per task; each task holds a permit while it runs.
+     */
+    private static final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("testng-virtual-", 0).factory());
+        private final Semaphore permits;
+
+        BoundedVirtualThreadExecutor(int concurrency) {
+            this.permits = new Semaphore(concurrency, true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
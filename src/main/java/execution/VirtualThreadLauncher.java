@@ -0,0 +1,46 @@
+package execution;
+
+import org.testng.TestNG;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Runs TestNG suite files with test methods on virtual threads ({@link VirtualThreadExecutorFactory}).
+ * <p>
+ * Example usage:
+ * <pre>
+ * java -cp "target/classes:target/test-classes:&lt;dependencies&gt;" execution.VirtualThreadLauncher dataDrivenTests.xml
+ * </pre>
+ * The suite's {@code thread-count} and {@code data-provider-thread-count} can be overridden with
+ * {@code -Dexecution.threadCount}, since virtual threads make counts in the hundreds cheap.
+ * </p>
+ */
+public class VirtualThreadLauncher {
+    private static final Logger logger = Logger.getLogger(VirtualThreadLauncher.class.getName());
+
+    private VirtualThreadLauncher() {
+    }
+
+    /**
+     * Runs the given suites and exits with TestNG's status code.
+     *
+     * @param args paths of the TestNG suite XML files to run
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: VirtualThreadLauncher <suite.xml> [<suite.xml> ...]");
+        }
+        TestNG testng = new TestNG();
+        testng.setTestSuites(Arrays.asList(args));
+        testng.setExecutorServiceFactory(new VirtualThreadExecutorFactory());
+        Integer threadCount = Integer.getInteger("execution.threadCount");
+        if (threadCount != null) {
+            testng.setThreadCount(threadCount);
+            testng.setDataProviderThreadCount(threadCount);
+        }
+        logger.info("Running " + Arrays.toString(args) + " on virtual threads");
+        testng.run();
+        System.exit(testng.getStatus());
+    }
+}
@@ -1,7 +1,9 @@
 package pages;
 
+import actions.Locator;
+import actions.LocatorRegistry;
+import actions.PageReadiness;
 import actions.UIActions;
-import utils.ConfigReader;
 
 /**
  * Represents the Bing Home Page and provides actions that can be performed on it.
@@ -9,8 +11,8 @@ import utils.ConfigReader;
  */
 
 public class BingHomePage {
-    private String searchBarLocator= ConfigReader.getProperty("searchBarLocator");
-    private String searchIcon=ConfigReader.getProperty("searchIcon");
+    private static final Locator searchBarLocator = LocatorRegistry.get("searchBarLocator");
+    private static final Locator searchIcon = LocatorRegistry.get("searchIcon");
 
     /** UIActions instance to perform web element interactions. */
     UIActions uiActions;
@@ -22,28 +24,28 @@ public class BingHomePage {
 
 
     /**
-     * Navigates to the Bing home page using the specified URL.
+     * Navigates to the Bing home page using the specified URL and waits until the search bar is visible,
+     * so the search can start before the rest of the page has finished loading.
      *
      * @param url the Bing home page URL
      */
     public void navigateToBingHomePage(String url){
-        uiActions.navigateToPage(url);
+        uiActions.navigateToPage(url, PageReadiness.visible(searchBarLocator));
     }
 
     /**
      * Performs a search on the Bing home page for the given search term.
-     * Clears the search bar, enters the search word, and submits the search.
+     * Clears the search bar, enters the search word, and submits the search as one action pipeline.
      *
      * @param searchWord the search term to enter
      * @return a new BingSearchResults instance representing the search results page
      */
     public BingSearchResults searchInBing(String searchWord)  {
-
-        uiActions.clearText(UIActions.LocatorType.css,searchBarLocator, UIActions.ExplicitWaitCondition.visibilityOfElement);
-
-        uiActions.sendKeys(UIActions.LocatorType.css,searchBarLocator, UIActions.ExplicitWaitCondition.visibilityOfElement,searchWord);
-
-        uiActions.submit(UIActions.LocatorType.xpath,searchIcon, UIActions.ExplicitWaitCondition.elementToBeClickable);
+        uiActions.pipeline("searchInBing")
+                .clear(searchBarLocator)
+                .type(searchBarLocator, searchWord)
+                .submit(searchIcon)
+                .run();
 
         return new BingSearchResults();
     }
@@ -1,12 +1,11 @@
 package pages;
 
+import actions.Locator;
+import actions.LocatorRegistry;
 import actions.UIActions;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
-import org.openqa.selenium.WebElement;
-import utils.ConfigReader;
 
-import java.util.List;
 /**
  * Represents the Bing Search Results page and provides actions to interact with it.
  * Uses UIActions for performing web element interactions.
@@ -15,34 +14,34 @@ public class BingSearchResults {
     /**
      * Locator for the "Related searches for" section.
      * <p>
-     * The value is read from the configuration file using {@link ConfigReader#getProperty(String)}.
+     * Loaded once from the configuration file through {@link LocatorRegistry}.
      * Example XPath: "//h2[contains(text(),'Related searches for')]"
      */
-    String relatedSearchSection = ConfigReader.getProperty("relatedSearchSection");
+    static final Locator relatedSearchSection = LocatorRegistry.get("relatedSearchSection");
 
     /**
      * Locator for the "Next page" pagination icon.
      * <p>
-     * The value is read from the configuration file using {@link ConfigReader#getProperty(String)}.
+     * Loaded once from the configuration file through {@link LocatorRegistry}.
      * Example CSS selector: "a[title='Next page']"
      */
-    String nextPageIcon = ConfigReader.getProperty("nextPageIcon");
+    static final Locator nextPageIcon = LocatorRegistry.get("nextPageIcon");
 
     /**
      * Locator for search result items on the page.
      * <p>
-     * The value is read from the configuration file using {@link ConfigReader#getProperty(String)}.
+     * Loaded once from the configuration file through {@link LocatorRegistry}.
      * Example XPath: "//ol[@id='b_results']//cite"
      */
-    String searchResultsLocator = ConfigReader.getProperty("searchResultsLocator");
+    static final Locator searchResultsLocator = LocatorRegistry.get("searchResultsLocator");
 
     /**
      * Locator for related search items under the "Related searches for" section.
      * <p>
-     * The value is read from the configuration file using {@link ConfigReader#getProperty(String)}.
+     * Loaded once from the configuration file through {@link LocatorRegistry}.
      * Example XPath: "//h2[contains(text(),'Related searches for')]/following-sibling::ul//li"
      */
-    String relatedSearchItemsLocator = ConfigReader.getProperty("relatedSearchItems");
+    static final Locator relatedSearchItemsLocator = LocatorRegistry.get("relatedSearchItems");
 
 
     /** UIActions instance to perform element interactions. */
@@ -57,8 +56,7 @@ public class BingSearchResults {
      * @return number of related search sections
      */
     public int getRelatedSearchesSections(){
-        List<WebElement> sections=uiActions.findAllElements(UIActions.LocatorType.xpath,relatedSearchSection, UIActions.ExplicitWaitCondition.visibilityOfElement);
-        return sections.size();
+        return uiActions.countElements(relatedSearchSection);
 
     }
 
@@ -66,13 +64,14 @@ public class BingSearchResults {
      * Scrolls the page to the pagination section where the "Next page" icon is located.
      */
     public void scrollToPaginationSection(){
-        uiActions.executeJavaScriptCode(UIActions.LocatorType.css,nextPageIcon, UIActions.ExplicitWaitCondition.elementToBeClickable,"arguments[0].scrollIntoView(true);");
+        uiActions.executeJavaScriptCode(nextPageIcon,"arguments[0].scrollIntoView(true);");
     }
     /**
      * Clicks on the "Next page" icon to navigate to the next page of search results.
+     * With {@code perf.enabled} the next page's load is recorded as {@code BingSearchResults.nextPage}.
      */
     public void clickOnNextPage(){
-        uiActions.click(UIActions.LocatorType.css,nextPageIcon, UIActions.ExplicitWaitCondition.elementToBeClickable);
+        uiActions.measurePageLoad("BingSearchResults.nextPage", () -> uiActions.click(nextPageIcon));
     }
 
     /**
@@ -81,8 +80,7 @@ public class BingSearchResults {
      * @return number of search results
      */
     public int getNumberOfSearchResultsInThePage(){
-        List<WebElement> results=uiActions.findAllElements(UIActions.LocatorType.xpath,searchResultsLocator, UIActions.ExplicitWaitCondition.visibilityOfElement);
-        return results.size();
+        return uiActions.countElements(searchResultsLocator);
     }
     /**
      * Checks if all related search items contain the specified text.
@@ -91,11 +89,6 @@ public class BingSearchResults {
      * @return {@code true} if all related search items contain the expected text, {@code false} otherwise
      */
     public boolean doAllRelatedSearchItemsContainText(String expectedText) {
-        return uiActions.areElementsContainText(
-                UIActions.LocatorType.xpath,
-                relatedSearchItemsLocator,
-                UIActions.ExplicitWaitCondition.visibilityOfElement,
-                expectedText
-        );
+        return uiActions.areElementsContainText(relatedSearchItemsLocator, expectedText);
     }
 }
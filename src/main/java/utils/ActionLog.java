@@ -0,0 +1,145 @@
+package utils;
+
+import io.qameta.allure.Allure;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Per-thread ring buffer of the most recent UI actions, formatted only when a test fails.
+ * <p>
+ * Each thread owns a fixed-size buffer of parallel arrays, allocated once. Recording an action stores
+ * references to strings the caller already holds plus two longs, without allocating, formatting or locking,
+ * so passing tests pay almost nothing for the log. When a test fails, {@link #dumpToLogAndAllure(String)}
+ * formats the buffered actions oldest-first, writes them to the log and attaches them to the Allure result.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code actionLog.capacity} - actions kept per thread (older ones are overwritten)</li>
+ * </ul>
+ */
+public class ActionLog {
+    private static final Logger logger = Logger.getLogger(ActionLog.class.getName());
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int capacity = Math.max(1, ConfigReader.getIntProperty("actionLog.capacity", 256));
+    private static final ThreadLocal<Ring> rings = ThreadLocal.withInitial(() -> new Ring(capacity));
+
+    private ActionLog() {
+    }
+
+    /**
+     * Records a completed action on the current thread.
+     *
+     * @param operation  the operation name, e.g. {@code click}
+     * @param subject    the locator key or URL acted on
+     * @param detail     extra context such as the typed text, or {@code null}
+     * @param startNanos {@link System#nanoTime()} taken when the action started
+     */
+    public static void record(String operation, String subject, String detail, long startNanos) {
+        rings.get().add(operation, subject, detail, startNanos, null);
+    }
+
+    /**
+     * Records a failed action on the current thread.
+     *
+     * @param operation  the operation name, e.g. {@code click}
+     * @param subject    the locator key or URL acted on
+     * @param detail     extra context such as the typed text, or {@code null}
+     * @param startNanos {@link System#nanoTime()} taken when the action started
+     * @param failure    the exception the action failed with
+     */
+    public static void recordFailure(String operation, String subject, String detail, long startNanos, Throwable failure) {
+        rings.get().add(operation, subject, detail, startNanos, failure);
+    }
+
+    /**
+     * Discards the actions buffered on the current thread, e.g. when a new test starts.
+     */
+    public static void clear() {
+        rings.get().clear();
+    }
+
+    /**
+     * Formats the actions buffered on the current thread, oldest first.
+     *
+     * @return one line per action, or an empty string when nothing was recorded
+     */
+    public static String format() {
+        return rings.get().format();
+    }
+
+    /**
+     * Writes the actions buffered on the current thread to the log and attaches them to the
+     * current Allure test, then clears the buffer.
+     *
+     * @param testName the failed test, used in the log message
+     */
+    public static void dumpToLogAndAllure(String testName) {
+        String actions = format();
+        clear();
+        if (actions.isEmpty()) return;
+        logger.warning("Last actions before " + testName + " failed:\n" + actions);
+        Allure.addAttachment("Action log", "text/plain", actions, ".txt");
+    }
+
+    private static final class Ring {
+        private final long[] epochMillis;
+        private final long[] durationNanos;
+        private final String[] operations;
+        private final String[] subjects;
+        private final String[] details;
+        private final Throwable[] failures;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            epochMillis = new long[capacity];
+            durationNanos = new long[capacity];
+            operations = new String[capacity];
+            subjects = new String[capacity];
+            details = new String[capacity];
+            failures = new Throwable[capacity];
+        }
+
+        void add(String operation, String subject, String detail, long startNanos, Throwable failure) {
+            int slot = next;
+            epochMillis[slot] = System.currentTimeMillis();
+            durationNanos[slot] = System.nanoTime() - startNanos;
+            operations[slot] = operation;
+            subjects[slot] = subject;
+            details[slot] = detail;
+            failures[slot] = failure;
+            next = slot + 1 == operations.length ? 0 : slot + 1;
+            if (size < operations.length) size++;
+        }
+
+        void clear() {
+            if (size == 0) return;
+            for (int i = 0; i < operations.length; i++) {
+                subjects[i] = null;
+                details[i] = null;
+                failures[i] = null;
+            }
+            next = 0;
+            size = 0;
+        }
+
+        String format() {
+            StringBuilder out = new StringBuilder();
+            int first = next - size < 0 ? next - size + operations.length : next - size;
+            for (int i = 0; i < size; i++) {
+                int slot = (first + i) % operations.length;
+                out.append(TIME.format(Instant.ofEpochMilli(epochMillis[slot])))
+                        .append(String.format(" %6dms ", TimeUnit.NANOSECONDS.toMillis(durationNanos[slot])))
+                        .append(operations[slot]).append(' ').append(subjects[slot]);
+                if (details[slot] != null) out.append(" [").append(details[slot]).append(']');
+                if (failures[slot] != null) out.append(" FAILED: ").append(failures[slot]);
+                out.append('\n');
+            }
+            return out.toString();
+        }
+    }
+}
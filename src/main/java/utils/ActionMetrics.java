@@ -0,0 +1,181 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.qameta.allure.Allure;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-action latency metrics for {@code UIActions} and {@code BrowserActions}.
+ * <p>
+ * Every operation is recorded into a {@link LatencyHistogram} keyed by operation, locator and page object.
+ * Recording only touches histograms owned by the calling thread, so parallel tests never contend.
+ * When a test finishes, {@link #attachToAllure()} attaches the thread's percentiles to the current
+ * Allure result and merges them into the suite totals, which {@link #writeSuiteReport()} writes as JSON.
+ * Operations slower than the configured threshold are logged and counted as slow.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code metrics.enabled} - set to {@code false} to skip recording entirely</li>
+ *     <li>{@code metrics.slowActionMs} - operations taking longer are flagged as slow</li>
+ *     <li>{@code metrics.reportPath} - where the suite-level JSON report is written</li>
+ * </ul>
+ */
+public class ActionMetrics {
+    private static final Logger logger = Logger.getLogger(ActionMetrics.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final boolean enabled = ConfigReader.getBooleanProperty("metrics.enabled", true);
+    private static final long slowActionNanos =
+            TimeUnit.MILLISECONDS.toNanos(ConfigReader.getIntProperty("metrics.slowActionMs", 5000));
+    private static final String reportPath =
+            ConfigReader.getProperty("metrics.reportPath", "test-output/action-latency.json");
+
+    private static final ThreadLocal<Map<Key, Entry>> threadEntries = ThreadLocal.withInitial(HashMap::new);
+    private static final Map<Key, Entry> suiteEntries = new HashMap<>();
+
+    private ActionMetrics() {
+    }
+
+    /**
+     * Records the latency of one operation on the current thread.
+     *
+     * @param operation  the operation name, e.g. {@code click}
+     * @param locator    the locator key or selector acted on, or {@code "-"} when there is none
+     * @param pageObject the page object or component that performed the operation
+     * @param startNanos {@link System#nanoTime()} taken just before the operation started
+     */
+    public static void record(String operation, String locator, String pageObject, long startNanos) {
+        if (!enabled) return;
+        long elapsed = System.nanoTime() - startNanos;
+        Key key = new Key(operation, locator, pageObject);
+        Entry entry = threadEntries.get().computeIfAbsent(key, k -> new Entry());
+        entry.histogram.recordNanos(elapsed);
+        if (elapsed > slowActionNanos) {
+            entry.slow++;
+            logger.warning(String.format("Slow action: %s took %dms (threshold %dms)",
+                    key, TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(slowActionNanos)));
+        }
+    }
+
+    /**
+     * Returns the percentiles recorded on the current thread since the last drain, slowest first.
+     *
+     * @return one summary per operation, locator and page object
+     */
+    public static List<Summary> currentThreadSummaries() {
+        return summarize(threadEntries.get());
+    }
+
+    /**
+     * Merges the current thread's histograms into the suite totals and clears them.
+     *
+     * @return the summaries of what the thread had recorded, slowest first
+     */
+    public static List<Summary> drainCurrentThread() {
+        Map<Key, Entry> entries = threadEntries.get();
+        List<Summary> summaries = summarize(entries);
+        synchronized (suiteEntries) {
+            entries.forEach((key, entry) -> suiteEntries.computeIfAbsent(key, k -> new Entry()).merge(entry));
+        }
+        threadEntries.remove();
+        return summaries;
+    }
+
+    /**
+     * Drains the current thread's histograms and attaches their percentiles as JSON to the current Allure result.
+     * Nothing is attached when the thread recorded no operations.
+     */
+    public static void attachToAllure() {
+        List<Summary> summaries = drainCurrentThread();
+        if (summaries.isEmpty()) return;
+        Allure.addAttachment("Action latency", "application/json", gson.toJson(summaries), ".json");
+    }
+
+    /**
+     * Writes the merged percentiles of every drained thread to {@code metrics.reportPath}.
+     *
+     * @return the path of the written report
+     */
+    public static Path writeSuiteReport() {
+        List<Summary> summaries;
+        synchronized (suiteEntries) {
+            summaries = summarize(suiteEntries);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("slowActionMs", TimeUnit.NANOSECONDS.toMillis(slowActionNanos));
+        report.put("slowActions", summaries.stream().mapToLong(Summary::slow).sum());
+        report.put("actions", summaries);
+        Path path = Paths.get(reportPath);
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Files.writeString(path, gson.toJson(report), StandardCharsets.UTF_8);
+            logger.info("Action latency report written: " + path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write action latency report: " + path, e);
+        }
+        return path;
+    }
+
+    private static List<Summary> summarize(Map<Key, Entry> entries) {
+        List<Summary> summaries = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) -> summaries.add(entry.summarize(key)));
+        summaries.sort(Comparator.comparingDouble(Summary::p95Ms).reversed());
+        return summaries;
+    }
+
+    private record Key(String operation, String locator, String pageObject) {
+        @Override
+        public String toString() {
+            return operation + "|" + locator + "|" + pageObject;
+        }
+    }
+
+    private static final class Entry {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long slow;
+
+        void merge(Entry other) {
+            histogram.merge(other.histogram);
+            slow += other.slow;
+        }
+
+        Summary summarize(Key key) {
+            return new Summary(key.operation(), key.locator(), key.pageObject(), histogram.getCount(),
+                    histogram.getPercentileMillis(50), histogram.getPercentileMillis(95),
+                    histogram.getPercentileMillis(99), histogram.getMaxMillis(), histogram.getMeanMillis(), slow);
+        }
+    }
+
+    /**
+     * Latency percentiles of one operation on one locator of one page object.
+     *
+     * @param operation  the operation name
+     * @param locator    the locator key or selector
+     * @param pageObject the page object that performed the operation
+     * @param count      number of recorded calls
+     * @param p50Ms      median latency in milliseconds
+     * @param p95Ms      95th percentile latency in milliseconds
+     * @param p99Ms      99th percentile latency in milliseconds
+     * @param maxMs      slowest call in milliseconds
+     * @param meanMs     mean latency in milliseconds
+     * @param slow       calls slower than {@code metrics.slowActionMs}
+     */
+    public record Summary(String operation, String locator, String pageObject, long count,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs, double meanMs, long slow) {
+    }
+}
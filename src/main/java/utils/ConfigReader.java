@@ -1,29 +1,63 @@
 package utils;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Properties;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 /**
- * Utility class to read properties from the "config.properties" file.
- * Loads the properties once in a static block and provides a method to access them.
+ * Utility class to read the configuration ("config.properties" and its overrides).
+ * <p>
+ * All reads go to the current {@link ConfigSnapshot}, an immutable merge of the classpath resource, the config
+ * file, an optional profile, environment variables and system properties, held in a volatile field so reads
+ * never lock. With {@code config.reload=true} (or {@code -Dconfig.reload=true}) a background
+ * {@link WatchService} rebuilds the snapshot whenever the config or profile file changes and swaps it in
+ * atomically; values that classes copied into static fields when they were initialized keep their old value.
+ * </p>
  */
 public class ConfigReader {
-    private static Properties properties;
     private static final Logger logger=Logger.getLogger(ConfigReader.class.getName());
-    // Static block to load properties at class initialization
+    private static volatile ConfigSnapshot snapshot = ConfigSnapshot.load();
 
     static {
-        try {
-            FileInputStream fileInputStream = new FileInputStream("src/test/resources/config.properties");
-            properties = new Properties();
-            properties.load(fileInputStream);
-        } catch (IOException e) {
-            logger.log(Level.SEVERE,"failed to load config.properties",e);
+        if (snapshot.getBoolean("config.reload", false)) {
+            watch();
         }
     }
 
+    /**
+     * @return the configuration currently in effect
+     */
+    public static ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the configuration from all layers and swaps it in.
+     *
+     * @return the keys whose value changed
+     */
+    public static synchronized Set<String> reload() {
+        ConfigSnapshot previous = snapshot;
+        ConfigSnapshot next = ConfigSnapshot.load();
+        Set<String> changed = next.changedSince(previous);
+        snapshot = next;
+        if (!changed.isEmpty()) {
+            logger.info("Configuration reloaded, changed keys: " + changed);
+        }
+        return changed;
+    }
+
     /**
      * Retrieves the value associated with the given key from the loaded properties.
      *
@@ -31,7 +65,154 @@ public class ConfigReader {
      * @return the value associated with the key, or {@code null} if the key is not found
      */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        DependencyRecorder.config(key);
+        return snapshot.get(key);
+    }
+
+    /**
+     * Returns every key defined in the loaded properties.
+     *
+     * @return the set of property keys
+     */
+    public static Set<String> getKeys() {
+        return snapshot.keys();
+    }
+
+    /**
+     * Retrieves the value associated with the given key, falling back to a default.
+     *
+     * @param key          the property key to retrieve
+     * @param defaultValue the value returned when the key is missing or blank
+     * @return the configured value, or {@code defaultValue}
+     */
+    public static String getProperty(String key, String defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getString(key, defaultValue);
+    }
+
+    /**
+     * Retrieves an integer property, falling back to a default when missing or malformed.
+     *
+     * @param key          the property key to retrieve
+     * @param defaultValue the value returned when the key is missing or not a number
+     * @return the configured integer value, or {@code defaultValue}
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    /**
+     * Retrieves a boolean property, falling back to a default when missing.
+     *
+     * @param key          the property key to retrieve
+     * @param defaultValue the value returned when the key is missing
+     * @return the configured boolean value, or {@code defaultValue}
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Retrieves a decimal property, falling back to a default when missing or malformed.
+     *
+     * @param key          the property key to retrieve
+     * @param defaultValue the value returned when the key is missing or not a number
+     * @return the configured value, or {@code defaultValue}
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getDouble(key, defaultValue);
+    }
+
+    /**
+     * Retrieves a comma-separated property as a list, parsed once per snapshot.
+     *
+     * @param key the property key to retrieve
+     * @return the trimmed, non-empty items, or an empty list when the key is missing
+     */
+    public static List<String> getListProperty(String key) {
+        DependencyRecorder.config(key);
+        return snapshot.getList(key);
+    }
+
+    /**
+     * Retrieves a duration property such as {@code 30}, {@code 500ms}, {@code 30s} or {@code PT2M}.
+     *
+     * @param key          the property key to retrieve
+     * @param defaultUnit  the unit of a plain number
+     * @param defaultValue the value returned when the key is missing or malformed
+     * @return the configured duration, or {@code defaultValue}
+     */
+    public static Duration getDurationProperty(String key, ChronoUnit defaultUnit, Duration defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getDuration(key, defaultUnit, defaultValue);
+    }
+
+    /**
+     * Retrieves an enum property, matching the constant name exactly or ignoring case, parsed once per snapshot.
+     *
+     * @param key          the property key to retrieve
+     * @param type         the enum class
+     * @param defaultValue the value returned when the key is missing or blank
+     * @param <E>          the enum type
+     * @return the configured constant, or {@code defaultValue}
+     * @throws IllegalArgumentException if the value names no constant of {@code type}
+     */
+    public static <E extends Enum<E>> E getEnumProperty(String key, Class<E> type, E defaultValue) {
+        DependencyRecorder.config(key);
+        return snapshot.getEnum(key, type, defaultValue);
+    }
+
+    /**
+     * Starts a daemon thread that reloads the configuration when a watched config or profile file changes.
+     */
+    private static void watch() {
+        List<Path> files = snapshot.files();
+        if (files.isEmpty()) {
+            logger.warning("config.reload is set but no config file is on disk to watch.");
+            return;
+        }
+        try {
+            WatchService watcher = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new HashSet<>();
+            for (Path file : files) {
+                Path directory = file.toAbsolutePath().getParent();
+                if (directories.add(directory)) {
+                    directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+            }
+            Thread thread = new Thread(() -> watchLoop(watcher), "config-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            logger.info("Watching " + files + " for configuration changes.");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to watch the config files; configuration will not reload.", e);
+        }
+    }
+
+    private static void watchLoop(WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (!(event.context() instanceof Path changed)) continue;
+                    Path directory = (Path) key.watchable();
+                    relevant |= snapshot.files().stream()
+                            .anyMatch(file -> file.toAbsolutePath().equals(directory.resolve(changed)));
+                }
+                key.reset();
+                if (relevant) {
+                    // editors write in several steps; let the file settle before reading it
+                    Thread.sleep(100);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
 }
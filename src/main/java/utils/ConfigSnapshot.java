@@ -0,0 +1,318 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One immutable view of the configuration, merged from several layers. Later layers override earlier ones:
+ * <ol>
+ *     <li>{@code config.properties} on the classpath</li>
+ *     <li>the config file, {@code src/test/resources/config.properties} or {@code -Dconfig.file}</li>
+ *     <li>the profile files {@code config-<profile>.properties}, from the classpath and next to the config file,
+ *         when a profile is selected with {@code -Dconfig.profile}, {@code CONFIG_PROFILE} or {@code config.profile}</li>
+ *     <li>environment variables named after a key in upper case with dots replaced, e.g. {@code CHROME_OPTIONS}</li>
+ *     <li>system properties with the key's name, e.g. {@code -Ddefault.browser=firefox}</li>
+ * </ol>
+ * Environment variables and system properties only override keys defined by the files.
+ * <p>
+ * Typed values (numbers, lists, durations, enums) are parsed on first use and memoized in the snapshot,
+ * so repeated reads return the same parsed value without locking. A reload builds a new snapshot
+ * instead of changing this one.
+ * </p>
+ */
+public final class ConfigSnapshot {
+    private static final Logger logger = Logger.getLogger(ConfigSnapshot.class.getName());
+    private static final String RESOURCE = "config.properties";
+    private static final Path DEFAULT_FILE = Paths.get("src/test/resources", RESOURCE);
+
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+    private final List<Path> files;
+    private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+    private ConfigSnapshot(Map<String, String> values, Map<String, String> sources, List<Path> files) {
+        this.values = Collections.unmodifiableMap(values);
+        this.sources = Collections.unmodifiableMap(sources);
+        this.files = List.copyOf(files);
+    }
+
+    /**
+     * Builds a snapshot from the classpath, the config file, the selected profile, the environment and the system properties.
+     *
+     * @return the merged configuration; empty if no layer could be read
+     */
+    public static ConfigSnapshot load() {
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
+        List<Path> files = new ArrayList<>();
+        Path file = Paths.get(System.getProperty("config.file", DEFAULT_FILE.toString()));
+
+        loadResource(RESOURCE, values, sources);
+        loadFile(file, values, sources, files);
+        String profile = firstNonBlank(System.getProperty("config.profile"), System.getenv("CONFIG_PROFILE"), values.get("config.profile"));
+        if (profile != null) {
+            String name = "config-" + profile.trim() + ".properties";
+            loadResource(name, values, sources);
+            loadFile(file.resolveSibling(name), values, sources, files);
+        }
+        for (String key : List.copyOf(values.keySet())) {
+            String variable = key.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+            String fromEnvironment = System.getenv(variable);
+            if (fromEnvironment != null) put(values, sources, key, fromEnvironment, "env:" + variable);
+            String fromSystem = System.getProperty(key);
+            if (fromSystem != null) put(values, sources, key, fromSystem, "-D" + key);
+        }
+        if (values.isEmpty()) {
+            logger.severe("No configuration found: neither " + RESOURCE + " on the classpath nor " + file.toAbsolutePath());
+        }
+        return new ConfigSnapshot(values, sources, files);
+    }
+
+    /**
+     * @param key the property key
+     * @return the raw value, or {@code null} if the key is not defined
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * @param key          the property key
+     * @param defaultValue the value returned when the key is missing or blank
+     * @return the trimmed value, or {@code defaultValue}
+     */
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * @param key          the property key
+     * @param defaultValue the value returned when the key is missing or not a number
+     * @return the integer value, or {@code defaultValue}
+     */
+    public int getInt(String key, int defaultValue) {
+        Integer value = typed("int", key, Integer::valueOf);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key          the property key
+     * @param defaultValue the value returned when the key is missing or not a number
+     * @return the long value, or {@code defaultValue}
+     */
+    public long getLong(String key, long defaultValue) {
+        Long value = typed("long", key, Long::valueOf);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key          the property key
+     * @param defaultValue the value returned when the key is missing or not a number
+     * @return the double value, or {@code defaultValue}
+     */
+    public double getDouble(String key, double defaultValue) {
+        Double value = typed("double", key, Double::valueOf);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key          the property key
+     * @param defaultValue the value returned when the key is missing
+     * @return the boolean value, or {@code defaultValue}
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = typed("boolean", key, Boolean::valueOf);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Returns a comma-separated value as a list of trimmed, non-empty items.
+     *
+     * @param key the property key
+     * @return the unmodifiable list, empty when the key is missing
+     */
+    public List<String> getList(String key) {
+        List<String> value = typed("list", key, text -> Arrays.stream(text.split(","))
+                .map(String::trim).filter(item -> !item.isEmpty()).toList());
+        return value == null ? List.of() : value;
+    }
+
+    /**
+     * Returns a duration written as an ISO-8601 duration ({@code PT30S}), a number with a unit
+     * ({@code 500ms}, {@code 30s}, {@code 2m}, {@code 1h}) or a plain number in {@code defaultUnit}.
+     *
+     * @param key          the property key
+     * @param defaultUnit  the unit of plain numbers, e.g. {@link ChronoUnit#SECONDS} for {@code *Seconds} keys
+     * @param defaultValue the value returned when the key is missing or malformed
+     * @return the duration, or {@code defaultValue}
+     */
+    public Duration getDuration(String key, ChronoUnit defaultUnit, Duration defaultValue) {
+        Duration value = typed("duration:" + defaultUnit, key, text -> parseDuration(text, defaultUnit));
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Returns an enum constant matched by exact name first, then ignoring case. Unlike the other typed reads,
+     * a value that names no constant is an error rather than a fallback to the default.
+     *
+     * @param key          the property key
+     * @param type         the enum class
+     * @param defaultValue the value returned when the key is missing or blank
+     * @param <E>          the enum type
+     * @return the constant, or {@code defaultValue}
+     * @throws IllegalArgumentException if the value names no constant of {@code type}
+     */
+    public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        // a failed parse throws out of computeIfAbsent without memoizing anything
+        return type.cast(parsed.computeIfAbsent("enum:" + type.getName() + '|' + key, ignored -> parseEnum(value, type)));
+    }
+
+    /**
+     * @return every defined key
+     */
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    /**
+     * @param key the property key
+     * @return the layer the value came from (a resource, file, {@code env:NAME} or {@code -Dkey}), or {@code null}
+     */
+    public String source(String key) {
+        return sources.get(key);
+    }
+
+    /**
+     * @return the config and profile files that were read, which a reload watches for changes
+     */
+    public List<Path> files() {
+        return files;
+    }
+
+    /**
+     * Lists the keys whose value differs between two snapshots.
+     *
+     * @param previous the older snapshot
+     * @return the added, removed or changed keys
+     */
+    public Set<String> changedSince(ConfigSnapshot previous) {
+        Set<String> changed = new TreeSet<>();
+        values.forEach((key, value) -> {
+            if (!value.equals(previous.values.get(key))) changed.add(key);
+        });
+        previous.values.keySet().forEach(key -> {
+            if (!values.containsKey(key)) changed.add(key);
+        });
+        return changed;
+    }
+
+    /**
+     * Parses the value of a key once and memoizes it; malformed values are logged once and memoized as absent.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T typed(String kind, String key, Function<String, T> parser) {
+        String value = getString(key, null);
+        if (value == null) return null;
+        Object result = parsed.computeIfAbsent(kind + '|' + key, ignored -> {
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                logger.warning("Property '" + key + "' is not a valid " + kind + ": " + value);
+                return Absent.VALUE;
+            }
+        });
+        return result == Absent.VALUE ? null : (T) result;
+    }
+
+    private static Duration parseDuration(String text, ChronoUnit defaultUnit) {
+        String value = text.toLowerCase(Locale.ROOT);
+        if (value.startsWith("p")) return Duration.parse(text);
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+        char unit = value.charAt(value.length() - 1);
+        if (Character.isDigit(unit)) return Duration.of(Long.parseLong(value), defaultUnit);
+        long amount = Long.parseLong(value.substring(0, value.length() - 1).trim());
+        switch (unit) {
+            case 's': return Duration.ofSeconds(amount);
+            case 'm': return Duration.ofMinutes(amount);
+            case 'h': return Duration.ofHours(amount);
+            default: throw new IllegalArgumentException("Unknown duration unit: " + unit);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String text, Class<E> type) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(text)) return constant;
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(text)) return constant;
+        }
+        throw new IllegalArgumentException("No " + type.getSimpleName() + " named " + text
+                + ", expected one of " + Arrays.toString(type.getEnumConstants()));
+    }
+
+    private static void loadResource(String name, Map<String, String> values, Map<String, String> sources) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) loader = ConfigSnapshot.class.getClassLoader();
+        try (InputStream in = loader.getResourceAsStream(name)) {
+            if (in == null) return;
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
+            properties.stringPropertyNames().forEach(key -> put(values, sources, key, properties.getProperty(key), "classpath:" + name));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to load " + name + " from the classpath", e);
+        }
+    }
+
+    private static void loadFile(Path file, Map<String, String> values, Map<String, String> sources, List<Path> files) {
+        if (!Files.isRegularFile(file)) return;
+        files.add(file);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            properties.stringPropertyNames().forEach(key -> put(values, sources, key, properties.getProperty(key), file.toString()));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to load " + file.toAbsolutePath(), e);
+        }
+    }
+
+    private static void put(Map<String, String> values, Map<String, String> sources, String key, String value, String source) {
+        values.put(key, value);
+        sources.put(key, source);
+    }
+
+    private static String firstNonBlank(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.isBlank()) return candidate;
+        }
+        return null;
+    }
+
+    /** Memoized marker for a value that failed to parse; {@link ConcurrentHashMap} cannot hold {@code null}. */
+    private enum Absent { VALUE }
+}
@@ -0,0 +1,99 @@
+package utils;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Records what the running test reads: configuration keys, JSON test data fields, locators and page objects.
+ * <p>
+ * Recording is active on a thread between {@link #begin()} and {@link #end()}, which the test impact
+ * listener calls around every test method, configuration method and data provider. Outside of that, and
+ * inside {@link #untracked(Supplier)}, the hooks in {@link ConfigReader}, the JSON readers and
+ * {@code UIActions} cost one thread-local lookup.
+ * </p>
+ * Dependencies are plain strings of the form {@code <kind>:<name>}:
+ * <ul>
+ *     <li>{@code config:<key>} - a key read from config.properties</li>
+ *     <li>{@code locator:<key>} - a registered locator acted on, covering its selector, type and wait entries</li>
+ *     <li>{@code json:<file>#<field>} - a field of a JSON test data file; {@code json:<file>#} is the whole file</li>
+ *     <li>{@code class:<name>} - a page object or test class, by its compiled bytes</li>
+ * </ul>
+ */
+public class DependencyRecorder {
+    private static final ThreadLocal<Set<String>> current = new ThreadLocal<>();
+
+    private DependencyRecorder() {
+    }
+
+    /**
+     * Starts recording on the current thread, discarding anything recorded but not collected before.
+     */
+    public static void begin() {
+        current.set(new TreeSet<>());
+    }
+
+    /**
+     * Stops recording on the current thread.
+     *
+     * @return the dependencies recorded since {@link #begin()}, empty when recording was not active
+     */
+    public static Set<String> end() {
+        Set<String> recorded = current.get();
+        current.remove();
+        return recorded == null ? Set.of() : recorded;
+    }
+
+    /**
+     * Runs a task without recording what it reads, e.g. loading every locator once for the whole JVM.
+     *
+     * @param task the task to run
+     * @param <T>  the task's result type
+     * @return the task's result
+     */
+    public static <T> T untracked(Supplier<T> task) {
+        Set<String> recording = current.get();
+        if (recording == null) return task.get();
+        current.remove();
+        try {
+            return task.get();
+        } finally {
+            current.set(recording);
+        }
+    }
+
+    /**
+     * @param key the config.properties key read
+     */
+    public static void config(String key) {
+        add("config:", key);
+    }
+
+    /**
+     * @param key the registered locator key acted on
+     */
+    public static void locator(String key) {
+        add("locator:", key);
+    }
+
+    /**
+     * @param jsonFileName the JSON file name, without .json extension
+     * @param field        the dot-separated field path read; empty for the whole file
+     */
+    public static void json(String jsonFileName, String field) {
+        Set<String> recording = current.get();
+        if (recording != null) recording.add("json:" + jsonFileName + "#" + field);
+    }
+
+    /**
+     * @param type the page object or test class used
+     */
+    public static void type(Class<?> type) {
+        add("class:", type.getName());
+    }
+
+    private static void add(String kind, String name) {
+        Set<String> recording = current.get();
+        if (recording != null) recording.add(kind + name);
+    }
+}
@@ -0,0 +1,105 @@
+package utils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decoded pixels of a screenshot as one primitive {@code int[]} of ARGB values, row-major.
+ * <p>
+ * Decoding copies the decoder's own pixel buffer straight into the array for the layouts PNG and JPEG
+ * decode to (3-byte BGR, 4-byte ABGR and packed int), instead of converting pixel by pixel through
+ * {@link BufferedImage#getRGB(int, int)}.
+ * </p>
+ *
+ * @param width  the image width in pixels
+ * @param height the image height in pixels
+ * @param pixels {@code width * height} ARGB values
+ */
+public record Raster(int width, int height, int[] pixels) {
+
+    /**
+     * Decodes an encoded image.
+     *
+     * @param image PNG or JPEG bytes
+     * @return the decoded raster, or {@code null} if the bytes are not a readable image
+     * @throws IOException if the bytes cannot be read
+     */
+    public static Raster decode(byte[] image) throws IOException {
+        BufferedImage decoded;
+        try (InputStream in = new ByteArrayInputStream(image)) {
+            decoded = ImageIO.read(in);
+        }
+        return decoded == null ? null : of(decoded);
+    }
+
+    /**
+     * Copies the pixels of an image.
+     *
+     * @param image the image
+     * @return the raster of the image
+     */
+    public static Raster of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int count = width * height;
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        boolean packed = image.getRaster().getParent() == null && buffer.getNumBanks() == 1 && buffer.getOffset() == 0;
+        int[] pixels = new int[count];
+        switch (packed ? image.getType() : BufferedImage.TYPE_CUSTOM) {
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                byte[] data = ((DataBufferByte) buffer).getData();
+                if (data.length != count * 3) break;
+                for (int i = 0, j = 0; i < count; i++, j += 3) {
+                    pixels[i] = 0xFF000000 | (data[j + 2] & 0xFF) << 16 | (data[j + 1] & 0xFF) << 8 | (data[j] & 0xFF);
+                }
+                return new Raster(width, height, pixels);
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR: {
+                byte[] data = ((DataBufferByte) buffer).getData();
+                if (data.length != count * 4) break;
+                for (int i = 0, j = 0; i < count; i++, j += 4) {
+                    pixels[i] = (data[j] & 0xFF) << 24 | (data[j + 3] & 0xFF) << 16 | (data[j + 2] & 0xFF) << 8 | (data[j + 1] & 0xFF);
+                }
+                return new Raster(width, height, pixels);
+            }
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB: {
+                int[] data = ((DataBufferInt) buffer).getData();
+                if (data.length != count) break;
+                int alpha = image.getType() == BufferedImage.TYPE_INT_RGB ? 0xFF000000 : 0;
+                for (int i = 0; i < count; i++) {
+                    pixels[i] = data[i] | alpha;
+                }
+                return new Raster(width, height, pixels);
+            }
+            default:
+        }
+        return new Raster(width, height, image.getRGB(0, 0, width, height, pixels, 0, width));
+    }
+
+    /**
+     * @return a new ARGB image with these pixels
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * @return these pixels encoded as PNG
+     * @throws IOException if encoding fails
+     */
+    public byte[] toPng() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(toImage(), "png", out);
+        return out.toByteArray();
+    }
+}
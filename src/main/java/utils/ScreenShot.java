@@ -4,38 +4,34 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Path;
 /**
  * Utility class for capturing screenshots during Selenium tests.
- * Screenshots are saved in the "test-output/screenshots/" directory with a timestamp.
+ * Screenshots are kept in the content-addressed {@link ScreenshotStore} under "test-output/screenshots/",
+ * so identical and near-identical captures are stored once.
  */
 public class ScreenShot {
 
 
     /**
-     * Captures a screenshot of the current browser window.
+     * Captures a screenshot of the current browser window and stores it in the {@link ScreenshotStore}.
      *
      * @param driver the WebDriver instance used to take the screenshot
-     * @param screenshotName a custom name for the screenshot file
-     * @return the path of the saved screenshot, or {@code null} if saving failed
+     * @param screenshotName the test the screenshot belongs to, recorded in the store index
+     * @return the path of the stored file (a full image, or a delta if a similar image is already stored),
+     *         or {@code null} if saving failed
      */
     public static String captureScreenshot(WebDriver driver, String screenshotName) {
         TakesScreenshot ts = (TakesScreenshot) driver;
-        File source = ts.getScreenshotAs(OutputType.FILE);
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date());
-        String screenshotPath="test-output/screenshots/" + screenshotName + timestamp + ".png";
-        File destination = new File(screenshotPath);
+        byte[] source = ts.getScreenshotAs(OutputType.BYTES);
 
         try {
-            Files.createDirectories(destination.getParentFile().toPath());
-            Files.copy(source.toPath(), destination.toPath());
+            ScreenshotStore.Entry entry = ScreenshotStore.store(ScreenshotStore.id(source), source, "png", screenshotName);
+            Path destination = ScreenshotStore.resolve(entry);
 
-            System.out.println("Screenshot saved: " + destination.getAbsolutePath());
-            return screenshotPath;
+            System.out.println("Screenshot " + entry.kind() + " saved: " + destination.toAbsolutePath());
+            return destination.toString();
         } catch (IOException e) {
             System.out.println("Failed to save screenshot: " + e.getMessage());
             return null;
@@ -43,5 +39,17 @@ public class ScreenShot {
 
     }
 
+    /**
+     * Captures a screenshot of the current browser window and stores it in the background
+     * through {@link ScreenshotPipeline}, also attaching a reference to it to the current Allure test.
+     *
+     * @param driver the WebDriver instance used to take the screenshot
+     * @param screenshotName the test the screenshot belongs to, recorded in the store index
+     * @return the screenshot's content address in the store index
+     */
+    public static String captureScreenshotAsync(WebDriver driver, String screenshotName) {
+        return ScreenshotPipeline.capture(driver, screenshotName);
+    }
+
 
 }
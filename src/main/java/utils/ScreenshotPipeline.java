@@ -0,0 +1,252 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous screenshot pipeline: grabs the screenshot bytes once on the test thread and
+ * hands them to a bounded background writer that stores them in the {@link ScreenshotStore}.
+ * <p>
+ * Only the capture and its content hash run on the test thread. When the writer queue is full, the test
+ * thread writes the screenshot itself instead of dropping it. The Allure report gets a reference to the stored
+ * capture, not a copy of the image. Reports that show the image by path ask for it with {@link #requestView(String)},
+ * and only those views are written, on {@link #flush()}. Call {@link #flush()} when the suite finishes so pending
+ * writes complete, requested views exist and the store index is written before the report is generated.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code screenshot.writerThreads}, {@code screenshot.queueCapacity} - background writer size</li>
+ *     <li>{@code screenshot.scale} - downscale factor, e.g. {@code 0.5}; {@code 1} keeps the original size</li>
+ *     <li>{@code screenshot.format} - {@code png} (default) or {@code jpg} to recompress</li>
+ *     <li>{@code screenshot.jpegQuality} - JPEG quality between 0 and 1</li>
+ * </ul>
+ */
+public class ScreenshotPipeline {
+    private static final Logger logger = Logger.getLogger(ScreenshotPipeline.class.getName());
+
+    private static final double scale = ConfigReader.getDoubleProperty("screenshot.scale", 1);
+    private static final String format = ConfigReader.getProperty("screenshot.format", "png").toLowerCase();
+    private static final float jpegQuality = (float) ConfigReader.getDoubleProperty("screenshot.jpegQuality", 0.8);
+
+    private static final ThreadPoolExecutor writer = createWriter();
+    private static final Queue<Future<?>> pending = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicLong captures = new AtomicLong();
+    private static final AtomicLong captureNanos = new AtomicLong();
+    private static final AtomicLong maxCaptureNanos = new AtomicLong();
+    private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final Set<String> views = ConcurrentHashMap.newKeySet();
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Captures a screenshot on the calling thread and queues it for the {@link ScreenshotStore} and,
+     * when a test is running, attaches a reference to the stored capture to the Allure report.
+     *
+     * @param driver         the WebDriver instance used to take the screenshot
+     * @param screenshotName the test the screenshot belongs to, recorded in the store index
+     * @return the screenshot's content address, as listed in the store index
+     */
+    public static String capture(WebDriver driver, String screenshotName) {
+        long start = System.nanoTime();
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        String id = ScreenshotStore.id(png);
+
+        // the attachment must be registered on the test thread; its content is written later
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String attachmentSource = lifecycle.getCurrentTestCaseOrStep().isPresent()
+                ? lifecycle.prepareAttachment("Screenshot for failed test", "text/plain", ".txt")
+                : null;
+
+        pending.add(writer.submit(() -> write(id, png, screenshotName, attachmentSource)));
+        pending.removeIf(Future::isDone);
+        maxQueueDepth.accumulateAndGet(writer.getQueue().size(), Math::max);
+
+        long elapsed = System.nanoTime() - start;
+        captures.incrementAndGet();
+        captureNanos.addAndGet(elapsed);
+        maxCaptureNanos.accumulateAndGet(elapsed, Math::max);
+        return id;
+    }
+
+    /**
+     * Asks for a viewable image file of the capture, for reports that show it by path. The file is written on
+     * {@link #flush()}, so captures no report asks for are never copied out of the store.
+     *
+     * @param id the content address returned by {@link #capture}
+     * @return where the viewable image file will be
+     */
+    public static Path requestView(String id) {
+        views.add(id);
+        return ScreenshotStore.viewFile(id, extension());
+    }
+
+    /**
+     * Waits until every queued screenshot has been written, writes the requested views and the store index and logs
+     * the pipeline metrics.
+     */
+    public static void flush() {
+        Future<?> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.log(Level.WARNING, "Screenshot write failed", e.getCause());
+            }
+        }
+        for (String id : views) {
+            try {
+                bytesWritten.addAndGet(ScreenshotStore.view(id, extension()));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to write the view of screenshot " + id, e);
+            }
+        }
+        views.clear();
+        ScreenshotStore.writeIndex();
+        logger.info(getSummary());
+        logger.info(ScreenshotStore.getSummary().toString());
+    }
+
+    /**
+     * @return capture latency, queue depth and bytes written so far
+     */
+    public static String getSummary() {
+        long count = captures.get();
+        return String.format("Screenshots: captured=%d, avgCapture=%dms, maxCapture=%dms, maxQueueDepth=%d, bytesWritten=%d",
+                count,
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(captureNanos.get() / count),
+                TimeUnit.NANOSECONDS.toMillis(maxCaptureNanos.get()),
+                maxQueueDepth.get(), bytesWritten.get());
+    }
+
+    private static void write(String id, byte[] png, String screenshotName, String attachmentSource) {
+        try {
+            byte[] image = transform(png);
+            ScreenshotStore.Entry entry = ScreenshotStore.store(id, image, extension(), screenshotName);
+            bytesWritten.addAndGet(entry.storedBytes());
+            if (attachmentSource != null) {
+                Allure.getLifecycle().writeAttachment(attachmentSource,
+                        new ByteArrayInputStream(reference(entry).getBytes(StandardCharsets.UTF_8)));
+            }
+            logger.info("Screenshot stored as " + entry.kind() + ": " + ScreenshotStore.resolve(entry).toAbsolutePath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to store screenshot " + id + " of " + screenshotName, e);
+        }
+    }
+
+    /**
+     * The text attached to the Allure report in place of the image: where the capture is stored and how to restore it.
+     */
+    private static String reference(ScreenshotStore.Entry entry) {
+        StringBuilder reference = new StringBuilder()
+                .append("Screenshot ").append(entry.id()).append('\n')
+                .append("Stored as ").append(entry.kind()).append(": ").append(ScreenshotStore.resolve(entry)).append('\n');
+        if (entry.base() != null) {
+            reference.append("Base: ").append(ScreenshotStore.resolveBase(entry)).append('\n');
+        }
+        return reference.append("Index: ").append(ScreenshotStore.indexFile()).append('\n')
+                .append("Restore with: java utils.ScreenshotStore <output folder>").append('\n')
+                .toString();
+    }
+
+    /**
+     * Downscales and/or recompresses the captured PNG according to configuration.
+     */
+    private static byte[] transform(byte[] png) throws IOException {
+        if (scale >= 1 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (scale < 1) {
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+            image = scaled;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("jpg".equals(format)) {
+            writeJpeg(toRgb(image), out);
+        } else {
+            ImageIO.write(image, "png", out);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            jpegWriter.setOutput(stream);
+            jpegWriter.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            jpegWriter.dispose();
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) return image;
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return rgb;
+    }
+
+    private static String extension() {
+        return "jpg".equals(format) ? "jpg" : "png";
+    }
+
+    private static ThreadPoolExecutor createWriter() {
+        int threads = Math.max(1, ConfigReader.getIntProperty("screenshot.writerThreads", 1));
+        int capacity = Math.max(1, ConfigReader.getIntProperty("screenshot.queueCapacity", 16));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
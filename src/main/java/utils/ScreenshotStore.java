@@ -0,0 +1,475 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed screenshot storage: every capture is identified by the SHA-256 of its captured bytes and stored once.
+ * <p>
+ * A capture whose bytes are already stored is only added to the index. Otherwise it is compared tile by tile
+ * with the recent full captures of the same size; if few enough tiles differ, only those tiles are stored,
+ * deflated, as a delta against that base. Anything else is stored as a full image, which becomes a base itself.
+ * Files are laid out as:
+ * <pre>
+ * test-output/screenshots/blobs/&lt;sha256&gt;.png     full captures
+ * test-output/screenshots/deltas/&lt;sha256&gt;.delta  tile deltas against a full capture
+ * test-output/screenshots/view/&lt;sha256&gt;.png      viewable images of captures a report asked for, see {@link #view}
+ * test-output/screenshots/index.json              which test produced which capture
+ * </pre>
+ * {@link #restore(String)} rebuilds any capture as a PNG; running this class restores every indexed capture
+ * into a folder: {@code java utils.ScreenshotStore [targetDir]}.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code screenshot.store.path} - store root</li>
+ *     <li>{@code screenshot.store.tileSize} - tile edge in pixels for delta detection</li>
+ *     <li>{@code screenshot.store.deltaMaxChangedRatio} - largest fraction of changed tiles still stored as a delta</li>
+ *     <li>{@code screenshot.store.maxBases} - recent full captures kept decoded as delta bases; 0 disables deltas</li>
+ * </ul>
+ */
+public class ScreenshotStore {
+    private static final Logger logger = Logger.getLogger(ScreenshotStore.class.getName());
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final int DELTA_MAGIC = 0x53534431;
+
+    private static final Path root = Paths.get(ConfigReader.getProperty("screenshot.store.path", "test-output/screenshots"));
+    private static final int tileSize = Math.max(8, ConfigReader.getIntProperty("screenshot.store.tileSize", 64));
+    private static final double maxChangedRatio = ConfigReader.getDoubleProperty("screenshot.store.deltaMaxChangedRatio", 0.5);
+    private static final int maxBases = Math.max(0, ConfigReader.getIntProperty("screenshot.store.maxBases", 8));
+
+    // guarded by the class lock
+    private static final Map<String, Raster> bases = new LinkedHashMap<>(16, 0.75f, true);
+    private static List<Entry> index;
+    private static long captures;
+    private static long duplicates;
+    private static long deltas;
+    private static long blobs;
+    private static long originalBytes;
+    private static long bytesWritten;
+
+    private ScreenshotStore() {
+    }
+
+    /**
+     * @param image the captured image bytes
+     * @return the content address of the bytes, a hex SHA-256
+     */
+    public static String id(byte[] image) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Stores a capture unless it is already stored, and records it in the index.
+     *
+     * @param id        the capture's content address, {@link #id(byte[])} of the bytes the browser returned
+     * @param image     the image bytes to store, PNG or JPEG; the capture itself or its downscaled or recompressed form
+     * @param extension the image file extension, {@code png} or {@code jpg}
+     * @param testName  the test the capture belongs to
+     * @return the index entry of the capture
+     * @throws IOException if the capture cannot be written
+     */
+    public static synchronized Entry store(String id, byte[] image, String extension, String testName) throws IOException {
+        Path blob = root.resolve("blobs").resolve(id + "." + extension);
+        Path delta = root.resolve("deltas").resolve(id + ".delta");
+        Entry entry;
+        if (Files.exists(blob) || Files.exists(delta)) {
+            entry = new Entry(testName, Instant.now().toString(), id, Kind.duplicate,
+                    relative(Files.exists(blob) ? blob : delta), null, image.length, 0);
+            duplicates++;
+        } else {
+            Raster raster = maxBases == 0 ? null : Raster.decode(image);
+            Delta tiles = raster == null ? null : smallestDelta(raster, image.length);
+            if (tiles != null) {
+                write(delta, tiles.bytes());
+                entry = new Entry(testName, Instant.now().toString(), id, Kind.delta, relative(delta),
+                        tiles.base(), image.length, tiles.bytes().length);
+                deltas++;
+            } else {
+                write(blob, image);
+                if (raster != null) addBase(id + "." + extension, raster);
+                entry = new Entry(testName, Instant.now().toString(), id, Kind.blob, relative(blob), null, image.length, image.length);
+                blobs++;
+            }
+        }
+        captures++;
+        originalBytes += entry.originalBytes();
+        bytesWritten += entry.storedBytes();
+        index().add(entry);
+        return entry;
+    }
+
+    /**
+     * @param entry an index entry
+     * @return the stored file of the entry
+     */
+    public static Path resolve(Entry entry) {
+        return root.resolve(entry.path());
+    }
+
+    /**
+     * @param entry an index entry of a delta
+     * @return the full image the delta applies to, or {@code null} for other entries
+     */
+    public static Path resolveBase(Entry entry) {
+        return entry.base() == null ? null : root.resolve("blobs").resolve(entry.base());
+    }
+
+    /**
+     * @param id        the capture's content address
+     * @param extension the image file extension, {@code png} or {@code jpg}
+     * @return where {@link #view} puts the viewable image of the capture
+     */
+    public static Path viewFile(String id, String extension) {
+        return root.resolve("view").resolve(id + "." + extension);
+    }
+
+    /**
+     * @return the index file written by {@link #writeIndex()}
+     */
+    public static Path indexFile() {
+        return root.resolve("index.json");
+    }
+
+    /**
+     * Makes a stored capture viewable as an image file at {@link #viewFile(String, String)}, for reports that show
+     * it by path. A full capture is hard-linked to its blob, which writes nothing; where links are unsupported, and
+     * for deltas, the image is written in full and counted in the bytes written by the store.
+     *
+     * @param id        the capture's content address
+     * @param extension the image file extension, {@code png} or {@code jpg}
+     * @return the bytes written, {@code 0} when the view was linked or already exists
+     * @throws IOException if the capture is not in the store or the file cannot be written
+     */
+    public static long view(String id, String extension) throws IOException {
+        Path view = viewFile(id, extension);
+        if (Files.exists(view)) return 0;
+        Files.createDirectories(view.getParent());
+        Path blob = root.resolve("blobs").resolve(id + "." + extension);
+        if (Files.exists(blob)) {
+            try {
+                Files.createLink(view, blob);
+                return 0;
+            } catch (FileAlreadyExistsException e) {
+                return 0;
+            } catch (IOException | UnsupportedOperationException e) {
+                logger.fine("Copying " + blob + " instead of linking it: " + e);
+            }
+        }
+        byte[] image = Files.exists(blob) ? Files.readAllBytes(blob) : encode(restore(id), extension);
+        try {
+            Files.write(view, image, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            return 0;
+        }
+        synchronized (ScreenshotStore.class) {
+            bytesWritten += image.length;
+        }
+        return image.length;
+    }
+
+    /**
+     * Writes the index of every capture stored so far, including earlier runs, to {@code index.json}.
+     */
+    public static synchronized void writeIndex() {
+        if (index == null) return;
+        Path file = indexFile();
+        try {
+            Files.createDirectories(root);
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                gson.toJson(index, writer);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write screenshot index: " + file, e);
+        }
+    }
+
+    /**
+     * @return the store totals of this run
+     */
+    public static synchronized Summary getSummary() {
+        return new Summary(captures, blobs, deltas, duplicates, originalBytes, bytesWritten);
+    }
+
+    /**
+     * Rebuilds a stored capture.
+     *
+     * @param id the capture's content address
+     * @return the capture: the stored bytes of a full capture, or a PNG rebuilt from its base and delta
+     * @throws IOException if the capture or its base is not in the store
+     */
+    public static byte[] restore(String id) throws IOException {
+        for (String extension : List.of("png", "jpg")) {
+            Path blob = root.resolve("blobs").resolve(id + "." + extension);
+            if (Files.exists(blob)) return Files.readAllBytes(blob);
+        }
+        Path delta = root.resolve("deltas").resolve(id + ".delta");
+        if (!Files.exists(delta)) throw new IOException("Screenshot not in store: " + id);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(Files.newInputStream(delta)))) {
+            if (in.readInt() != DELTA_MAGIC) throw new IOException("Not a screenshot delta: " + delta);
+            String base = in.readUTF();
+            Raster raster = Raster.decode(Files.readAllBytes(root.resolve("blobs").resolve(base)));
+            if (raster == null) throw new IOException("Unreadable delta base " + base + " of " + id);
+            int width = in.readInt();
+            int height = in.readInt();
+            int size = in.readInt();
+            if (width != raster.width() || height != raster.height()) {
+                throw new IOException("Delta " + id + " does not match the size of its base " + base);
+            }
+            int[] pixels = raster.pixels().clone();
+            int columns = (width + size - 1) / size;
+            for (int count = in.readInt(); count > 0; count--) {
+                int tile = in.readInt();
+                int x0 = (tile % columns) * size;
+                int y0 = (tile / columns) * size;
+                int x1 = Math.min(x0 + size, width);
+                for (int y = y0; y < Math.min(y0 + size, height); y++) {
+                    for (int x = x0; x < x1; x++) {
+                        pixels[y * width + x] = in.readInt();
+                    }
+                }
+            }
+            return new Raster(width, height, pixels).toPng();
+        }
+    }
+
+    /**
+     * Restores every indexed capture as an image file named after its test and capture time.
+     *
+     * @param args optional target folder, {@code <store>/restored} by default
+     * @throws IOException if the folder cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path target = args.length > 0 ? Paths.get(args[0]) : root.resolve("restored");
+        Files.createDirectories(target);
+        int restored = 0;
+        for (Entry entry : index()) {
+            try {
+                byte[] image = restore(entry.id());
+                String extension = entry.path().endsWith(".jpg") ? "jpg" : "png";
+                String name = (entry.test() + "-" + entry.capturedAt()).replaceAll("[^A-Za-z0-9._-]", "_");
+                Files.write(target.resolve(name + "." + extension), image);
+                restored++;
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Cannot restore screenshot " + entry.id(), e);
+            }
+        }
+        logger.info("Restored " + restored + " screenshots into " + target.toAbsolutePath());
+    }
+
+    /**
+     * Re-encodes a restored capture for the requested extension; restored deltas are PNG.
+     */
+    private static byte[] encode(byte[] image, String extension) throws IOException {
+        if (!"jpg".equals(extension)) return image;
+        Raster raster = Raster.decode(image);
+        if (raster == null) throw new IOException("Unreadable restored capture");
+        BufferedImage rgb = new BufferedImage(raster.width(), raster.height(), BufferedImage.TYPE_INT_RGB);
+        rgb.setRGB(0, 0, raster.width(), raster.height(), raster.pixels(), 0, raster.width());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(rgb, "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the capture as a delta against the recent base it differs least from.
+     *
+     * @return the delta, or {@code null} if no base is close enough or the delta is not smaller than the capture
+     */
+    private static Delta smallestDelta(Raster raster, int imageLength) throws IOException {
+        String bestBase = null;
+        int[] bestTiles = null;
+        int total = tileCount(raster.width(), raster.height());
+        for (Map.Entry<String, Raster> base : bases.entrySet()) {
+            if (base.getValue().width() != raster.width() || base.getValue().height() != raster.height()) continue;
+            int[] changed = changedTiles(base.getValue(), raster);
+            if (changed.length <= total * maxChangedRatio && (bestTiles == null || changed.length < bestTiles.length)) {
+                bestBase = base.getKey();
+                bestTiles = changed;
+            }
+        }
+        if (bestBase == null) return null;
+        bases.get(bestBase); // keeps a base that is still matched from being evicted
+        byte[] delta = encodeDelta(bestBase, raster, bestTiles);
+        return delta.length < imageLength ? new Delta(bestBase, delta) : null;
+    }
+
+    private static int tileCount(int width, int height) {
+        return ((width + tileSize - 1) / tileSize) * ((height + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Returns the indexes of the tiles, row-major, whose pixels differ between two images of the same size.
+     */
+    private static int[] changedTiles(Raster base, Raster image) {
+        int width = image.width();
+        int height = image.height();
+        int columns = (width + tileSize - 1) / tileSize;
+        int[] changed = new int[tileCount(width, height)];
+        int count = 0;
+        for (int tile = 0; tile < changed.length; tile++) {
+            int x0 = (tile % columns) * tileSize;
+            int y0 = (tile / columns) * tileSize;
+            int x1 = Math.min(x0 + tileSize, width);
+            for (int y = y0; y < Math.min(y0 + tileSize, height); y++) {
+                int row = y * width;
+                if (!Arrays.equals(base.pixels(), row + x0, row + x1, image.pixels(), row + x0, row + x1)) {
+                    changed[count++] = tile;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(changed, count);
+    }
+
+    private static byte[] encodeDelta(String base, Raster image, int[] tiles) throws IOException {
+        int width = image.width();
+        int height = image.height();
+        int columns = (width + tileSize - 1) / tileSize;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(DELTA_MAGIC);
+            out.writeUTF(base);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(tileSize);
+            out.writeInt(tiles.length);
+            for (int tile : tiles) {
+                out.writeInt(tile);
+                int x0 = (tile % columns) * tileSize;
+                int y0 = (tile / columns) * tileSize;
+                int x1 = Math.min(x0 + tileSize, width);
+                for (int y = y0; y < Math.min(y0 + tileSize, height); y++) {
+                    for (int x = x0; x < x1; x++) {
+                        out.writeInt(image.pixels()[y * width + x]);
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void addBase(String blobName, Raster raster) {
+        bases.put(blobName, raster);
+        Iterator<String> eldest = bases.keySet().iterator();
+        while (bases.size() > maxBases && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    private static String relative(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static List<Entry> index() {
+        synchronized (ScreenshotStore.class) {
+            if (index == null) {
+                index = new ArrayList<>();
+                Path file = indexFile();
+                if (Files.exists(file)) {
+                    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        List<Entry> loaded = gson.fromJson(reader, new TypeToken<List<Entry>>() { }.getType());
+                        if (loaded != null) index.addAll(loaded);
+                    } catch (IOException | JsonParseException e) {
+                        logger.log(Level.WARNING, "Ignoring unreadable screenshot index: " + file, e);
+                    }
+                }
+            }
+            return index;
+        }
+    }
+
+    /** How a capture is stored. */
+    public enum Kind {
+        /** full image, usable as a delta base */
+        blob,
+        /** changed tiles against a full image */
+        delta,
+        /** same bytes as an already stored capture */
+        duplicate
+    }
+
+    /**
+     * One capture in the index.
+     *
+     * @param test          the test the capture belongs to
+     * @param capturedAt    when the capture was stored, ISO-8601
+     * @param id            the content address of the capture
+     * @param kind          how the capture is stored
+     * @param path          the stored file, relative to the store root
+     * @param base          the full image a delta applies to, relative to {@code blobs/}
+     * @param originalBytes the size of the capture
+     * @param storedBytes   bytes written to disk for this capture
+     */
+    public record Entry(String test, String capturedAt, String id, Kind kind, String path, String base,
+                        long originalBytes, long storedBytes) {
+    }
+
+    /**
+     * Store totals of one run.
+     *
+     * @param captures      captures stored
+     * @param blobs         captures written as full images
+     * @param deltas        captures written as tile deltas
+     * @param duplicates    captures whose bytes were already stored
+     * @param originalBytes total size of the captures
+     * @param bytesWritten  bytes actually written
+     */
+    public record Summary(long captures, long blobs, long deltas, long duplicates, long originalBytes, long bytesWritten) {
+
+        /** @return bytes not written thanks to deduplication and deltas */
+        public long bytesSaved() {
+            return originalBytes - bytesWritten;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Screenshot store: captures=%d (blobs=%d, deltas=%d, duplicates=%d), written=%dKB, saved=%dKB of %dKB",
+                    captures, blobs, deltas, duplicates, bytesWritten / 1024, bytesSaved() / 1024, originalBytes / 1024);
+        }
+    }
+
+    /** Encoded changed tiles of a capture and the full image they apply to. */
+    private record Delta(String base, byte[] bytes) {
+    }
+}
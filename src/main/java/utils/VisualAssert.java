@@ -0,0 +1,172 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Visual assertions: compares a screenshot of the current viewport with a stored baseline image.
+ * <p>
+ * The capture and the baseline are decoded into {@link Raster rasters} and compared by {@link VisualDiff},
+ * tile by tile in parallel, stopping as soon as more pixels differ than the budget allows. Elements that change
+ * between runs (ads, results, timestamps) are excluded by passing their locators as ignore regions; their
+ * bounding boxes are measured in the page and scaled by the device pixel ratio. A diff image is drawn, written
+ * and attached to Allure only when the comparison fails.
+ * </p>
+ * <p>
+ * A missing baseline fails the comparison, with the capture written next to the diffs for review.
+ * {@code visual.updateBaselines=true} (or {@code -Dvisual.updateBaselines=true}) creates missing baselines and
+ * overwrites existing ones with the current captures, attaching each written baseline to Allure.
+ * </p>
+ * Configuration keys (config.properties):
+ * <ul>
+ *     <li>{@code visual.baselineDir} - directory of the baseline PNGs, one per baseline name</li>
+ *     <li>{@code visual.diffDir} - directory the diff and actual images of failed comparisons are written to</li>
+ *     <li>{@code visual.maxDiffRatio} - fraction of the pixels allowed to differ, e.g. {@code 0.001}</li>
+ *     <li>{@code visual.channelTolerance} - largest color channel difference still counted as equal (0-255)</li>
+ *     <li>{@code visual.tileSize} - tile edge in pixels</li>
+ *     <li>{@code visual.updateBaselines} - replace baselines with the current captures</li>
+ * </ul>
+ */
+public class VisualAssert {
+    private static final Logger logger = Logger.getLogger(VisualAssert.class.getName());
+
+    private static final Path baselineDir = Paths.get(ConfigReader.getProperty("visual.baselineDir", "src/test/resources/baselines"));
+    private static final Path diffDir = Paths.get(ConfigReader.getProperty("visual.diffDir", "test-output/visual-diffs"));
+    private static final double maxDiffRatio = ConfigReader.getDoubleProperty("visual.maxDiffRatio", 0.001);
+    private static final int channelTolerance = ConfigReader.getIntProperty("visual.channelTolerance", 0);
+    private static final int tileSize = ConfigReader.getIntProperty("visual.tileSize", 64);
+    private static final boolean updateBaselines = Boolean.getBoolean("visual.updateBaselines")
+            || ConfigReader.getBooleanProperty("visual.updateBaselines", false);
+
+    private static final String BOUNDS_SCRIPT =
+            "return arguments[0].map(function (e) { var r = e.getBoundingClientRect();"
+                    + " return [r.left, r.top, r.width, r.height]; }).concat([[window.devicePixelRatio || 1]]);";
+
+    private VisualAssert() {
+    }
+
+    /**
+     * Captures the viewport and compares it with the named baseline.
+     *
+     * @param driver       the WebDriver instance used to take the screenshot
+     * @param baselineName the baseline file name without extension
+     * @param ignore       locators of elements whose area is not compared
+     * @return the comparison result; a passed result when the baseline was just written
+     * @throws IllegalStateException if the baseline does not exist and {@code visual.updateBaselines} is not set
+     * @throws RuntimeException      if the capture or the baseline cannot be read or written
+     */
+    public static VisualDiff.Result compare(WebDriver driver, String baselineName, List<By> ignore) {
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        Path baselineFile = baselineDir.resolve(baselineName + ".png");
+        try {
+            Raster actual = Raster.decode(png);
+            if (actual == null) {
+                throw new IllegalStateException("Screenshot is not a readable image");
+            }
+            if (updateBaselines) {
+                Files.createDirectories(baselineDir);
+                Files.write(baselineFile, png);
+                logger.warning("Baseline " + baselineName + " written to " + baselineFile.toAbsolutePath()
+                        + "; review it before relying on it.");
+                if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+                    Allure.addAttachment("Baseline created " + baselineName, "image/png", new ByteArrayInputStream(png), ".png");
+                }
+                return new VisualDiff.Result(actual.width(), actual.height(), 0, 0, 0, true, null);
+            }
+            if (!Files.exists(baselineFile)) {
+                Files.createDirectories(diffDir);
+                Path capture = diffDir.resolve(baselineName + "-actual.png");
+                Files.write(capture, png);
+                throw new IllegalStateException("No baseline " + baselineFile.toAbsolutePath() + "; the capture is written to "
+                        + capture.toAbsolutePath() + ", run with -Dvisual.updateBaselines=true to accept it");
+            }
+            Raster baseline = Raster.decode(Files.readAllBytes(baselineFile));
+            if (baseline == null) {
+                throw new IllegalStateException("Baseline is not a readable image: " + baselineFile);
+            }
+            List<Rectangle> regions = ignoreRegions(driver, ignore);
+            long budget = (long) Math.floor((long) actual.width() * actual.height() * maxDiffRatio);
+            VisualDiff.Result result = VisualDiff.compare(baseline, actual, regions, tileSize, channelTolerance, budget);
+            if (!result.passed()) {
+                reportFailure(baselineName, baseline, actual, regions, png);
+            }
+            logger.info("Visual comparison " + baselineName + ": " + result);
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Visual comparison " + baselineName + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Captures the viewport and asserts that it matches the named baseline.
+     *
+     * @param driver       the WebDriver instance used to take the screenshot
+     * @param baselineName the baseline file name without extension
+     * @param ignore       locators of elements whose area is not compared
+     * @throws AssertionError if more pixels differ than {@code visual.maxDiffRatio} allows
+     */
+    public static void assertMatchesBaseline(WebDriver driver, String baselineName, List<By> ignore) {
+        VisualDiff.Result result = compare(driver, baselineName, ignore);
+        if (!result.passed()) {
+            throw new AssertionError("Screenshot does not match baseline " + baselineName + ": " + result
+                    + "; diff written to " + diffDir.resolve(baselineName + "-diff.png").toAbsolutePath());
+        }
+    }
+
+    /**
+     * Measures the bounding boxes of the ignored elements in one script call, in screenshot pixels.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Rectangle> ignoreRegions(WebDriver driver, List<By> ignore) {
+        List<WebElement> elements = new ArrayList<>();
+        for (By by : ignore) {
+            elements.addAll(driver.findElements(by));
+        }
+        List<Rectangle> regions = new ArrayList<>();
+        if (elements.isEmpty()) return regions;
+        List<List<Number>> boxes = (List<List<Number>>) ((JavascriptExecutor) driver).executeScript(BOUNDS_SCRIPT, elements);
+        double ratio = boxes.get(boxes.size() - 1).get(0).doubleValue();
+        for (List<Number> box : boxes.subList(0, boxes.size() - 1)) {
+            int x = (int) Math.floor(box.get(0).doubleValue() * ratio);
+            int y = (int) Math.floor(box.get(1).doubleValue() * ratio);
+            int right = (int) Math.ceil((box.get(0).doubleValue() + box.get(2).doubleValue()) * ratio);
+            int bottom = (int) Math.ceil((box.get(1).doubleValue() + box.get(3).doubleValue()) * ratio);
+            if (right > x && bottom > y) regions.add(new Rectangle(x, y, right - x, bottom - y));
+        }
+        return regions;
+    }
+
+    /**
+     * Writes the diff and actual images of a failed comparison and attaches the diff to the current Allure test.
+     */
+    private static void reportFailure(String baselineName, Raster baseline, Raster actual, List<Rectangle> regions, byte[] png) {
+        try {
+            Files.createDirectories(diffDir);
+            Files.write(diffDir.resolve(baselineName + "-actual.png"), png);
+            if (baseline.width() != actual.width() || baseline.height() != actual.height()) return;
+            byte[] diff = VisualDiff.diffImage(baseline, actual, regions, channelTolerance).toPng();
+            Files.write(diffDir.resolve(baselineName + "-diff.png"), diff);
+            if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+                Allure.addAttachment("Visual diff " + baselineName, "image/png", new ByteArrayInputStream(diff), ".png");
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write visual diff of " + baselineName, e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package utils;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares two {@link Raster rasters} tile by tile in parallel on the common fork/join pool.
+ * <p>
+ * The image is cut into square tiles that are split recursively across the pool. Each row of a tile is
+ * first compared as a whole with {@link Arrays#equals(int[], int, int, int[], int, int)}, so identical rows
+ * cost one vectorized compare; only rows that differ are counted pixel by pixel. Differing pixels are added to
+ * a shared counter, and once it exceeds the budget the remaining tiles are skipped. Pixels inside ignore regions
+ * are never counted. The diff image is drawn separately with {@link #diffImage}, only for comparisons that failed.
+ * </p>
+ */
+public class VisualDiff {
+    private static final int TILES_PER_TASK = 8;
+
+    private final Raster baseline;
+    private final Raster actual;
+    private final List<Rectangle> ignore;
+    private final int tileSize;
+    private final int channelTolerance;
+    private final long budget;
+    private final int columns;
+    private final int tiles;
+    private final AtomicInteger changedTiles = new AtomicInteger();
+    private final AtomicLong different = new AtomicLong();
+    private final AtomicBoolean exceeded = new AtomicBoolean();
+
+    private VisualDiff(Raster baseline, Raster actual, List<Rectangle> ignore, int tileSize, int channelTolerance, long budget) {
+        this.baseline = baseline;
+        this.actual = actual;
+        this.ignore = ignore;
+        this.tileSize = tileSize;
+        this.channelTolerance = channelTolerance;
+        this.budget = budget;
+        this.columns = (actual.width() + tileSize - 1) / tileSize;
+        this.tiles = columns * ((actual.height() + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Compares a capture with its baseline.
+     *
+     * @param baseline         the expected image
+     * @param actual           the captured image
+     * @param ignore           regions, in image pixels, whose pixels are not compared
+     * @param tileSize         tile edge in pixels
+     * @param channelTolerance largest difference of any color channel that still counts as equal
+     * @param budget           differing pixels allowed; comparison stops once more are found
+     * @return the comparison result
+     */
+    public static Result compare(Raster baseline, Raster actual, List<Rectangle> ignore, int tileSize,
+                                 int channelTolerance, long budget) {
+        if (baseline.width() != actual.width() || baseline.height() != actual.height()) {
+            return new Result(actual.width(), actual.height(), (long) actual.width() * actual.height(), budget,
+                    0, false, String.format("size %dx%d differs from baseline %dx%d",
+                    actual.width(), actual.height(), baseline.width(), baseline.height()));
+        }
+        VisualDiff diff = new VisualDiff(baseline, actual, List.copyOf(ignore), Math.max(8, tileSize), Math.max(0, channelTolerance), budget);
+        ForkJoinPool.commonPool().invoke(diff.new TileTask(0, diff.tiles));
+        long count = diff.different.get();
+        return new Result(actual.width(), actual.height(), count, budget, diff.changedTiles.get(), !diff.exceeded.get(),
+                count > budget ? count + " pixels differ, budget " + budget : null);
+    }
+
+    /**
+     * Draws the faded baseline with every differing pixel in red and the ignored regions in blue.
+     *
+     * @param baseline         the expected image
+     * @param actual           the captured image, of the same size
+     * @param ignore           regions, in image pixels, that were not compared
+     * @param channelTolerance largest difference of any color channel that still counts as equal
+     * @return the diff image
+     * @throws IllegalArgumentException if the images differ in size
+     */
+    public static Raster diffImage(Raster baseline, Raster actual, List<Rectangle> ignore, int channelTolerance) {
+        if (baseline.width() != actual.width() || baseline.height() != actual.height()) {
+            throw new IllegalArgumentException("Cannot overlay images of different sizes");
+        }
+        return new VisualDiff(baseline, actual, List.copyOf(ignore), 8, Math.max(0, channelTolerance), 0).drawDiff();
+    }
+
+    private Raster drawDiff() {
+        int width = actual.width();
+        int[] out = new int[baseline.pixels().length];
+        for (int i = 0; i < out.length; i++) {
+            int p = baseline.pixels()[i];
+            int gray = (((p >> 16) & 0xFF) + ((p >> 8) & 0xFF) + (p & 0xFF)) / 3;
+            int faded = 160 + gray * 95 / 255;
+            out[i] = 0xFF000000 | faded << 16 | faded << 8 | faded;
+        }
+        for (Rectangle region : ignore) {
+            Rectangle clipped = region.intersection(new Rectangle(0, 0, width, actual.height()));
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                for (int x = clipped.x; x < clipped.x + clipped.width; x++) {
+                    out[y * width + x] = 0xFFB0C8FF;
+                }
+            }
+        }
+        for (int i = 0; i < out.length; i++) {
+            if (differs(baseline.pixels()[i], actual.pixels()[i]) && !ignored(ignore, i % width, i / width)) out[i] = 0xFFFF0000;
+        }
+        return new Raster(width, actual.height(), out);
+    }
+
+    private Rectangle tileBounds(int tile) {
+        int x = (tile % columns) * tileSize;
+        int y = (tile / columns) * tileSize;
+        return new Rectangle(x, y, Math.min(tileSize, actual.width() - x), Math.min(tileSize, actual.height() - y));
+    }
+
+    private long compareTile(int tile) {
+        Rectangle bounds = tileBounds(tile);
+        List<Rectangle> regions = new ArrayList<>();
+        for (Rectangle region : ignore) {
+            if (region.intersects(bounds)) regions.add(region);
+        }
+        int width = actual.width();
+        int[] expected = baseline.pixels();
+        int[] pixels = actual.pixels();
+        long count = 0;
+        for (int y = bounds.y; y < bounds.y + bounds.height; y++) {
+            int from = y * width + bounds.x;
+            int to = from + bounds.width;
+            if (Arrays.equals(expected, from, to, pixels, from, to)) continue;
+            for (int i = from; i < to; i++) {
+                if (expected[i] != pixels[i] && differs(expected[i], pixels[i])
+                        && (regions.isEmpty() || !ignored(regions, i - y * width, y))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean differs(int expected, int pixel) {
+        if (expected == pixel) return false;
+        if (channelTolerance == 0) return true;
+        for (int shift = 0; shift < 32; shift += 8) {
+            if (Math.abs(((expected >> shift) & 0xFF) - ((pixel >> shift) & 0xFF)) > channelTolerance) return true;
+        }
+        return false;
+    }
+
+    private static boolean ignored(List<Rectangle> regions, int x, int y) {
+        for (Rectangle region : regions) {
+            if (region.contains(x, y)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compares a range of tiles, splitting it while it is larger than {@link #TILES_PER_TASK}.
+     */
+    @SuppressWarnings("serial")
+    private final class TileTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TILES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(from, middle), new TileTask(middle, to));
+                return;
+            }
+            for (int tile = from; tile < to && !exceeded.get(); tile++) {
+                long count = compareTile(tile);
+                if (count == 0) continue;
+                changedTiles.incrementAndGet();
+                if (different.addAndGet(count) > budget) exceeded.set(true);
+            }
+        }
+    }
+
+    /**
+     * Outcome of one comparison.
+     *
+     * @param width             the compared width in pixels
+     * @param height            the compared height in pixels
+     * @param differentPixels   differing pixels found; a lower bound when the comparison stopped early
+     * @param budget            differing pixels allowed
+     * @param changedTiles      tiles with at least one differing pixel
+     * @param complete          whether every tile was compared, i.e. the budget was not exceeded
+     * @param failure           why the comparison failed, or {@code null} if it passed
+     */
+    public record Result(int width, int height, long differentPixels, long budget, int changedTiles,
+                         boolean complete, String failure) {
+
+        /** @return whether the capture matches the baseline within the budget */
+        public boolean passed() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%dx%d: %s%d differing pixels in %d tiles (budget %d)%s",
+                    width, height, complete ? "" : "at least ", differentPixels, changedTiles, budget,
+                    failure == null ? "" : " - " + failure);
+        }
+    }
+}
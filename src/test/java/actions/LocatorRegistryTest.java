@@ -0,0 +1,63 @@
+package actions;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the selector syntax checks of {@link LocatorRegistry}; no browser is started.
+ */
+public class LocatorRegistryTest {
+
+    @DataProvider(name = "validSelectors")
+    public Object[][] validSelectors() {
+        return new Object[][]{
+                {UIActions.LocatorType.xpath, "//li[@class='b_algo']//h2/a"},
+                {UIActions.LocatorType.xpath, "(//a[contains(text(), 'Next')])[1]"},
+                {UIActions.LocatorType.css, "#b_results > li.b_algo h2 a"},
+                {UIActions.LocatorType.css, "a[title='Next page'], a.sb_pagN"},
+                {UIActions.LocatorType.css, "li:nth-child(2n+1):not(.ad)"},
+                {UIActions.LocatorType.css, "input[value=\"a]b\"]"},
+                {UIActions.LocatorType.css, "span[data-x='it\\'s']"},
+                {UIActions.LocatorType.id, "sb_form_q"},
+                {UIActions.LocatorType.linktext, "Next (page)"},
+        };
+    }
+
+    @DataProvider(name = "invalidSelectors")
+    public Object[][] invalidSelectors() {
+        return new Object[][]{
+                {UIActions.LocatorType.xpath, "//li[@class='b_algo'", "invalid XPath"},
+                {UIActions.LocatorType.xpath, "//a[", "invalid XPath"},
+                {UIActions.LocatorType.css, "a[title='Next'", "unclosed '['"},
+                {UIActions.LocatorType.css, "li:not(.ad", "unclosed '('"},
+                {UIActions.LocatorType.css, "a]", "unbalanced ']'"},
+                {UIActions.LocatorType.css, "li:not(.ad])", "unbalanced ']'"},
+                {UIActions.LocatorType.css, "a[title='Next]", "unterminated string"},
+                {UIActions.LocatorType.css, "ul >", "dangling combinator"},
+                {UIActions.LocatorType.css, "h2 +", "dangling combinator"},
+                {UIActions.LocatorType.css, ", a", "dangling combinator"},
+                {UIActions.LocatorType.css, "a,", "dangling combinator"},
+                {UIActions.LocatorType.id, " ", "selector is missing"},
+                {UIActions.LocatorType.css, null, "selector is missing"},
+        };
+    }
+
+    @Test(dataProvider = "validSelectors")
+    public void acceptsValidSelectors(UIActions.LocatorType type, String selector) {
+        Assert.assertNull(LocatorRegistry.validate(type, selector), type + " " + selector);
+    }
+
+    @Test(dataProvider = "invalidSelectors")
+    public void reportsInvalidSelectors(UIActions.LocatorType type, String selector, String problem) {
+        String reported = LocatorRegistry.validate(type, selector);
+        Assert.assertNotNull(reported, type + " " + selector + " was accepted");
+        Assert.assertTrue(reported.startsWith(problem), "Expected '" + problem + "' but got: " + reported);
+    }
+
+    @Test
+    public void everyConfiguredLocatorIsRegistered() {
+        Assert.assertFalse(LocatorRegistry.all().isEmpty(), "No locators loaded from config.properties");
+        LocatorRegistry.all().forEach((key, locator) -> Assert.assertEquals(locator.key(), key));
+    }
+}
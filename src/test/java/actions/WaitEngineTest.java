@@ -0,0 +1,53 @@
+package actions;
+
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the plain-timeout polling of {@link WaitEngine} and its {@code domStable} polling probe;
+ * the probes do not touch the driver.
+ */
+public class WaitEngineTest {
+
+    @Test
+    public void returnsTheFirstNonNullResult() {
+        AtomicInteger polls = new AtomicInteger();
+        String result = new WaitEngine(null).until(() -> polls.incrementAndGet() < 3 ? null : "ready",
+                Duration.ofSeconds(5), "third poll");
+        Assert.assertEquals(result, "ready");
+        Assert.assertEquals(polls.get(), 3);
+    }
+
+    @Test
+    public void timeoutNamesOnlyWhatWasWaitedFor() {
+        TimeoutException timeout = Assert.expectThrows(TimeoutException.class,
+                () -> new WaitEngine(null).until(() -> null, Duration.ofMillis(100), "document.readyState=complete"));
+        Assert.assertTrue(timeout.getMessage().startsWith("Expected condition failed: waiting for document.readyState=complete"),
+                timeout.getMessage());
+        for (UIActions.ExplicitWaitCondition condition : UIActions.ExplicitWaitCondition.values()) {
+            Assert.assertFalse(timeout.getMessage().contains(condition.name()), timeout.getMessage());
+        }
+    }
+
+    @Test
+    public void quietProbeWaitsForAnUnchangedSignature() {
+        AtomicInteger polls = new AtomicInteger();
+        long start = System.nanoTime();
+        Object result = new WaitEngine(null).until(WaitEngine.quietProbe(() -> Math.min(polls.incrementAndGet(), 3), 100),
+                Duration.ofSeconds(5), "a quiet DOM");
+        Assert.assertEquals(result, Boolean.TRUE);
+        Assert.assertTrue(polls.get() > 3, "stable after " + polls.get() + " polls");
+        Assert.assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos(), "the signature was not quiet long enough");
+    }
+
+    @Test
+    public void quietProbeTimesOutWhileTheSignatureChanges() {
+        AtomicInteger polls = new AtomicInteger();
+        Assert.expectThrows(TimeoutException.class, () -> new WaitEngine(null)
+                .until(WaitEngine.quietProbe(polls::incrementAndGet, 50), Duration.ofMillis(300), "a quiet DOM"));
+    }
+}
@@ -1,10 +1,12 @@
 package baseTest;
 
 import actions.BrowserActions;
+import actions.WaitEngine;
+import org.testng.Reporter;
 import org.testng.annotations.*;
 import utils.ConfigReader;
 /**
- * BaseTest class that sets up and tears down WebDriver instances for tests.
+ * BaseTest class that leases and releases pooled WebDriver sessions for tests.
  * All test classes should extend this class to inherit browser initialization and cleanup.
  */
 public class BaseTest {
@@ -24,26 +26,53 @@ public class BaseTest {
      @BeforeClass
      @Parameters({"browser"})
          public void setup(@Optional("") String browserParam) {
-             String browserName = System.getProperty("browser");
+             BrowserActions.acquireDriver(resolveBrowser(browserParam));
+         }
 
-             if (browserName == null || browserName.isEmpty()) {
-                 browserName = browserParam;
-             }
+    /**
+     * Resolves the browser to use: system property "browser", then the TestNG parameter,
+     * then "default.browser" from the configuration snapshot, parsed once per snapshot.
+     *
+     * @param browserParam optional TestNG parameter specifying the browser to use
+     * @return the browser type to launch
+     * @throws IllegalArgumentException if the browser name or {@code default.browser} names no supported browser
+     */
+    public static BrowserActions.Browsers resolveBrowser(String browserParam) {
+        String browserName = System.getProperty("browser");
 
-             if (browserName == null || browserName.isEmpty()) {
-                 browserName = ConfigReader.getProperty("default.browser");
-             }
+        if (browserName == null || browserName.isEmpty()) {
+            browserName = browserParam;
+        }
 
-             BrowserActions.setWebDriver(BrowserActions.Browsers.valueOf(browserName.toUpperCase()));
-         }
+        if (browserName == null || browserName.isEmpty()) {
+            BrowserActions.Browsers configured = ConfigReader.getEnumProperty("default.browser", BrowserActions.Browsers.class, null);
+            if (configured == null) {
+                throw new IllegalArgumentException("No browser given and default.browser is not set");
+            }
+            return configured;
+        }
+
+        return BrowserActions.Browsers.valueOf(browserName.toUpperCase());
+    }
     /**
-     * Quits the WebDriver after all tests in the class have finished.
+     * Reports the class's wait/act counters and releases the WebDriver back to the
+     * session pool after all tests in the class have finished.
      *
-     * @throws InterruptedException if thread interruption occurs while quitting the driver
+     * @throws InterruptedException if thread interruption occurs while releasing the driver
      */
     @AfterClass
     public void tierDown() throws InterruptedException {
-        BrowserActions.quitDriver();
+        Reporter.log(getClass().getSimpleName() + " " + WaitEngine.currentStats(), true);
+        WaitEngine.resetStats();
+        BrowserActions.releaseDriver();
+    }
+
+    /**
+     * Quits all pooled browser sessions once the whole suite has finished.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownBrowsers() {
+        BrowserActions.shutdownPool();
     }
 
 }
@@ -0,0 +1,60 @@
+package baseTest;
+
+import actions.BrowserActions;
+import actions.DriverContext;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeClass;
+import utils.ScreenShot;
+
+/**
+ * Base class for tests that lease a pooled WebDriver session per test method invocation
+ * through a {@link DriverContext} scope instead of binding it to the thread.
+ * <p>
+ * The session is held only while the test method runs, so the tests can run on virtual threads
+ * ({@code execution.VirtualThreadLauncher}) and share a few browser sessions between many invocations.
+ * A failed invocation is screenshotted while its session is still bound; {@code ScreenshotListener}
+ * reports that screenshot instead of taking a new one.
+ * </p>
+ */
+public class ScopedDriverTest implements IHookable {
+
+    /** Result attribute holding the store id of the screenshot taken for a failed invocation. */
+    public static final String SCREENSHOT_ATTRIBUTE = "screenshotId";
+
+    /**
+     * Runs the test method with a leased session bound to its scope.
+     *
+     * @param callBack the TestNG callback that invokes the test method
+     * @param result   the result of the invocation
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult result) {
+        String browserParam = result.getTestContext().getCurrentXmlTest().getParameter("browser");
+        DriverContext.withLease(BaseTest.resolveBrowser(browserParam), driver -> {
+            callBack.runTestMethod(result);
+            if (result.getThrowable() != null) {
+                result.setAttribute(SCREENSHOT_ATTRIBUTE, ScreenShot.captureScreenshotAsync(driver, result.getName()));
+            }
+        });
+    }
+
+    /**
+     * Moves the browser pre-launch window past this class, as {@link BrowserActions#acquireDriver} does
+     * for classes that hold one session for the whole class.
+     */
+    @BeforeClass(alwaysRun = true)
+    public void announceClass() {
+        BrowserActions.classStarting();
+    }
+
+    /**
+     * Quits all pooled browser sessions once the whole suite has finished.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownBrowsers() {
+        BrowserActions.shutdownPool();
+    }
+}
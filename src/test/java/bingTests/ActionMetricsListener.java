@@ -0,0 +1,67 @@
+package bingTests;
+
+import actions.ElementCache;
+import actions.PagePerformance;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import utils.ActionMetrics;
+
+import java.util.logging.Logger;
+
+/**
+ * TestNG listener that attaches each test's action latency percentiles and page performance entries
+ * to its Allure result, and writes the suite-wide latency report, page performance trend and
+ * element cache statistics when the suite finishes.
+ */
+public class ActionMetricsListener implements ITestListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(ActionMetricsListener.class.getName());
+
+    /**
+     * Attaches the latency of the operations the test performed and the pages it measured.
+     *
+     * @param result the result of the passed test
+     */
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        ActionMetrics.attachToAllure();
+        PagePerformance.attachToAllure();
+    }
+
+    /**
+     * Attaches the latency of the operations the test performed and the pages it measured before failing.
+     *
+     * @param result the result of the failed test
+     */
+    @Override
+    public void onTestFailure(ITestResult result) {
+        ActionMetrics.attachToAllure();
+        PagePerformance.attachToAllure();
+    }
+
+    /**
+     * Attaches the latency of any operations performed before the test was skipped.
+     *
+     * @param result the result of the skipped test
+     */
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        ActionMetrics.attachToAllure();
+        PagePerformance.attachToAllure();
+    }
+
+    /**
+     * Writes the merged latency percentiles of the whole suite, appends this run to the
+     * page performance trend and logs how many
+     * element finds the element cache saved.
+     *
+     * @param suite the finished suite
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        ActionMetrics.writeSuiteReport();
+        PagePerformance.writeTrend();
+        logger.info(ElementCache.getTotals().toString());
+    }
+}
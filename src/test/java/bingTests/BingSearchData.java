@@ -0,0 +1,13 @@
+package bingTests;
+
+/**
+ * Typed view of "testData.json" used by {@link BingTests}.
+ *
+ * @param bingUrl                       the Bing home page URL
+ * @param searchWord                    the word to search for
+ * @param expectedRelatedSearches       expected number of "Related searches for" sections
+ * @param expectedTextInRelatedSearches text every related search item should contain
+ */
+public record BingSearchData(String bingUrl, String searchWord, int expectedRelatedSearches,
+                             String expectedTextInRelatedSearches) {
+}
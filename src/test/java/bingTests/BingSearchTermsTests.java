@@ -0,0 +1,56 @@
+package bingTests;
+
+import baseTest.ScopedDriverTest;
+import dataDriven.JsonDataReader;
+import dataDriven.JsonDataStream;
+import io.qameta.allure.Allure;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import pages.BingHomePage;
+import pages.BingSearchResults;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Data-driven Bing search test fed by a streaming, parallel data provider.
+ * <p>
+ * Rows from "searchTerms.json" are read lazily, so the dataset can grow to thousands of terms
+ * without being loaded into memory. Each invocation leases its own pooled browser session for
+ * the duration of the test method ({@link ScopedDriverTest}), because parallel data-provider rows
+ * run on different threads, or on virtual threads with {@code execution.VirtualThreadLauncher}.
+ * </p>
+ */
+public class BingSearchTermsTests extends ScopedDriverTest {
+
+    /**
+     * Streams the search terms, optionally restricted with {@code -DsearchTerms.from}/{@code -DsearchTerms.to}.
+     *
+     * @return a lazy iterator of {@link SearchTerm} rows
+     */
+    @DataProvider(name = "searchTerms", parallel = true)
+    public Iterator<Object[]> searchTerms() {
+        return JsonDataStream.of("searchTerms", SearchTerm.class)
+                .range(Long.getLong("searchTerms.from", 0), Long.getLong("searchTerms.to", Long.MAX_VALUE))
+                .filter(term -> term.searchWord() != null && !term.searchWord().isBlank());
+    }
+
+    /**
+     * Verifies that searching for each term returns at least one result.
+     *
+     * @param term the search term row
+     * @throws IOException if the Bing URL cannot be read from "testData.json"
+     */
+    @Test(dataProvider = "searchTerms")
+    public void verifySearchReturnsResults(SearchTerm term) throws IOException {
+        String bingUrl = JsonDataReader.getJsonData("testData", "bingUrl").getAsString();
+        BingHomePage bingHomePage = new BingHomePage();
+        Allure.step("search for " + term.searchWord());
+        bingHomePage.navigateToBingHomePage(bingUrl);
+        BingSearchResults bingSearchResults = bingHomePage.searchInBing(term.searchWord());
+        Assert.assertTrue(bingSearchResults.getNumberOfSearchResultsInThePage() > 0,
+                "Bug: no search results for '" + term.searchWord() + "'");
+    }
+
+}
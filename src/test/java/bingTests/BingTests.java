@@ -30,10 +30,11 @@ public class BingTests extends BaseTest {
     @Test
     public void verifyBingTestResults() throws IOException {
 //Get test data from testData.json file
-        String BingUrl=JsonDataReader.getJsonData("testData","bingUrl").getAsString();
-        String searchWord= JsonDataReader.getJsonData("testData","searchWord").getAsString();
-        int expectedRelatedSearchesSectionNumber=JsonDataReader.getJsonData("testData","expectedRelatedSearches").getAsInt();
-        String expectedTextInRelatedSearches = JsonDataReader.getJsonData("testData","expectedTextInRelatedSearches").getAsString();
+        BingSearchData testData=JsonDataReader.bind("testData",BingSearchData.class);
+        String BingUrl=testData.bingUrl();
+        String searchWord=testData.searchWord();
+        int expectedRelatedSearchesSectionNumber=testData.expectedRelatedSearches();
+        String expectedTextInRelatedSearches = testData.expectedTextInRelatedSearches();
 // Test Steps
         BingHomePage bingHomePage=new BingHomePage();
         BingSearchResults bingSearchResults;
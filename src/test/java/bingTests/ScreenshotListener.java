@@ -1,28 +1,42 @@
 package bingTests;
 
 import actions.BrowserActions;
-import io.qameta.allure.Allure;
+import baseTest.ScopedDriverTest;
+import org.openqa.selenium.WebDriver;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 import org.testng.Reporter;
+import utils.ActionLog;
 import utils.ScreenShot;
-
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import utils.ScreenshotPipeline;
 /**
- * TestNG listener that captures screenshots on test failure
- * and attaches them to Allure reports and TestNG HTML reports.
+ * TestNG listener that captures screenshots on test failure into the content-addressed screenshot store
+ * and references them in Allure reports and shows them in TestNG HTML reports,
+ * together with the test's buffered {@link ActionLog}.
  */
 
-public class ScreenshotListener implements ITestListener {
+public class ScreenshotListener implements ITestListener, ISuiteListener {
+
 
+    /**
+     * Called when a test starts.
+     * Discards actions buffered on this thread by earlier tests.
+     *
+     * @param result the result of the starting test
+     */
+    @Override
+    public void onTestStart(ITestResult result) {
+        ActionLog.clear();
+    }
 
     /**
      * Called when a test fails.
-     * Captures a screenshot, attaches it to Allure, and logs it in TestNG reporter.
+     * Writes the test's last actions to the log and Allure, captures a screenshot, queues it for the store
+     * and Allure, and logs it in TestNG reporter.
+     * Tests with a scoped driver ({@link ScopedDriverTest}) have already been screenshotted
+     * before their session was released, so only the existing screenshot is logged.
      *
      * @param result the result of the failed test
      */
@@ -30,40 +44,37 @@ public class ScreenshotListener implements ITestListener {
     public void onTestFailure(ITestResult result) {
 
         String testName = result.getName();
+        ActionLog.dumpToLogAndAllure(testName);
 
-        String screenshotPath = ScreenShot.captureScreenshot(BrowserActions.getDriver(), testName);
-        if (screenshotPath != null) {
-            try {
-                attachScreenshotToAllure(screenshotPath);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        String screenshotId = (String) result.getAttribute(ScopedDriverTest.SCREENSHOT_ATTRIBUTE);
+        if (screenshotId == null) {
+            WebDriver driver = BrowserActions.getDriver();
+            if (driver == null) {
+                return;
             }
-            logScreenshotToReporter(screenshotPath);
-
+            screenshotId = ScreenShot.captureScreenshotAsync(driver, testName);
         }
+        logScreenshotToReporter(screenshotId);
     }
+
     /**
-     * Attaches a screenshot file to the Allure report.
+     * Called when the suite finishes.
+     * Waits for screenshots still being written in the background and writes the store index.
      *
-     * @param screenshotPath relative path to the screenshot file
-     * @throws IOException if the screenshot file cannot be read
+     * @param suite the finished suite
      */
-
-    public void attachScreenshotToAllure(String screenshotPath) throws IOException {
-
-        Path fullPath = Paths.get(System.getProperty("user.dir")).resolve(screenshotPath);
-        byte[] screenshotBytes = Files.readAllBytes(fullPath);
-        Allure.addAttachment("Screenshot for failed test","image/png", new ByteArrayInputStream(screenshotBytes),".png");
-
-
+    @Override
+    public void onFinish(ISuite suite) {
+        ScreenshotPipeline.flush();
     }
+
     /**
-     * Logs the screenshot to TestNG reporter as an HTML <img> tag.
+     * Logs the screenshot to TestNG reporter as an HTML <img> tag showing its viewable copy.
      *
-     * @param screenshotPath relative path to the screenshot file
+     * @param screenshotId the screenshot's content address in the store
      */
-    private void logScreenshotToReporter(String screenshotPath) {
-        String relativePath = screenshotPath.replace("test-output/", "");
+    private void logScreenshotToReporter(String screenshotId) {
+        String relativePath = ScreenshotPipeline.requestView(screenshotId).toString().replace('\\', '/').replace("test-output/", "");
         String imgTag = "<a href='./" + relativePath + "' target='_blank'>"
                 + "<img src='" + relativePath + "' height='400' width='300'/></a>";
         Reporter.log("Screenshot for failed test: <br>" + imgTag, true);
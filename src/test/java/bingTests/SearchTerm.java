@@ -0,0 +1,9 @@
+package bingTests;
+
+/**
+ * One row of "searchTerms.json" used by {@link BingSearchTermsTests}.
+ *
+ * @param searchWord the word to search for
+ */
+public record SearchTerm(String searchWord) {
+}
@@ -0,0 +1,78 @@
+package bingTests;
+
+import actions.BrowserActions;
+import actions.DriverFactory;
+import actions.NetworkProfiles;
+import baseTest.BaseTest;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * TestNG suite listener that starts resolving driver binaries and browser options
+ * for every browser planned in the suite while TestNG is still wiring the tests,
+ * hands the planned class and browser order to the look-ahead pre-launcher,
+ * and logs the startup timings and network profile savings once the suite finishes.
+ */
+public class WarmupListener implements ISuiteListener {
+    private static final Logger logger = Logger.getLogger(WarmupListener.class.getName());
+    private final Set<BrowserActions.Browsers> plannedBrowsers = EnumSet.noneOf(BrowserActions.Browsers.class);
+
+    /**
+     * Collects the browsers used by the suite's tests, pre-warms them in the background
+     * and starts pre-launching sessions for the first test classes.
+     *
+     * @param suite the suite that is about to run
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        List<List<BrowserActions.Browsers>> perTest = new ArrayList<>();
+        for (XmlTest test : suite.getXmlSuite().getTests()) {
+            BrowserActions.Browsers planned = BaseTest.resolveBrowser(test.getParameter("browser"));
+            plannedBrowsers.add(planned);
+            perTest.add(Collections.nCopies(test.getXmlClasses().size(), planned));
+        }
+        List<BrowserActions.Browsers> plannedOrder = suite.getXmlSuite().getParallel() == XmlSuite.ParallelMode.TESTS
+                ? interleave(perTest)
+                : perTest.stream().flatMap(List::stream).toList();
+        logger.info("Pre-warming browsers: " + plannedBrowsers);
+        DriverFactory.prewarm(plannedBrowsers);
+        BrowserActions.prelaunch(plannedOrder);
+    }
+
+    /**
+     * Orders the classes of tests that run in parallel by when they start: the first class of every test,
+     * then the second class of every test, and so on, since each test runs its own classes one after another.
+     */
+    private static List<BrowserActions.Browsers> interleave(List<List<BrowserActions.Browsers>> perTest) {
+        List<BrowserActions.Browsers> order = new ArrayList<>();
+        for (int position = 0; order.size() < perTest.stream().mapToInt(List::size).sum(); position++) {
+            for (List<BrowserActions.Browsers> classes : perTest) {
+                if (position < classes.size()) order.add(classes.get(position));
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Logs the accumulated startup timings of each browser used by the suite and
+     * writes the network profile report.
+     *
+     * @param suite the suite that finished
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        for (BrowserActions.Browsers browser : plannedBrowsers) {
+            logger.info(DriverFactory.getStartupSummary(browser));
+        }
+        NetworkProfiles.writeReport();
+    }
+}
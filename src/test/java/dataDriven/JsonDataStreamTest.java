@@ -0,0 +1,87 @@
+package dataDriven;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for the range, shard and filter options of {@link JsonDataStream}, streaming "streamRows.json"
+ * (ten rows with ids 0 to 9; rows 2 and 6 have a blank word).
+ */
+public class JsonDataStreamTest {
+
+    record Row(int id, String word) {
+    }
+
+    @Test
+    public void streamsEveryRowInOrder() {
+        Assert.assertEquals(ids(JsonDataStream.of("streamRows", Row.class)), IntStream.range(0, 10).boxed().toList());
+    }
+
+    @Test
+    public void rangeIsHalfOpen() {
+        Assert.assertEquals(ids(JsonDataStream.of("streamRows", Row.class).range(3, 6)), List.of(3, 4, 5));
+        Assert.assertEquals(ids(JsonDataStream.of("streamRows", Row.class).range(8, Long.MAX_VALUE)), List.of(8, 9));
+        Assert.assertEquals(ids(JsonDataStream.of("streamRows", Row.class).range(4, 4)), List.of());
+    }
+
+    @Test
+    public void shardsPartitionTheRows() {
+        List<Integer> all = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<Integer> ids = ids(JsonDataStream.of("streamRows", Row.class).shard(shard, 3));
+            for (int id : ids) {
+                Assert.assertEquals(id % 3, shard, "row " + id + " in shard " + shard);
+            }
+            all.addAll(ids);
+        }
+        all.sort(null);
+        Assert.assertEquals(all, IntStream.range(0, 10).boxed().toList());
+    }
+
+    @Test
+    public void shardCountsIndexesWithinTheWholeFile() {
+        // shard membership is decided by the element index, not by the position inside the range
+        Assert.assertEquals(ids(JsonDataStream.of("streamRows", Row.class).range(3, 9).shard(1, 2)), List.of(3, 5, 7));
+    }
+
+    @Test
+    public void filterAppliesAfterRangeAndShard() {
+        JsonDataStream<Row> stream = JsonDataStream.of("streamRows", Row.class)
+                .range(1, 10)
+                .shard(0, 2)
+                .filter(row -> !row.word().isBlank());
+        Assert.assertEquals(ids(stream), List.of(4, 8));
+    }
+
+    @Test
+    public void exhaustedStreamThrowsOnNext() {
+        JsonDataStream<Row> stream = JsonDataStream.of("streamRows", Row.class).range(0, 1);
+        Assert.assertTrue(stream.hasNext());
+        Assert.assertEquals(((Row) stream.next()[0]).id(), 0);
+        Assert.assertFalse(stream.hasNext());
+        Assert.assertThrows(NoSuchElementException.class, stream::next);
+    }
+
+    @Test
+    public void rejectsInvalidOptions() {
+        JsonDataStream<Row> stream = JsonDataStream.of("streamRows", Row.class);
+        Assert.assertThrows(IllegalArgumentException.class, () -> stream.range(-1, 5));
+        Assert.assertThrows(IllegalArgumentException.class, () -> stream.range(5, 4));
+        Assert.assertThrows(IllegalArgumentException.class, () -> stream.shard(2, 2));
+        Assert.assertThrows(IllegalArgumentException.class, () -> stream.shard(0, 0));
+        stream.close();
+    }
+
+    private static List<Integer> ids(JsonDataStream<Row> stream) {
+        List<Integer> ids = new ArrayList<>();
+        while (stream.hasNext()) {
+            ids.add(((Row) stream.next()[0]).id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,88 @@
+package execution;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the exponential smoothing and persistence of {@link DurationHistory}.
+ */
+public class DurationHistoryTest {
+    private Path file;
+
+    @BeforeMethod
+    public void createFile() throws IOException {
+        file = Files.createTempFile("durations", ".json");
+        Files.delete(file);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void firstMeasurementIsTheEstimate() {
+        DurationHistory history = DurationHistory.load(file);
+        Assert.assertEquals(history.estimate("unit", 42), 42);
+        history.record("unit", 1000);
+        Assert.assertEquals(history.estimate("unit", 42), 1000);
+    }
+
+    @Test
+    public void laterMeasurementsAreSmoothed() {
+        DurationHistory history = DurationHistory.load(file);
+        history.record("unit", 1000);
+        history.record("unit", 2000);
+        Assert.assertEquals(history.estimate("unit", 0), 1500);
+        history.record("unit", 500);
+        Assert.assertEquals(history.estimate("unit", 0), 1000);
+        history.record("unit", 1000);
+        Assert.assertEquals(history.estimate("unit", 0), 1000);
+    }
+
+    @Test
+    public void meanEstimateAveragesRecordedUnits() {
+        DurationHistory history = DurationHistory.load(file);
+        Assert.assertEquals(history.meanEstimate(60_000), 60_000);
+        history.record("a", 1000);
+        history.record("b", 3000);
+        Assert.assertEquals(history.meanEstimate(60_000), 2000);
+    }
+
+    @Test
+    public void recordAllCountsAsOneMoreMeasurement() {
+        DurationHistory history = DurationHistory.load(file);
+        history.record("a", 1000);
+        DurationHistory shard = DurationHistory.load(file.resolveSibling("unused-shard.json"));
+        shard.record("a", 3000);
+        shard.record("b", 400);
+        history.recordAll(shard);
+        Assert.assertEquals(history.estimate("a", 0), 2000);
+        Assert.assertEquals(history.estimate("b", 0), 400);
+    }
+
+    @Test
+    public void savedHistoryLoadsBack() {
+        DurationHistory history = DurationHistory.load(file);
+        history.record("unit", 1000);
+        history.record("unit", 2000);
+        history.save();
+        DurationHistory loaded = DurationHistory.load(file);
+        Assert.assertEquals(loaded.estimate("unit", 0), 1500);
+        loaded.record("unit", 500);
+        Assert.assertEquals(loaded.estimate("unit", 0), 1000);
+    }
+
+    @Test
+    public void unreadableFileStartsEmpty() throws IOException {
+        Files.writeString(file, "{ not json", StandardCharsets.UTF_8);
+        Assert.assertEquals(DurationHistory.load(file).estimate("unit", 7), 7);
+    }
+}
@@ -0,0 +1,37 @@
+package execution;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the makespan prediction of {@link MatrixScheduler}: slots take the next unit as soon as they are free.
+ */
+public class MatrixSchedulerTest {
+
+    @Test
+    public void oneSlotRunsEverythingInSequence() {
+        Assert.assertEquals(MatrixScheduler.predictMakespan(new long[]{7, 5, 4, 3, 1}, 1), 20);
+    }
+
+    @Test
+    public void spareSlotsFinishWithTheLongestUnit() {
+        Assert.assertEquals(MatrixScheduler.predictMakespan(new long[]{7, 5, 4}, 8), 7);
+    }
+
+    @Test
+    public void longestFirstPacksEvenly() {
+        // 7 | 5, then 4 joins 5, 3 joins 7, 1 joins 9: both slots end at 10
+        Assert.assertEquals(MatrixScheduler.predictMakespan(new long[]{7, 5, 4, 3, 1}, 2), 10);
+    }
+
+    @Test
+    public void followsTheGivenOrder() {
+        // shortest first leaves the longest unit for the end
+        Assert.assertEquals(MatrixScheduler.predictMakespan(new long[]{1, 3, 4, 5, 7}, 2), 12);
+    }
+
+    @Test
+    public void noUnitsTakeNoTime() {
+        Assert.assertEquals(MatrixScheduler.predictMakespan(new long[0], 3), 0);
+    }
+}
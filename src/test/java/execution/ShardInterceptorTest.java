@@ -0,0 +1,120 @@
+package execution;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the method assignment and the data-provider row split of {@link ShardInterceptor}.
+ */
+public class ShardInterceptorTest {
+    private static final String METHOD = "Suite/bingTests.BingSearchTermsTests.verifySearchReturnsResults";
+
+    private Path file;
+
+    @BeforeMethod
+    public void createFile() throws IOException {
+        file = Files.createTempFile("methods", ".json");
+        Files.delete(file);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void packsLongestFirstOntoTheLeastLoadedShard() {
+        Map<String, Long> weights = Map.of("a", 10L, "b", 8L, "c", 5L, "d", 4L, "e", 3L);
+        Map<String, Integer> assignment = ShardInterceptor.pack(weights, 2);
+        // a | b, then c joins b (8), d joins a (10), e joins b (13)
+        Assert.assertEquals(assignment, Map.of("a", 0, "b", 1, "c", 1, "d", 0, "e", 1));
+    }
+
+    @Test
+    public void assignmentDoesNotDependOnIterationOrder() {
+        Map<String, Long> weights = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            weights.put("method" + i, (long) (i % 4) * 100);
+        }
+        Map<String, Integer> assignment = ShardInterceptor.pack(weights, 3);
+        Assert.assertEquals(ShardInterceptor.pack(new TreeMap<>(weights), 3), assignment);
+        Assert.assertEquals(assignment.keySet(), weights.keySet());
+        long[] loads = new long[3];
+        assignment.forEach((key, shard) -> loads[shard] += weights.get(key));
+        Assert.assertTrue(spread(loads) <= 300, "unbalanced loads " + Arrays.toString(loads));
+    }
+
+    @Test
+    public void everyRowRunsOnExactlyOneShard() {
+        DurationHistory durations = DurationHistory.load(file);
+        List<Object[]> rows = rows(17);
+        Set<String> seen = new HashSet<>();
+        int[] counts = new int[3];
+        for (int index = 0; index < 3; index++) {
+            ShardInterceptor.ShardedRows sharded = new ShardInterceptor.ShardedRows(rows.iterator(), METHOD,
+                    new ShardSpec(index, 3), durations);
+            while (sharded.hasNext()) {
+                Assert.assertTrue(seen.add((String) sharded.next()[0]), "row on two shards");
+                counts[index]++;
+            }
+        }
+        Assert.assertEquals(seen.size(), 17);
+        for (int count : counts) {
+            Assert.assertTrue(count == 5 || count == 6, "uneven split without history " + Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    public void recordedRowDurationsBalanceTheSplit() {
+        DurationHistory durations = DurationHistory.load(file);
+        List<Object[]> rows = rows(6);
+        durations.record(ShardInterceptor.rowKey(METHOD, rows.get(0)), 5000);
+        for (Object[] row : rows.subList(1, rows.size())) {
+            durations.record(ShardInterceptor.rowKey(METHOD, row), 1000);
+        }
+        List<List<String>> split = new ArrayList<>();
+        for (int index = 0; index < 2; index++) {
+            List<String> kept = new ArrayList<>();
+            new ShardInterceptor.ShardedRows(rows.iterator(), METHOD, new ShardSpec(index, 2), durations)
+                    .forEachRemaining(row -> kept.add((String) row[0]));
+            split.add(kept);
+        }
+        // the slow row fills one shard on its own while the five fast rows go to the other
+        List<String> slowShard = split.get(0).contains("row0") ? split.get(0) : split.get(1);
+        List<String> fastShard = slowShard == split.get(0) ? split.get(1) : split.get(0);
+        Assert.assertEquals(slowShard, List.of("row0"));
+        Assert.assertEquals(fastShard, List.of("row1", "row2", "row3", "row4", "row5"));
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"row" + i});
+        }
+        return rows;
+    }
+
+    private static long spread(long[] loads) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long load : loads) {
+            min = Math.min(min, load);
+            max = Math.max(max, load);
+        }
+        return max - min;
+    }
+}
@@ -0,0 +1,131 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for the layer precedence and typed reads of {@link ConfigSnapshot}. A config file and a
+ * {@code unit} profile are written to a temporary folder and selected with system properties.
+ */
+public class ConfigSnapshotTest {
+    private static final List<String> PROPERTIES = List.of("config.file", "config.profile", "layer.system", "layer.undefined");
+
+    enum Mode { fast, Slow }
+
+    private Path folder;
+    private ConfigSnapshot snapshot;
+
+    @BeforeClass
+    public void loadLayers() throws IOException {
+        folder = Files.createTempDirectory("config");
+        Files.writeString(folder.resolve("config.properties"), String.join("\n",
+                "pool.maxSessionsPerBrowser=7",
+                "layer.key=file",
+                "layer.fileOnly=file",
+                "layer.system=file",
+                "duration.iso=PT1M30S",
+                "duration.millis=500ms",
+                "duration.seconds=30s",
+                "duration.minutes=2m",
+                "duration.hours=1h",
+                "duration.plain=15",
+                "duration.bad=soon",
+                "enum.exact=Slow",
+                "enum.anyCase=FAST",
+                "enum.blank= ",
+                "enum.unknown=medium",
+                "list.items= a, b ,,c ",
+                "number.bad=many"), StandardCharsets.ISO_8859_1);
+        Files.writeString(folder.resolve("config-unit.properties"), "layer.key=profile\n", StandardCharsets.ISO_8859_1);
+        System.setProperty("config.file", folder.resolve("config.properties").toString());
+        System.setProperty("config.profile", "unit");
+        System.setProperty("layer.system", "system");
+        System.setProperty("layer.undefined", "system");
+        snapshot = ConfigSnapshot.load();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void clearLayers() throws IOException {
+        PROPERTIES.forEach(System::clearProperty);
+        for (String name : List.of("config.properties", "config-unit.properties")) {
+            Files.deleteIfExists(folder.resolve(name));
+        }
+        Files.deleteIfExists(folder);
+    }
+
+    @Test
+    public void laterLayersOverrideEarlierOnes() {
+        Assert.assertEquals(snapshot.get("pool.maxSessionsPerBrowser"), "7", "config file over classpath");
+        Assert.assertEquals(snapshot.get("layer.fileOnly"), "file");
+        Assert.assertEquals(snapshot.get("layer.key"), "profile", "profile over config file");
+        Assert.assertEquals(snapshot.get("layer.system"), "system", "system property over config file");
+        Assert.assertNull(snapshot.get("layer.undefined"), "system properties only override defined keys");
+    }
+
+    @Test
+    public void sourcesNameTheWinningLayer() {
+        Assert.assertEquals(snapshot.source("layer.fileOnly"), folder.resolve("config.properties").toString());
+        Assert.assertEquals(snapshot.source("layer.key"), folder.resolve("config-unit.properties").toString());
+        Assert.assertEquals(snapshot.source("layer.system"), "-Dlayer.system");
+        Assert.assertEquals(snapshot.files(), List.of(folder.resolve("config.properties"), folder.resolve("config-unit.properties")));
+    }
+
+    @Test
+    public void parsesDurations() {
+        Duration fallback = Duration.ofDays(1);
+        Assert.assertEquals(snapshot.getDuration("duration.iso", ChronoUnit.SECONDS, fallback), Duration.ofSeconds(90));
+        Assert.assertEquals(snapshot.getDuration("duration.millis", ChronoUnit.SECONDS, fallback), Duration.ofMillis(500));
+        Assert.assertEquals(snapshot.getDuration("duration.seconds", ChronoUnit.MILLIS, fallback), Duration.ofSeconds(30));
+        Assert.assertEquals(snapshot.getDuration("duration.minutes", ChronoUnit.SECONDS, fallback), Duration.ofMinutes(2));
+        Assert.assertEquals(snapshot.getDuration("duration.hours", ChronoUnit.SECONDS, fallback), Duration.ofHours(1));
+        Assert.assertEquals(snapshot.getDuration("duration.plain", ChronoUnit.SECONDS, fallback), Duration.ofSeconds(15));
+        Assert.assertEquals(snapshot.getDuration("duration.plain", ChronoUnit.MILLIS, fallback), Duration.ofMillis(15));
+        Assert.assertEquals(snapshot.getDuration("duration.bad", ChronoUnit.SECONDS, fallback), fallback);
+        Assert.assertEquals(snapshot.getDuration("duration.missing", ChronoUnit.SECONDS, fallback), fallback);
+    }
+
+    @Test
+    public void parsesEnumsStrictly() {
+        Assert.assertEquals(snapshot.getEnum("enum.exact", Mode.class, Mode.fast), Mode.Slow);
+        Assert.assertEquals(snapshot.getEnum("enum.anyCase", Mode.class, Mode.Slow), Mode.fast);
+        Assert.assertEquals(snapshot.getEnum("enum.blank", Mode.class, Mode.Slow), Mode.Slow);
+        Assert.assertEquals(snapshot.getEnum("enum.missing", Mode.class, Mode.Slow), Mode.Slow);
+        IllegalArgumentException error = Assert.expectThrows(IllegalArgumentException.class,
+                () -> snapshot.getEnum("enum.unknown", Mode.class, Mode.fast));
+        Assert.assertTrue(error.getMessage().contains("[fast, Slow]"), error.getMessage());
+        // a failed parse is not memoized as the default
+        Assert.assertThrows(IllegalArgumentException.class, () -> snapshot.getEnum("enum.unknown", Mode.class, Mode.fast));
+    }
+
+    @Test
+    public void otherTypedReadsFallBackOnMalformedValues() {
+        Assert.assertEquals(snapshot.getInt("pool.maxSessionsPerBrowser", 1), 7);
+        Assert.assertEquals(snapshot.getInt("number.bad", 3), 3);
+        Assert.assertEquals(snapshot.getDouble("number.bad", 0.5), 0.5);
+        Assert.assertEquals(snapshot.getList("list.items"), List.of("a", "b", "c"));
+        Assert.assertSame(snapshot.getList("list.items"), snapshot.getList("list.items"), "parsed value is memoized");
+    }
+
+    @Test
+    public void reportsChangedKeys() {
+        System.clearProperty("layer.system");
+        try {
+            ConfigSnapshot reloaded = ConfigSnapshot.load();
+            Assert.assertEquals(reloaded.get("layer.system"), "file");
+            Assert.assertEquals(reloaded.changedSince(snapshot), Set.of("layer.system"));
+        } finally {
+            System.setProperty("layer.system", "system");
+        }
+    }
+}
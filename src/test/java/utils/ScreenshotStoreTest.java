@@ -0,0 +1,96 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Unit tests for the deduplication and delta round-trip of {@link ScreenshotStore}, on generated images
+ * written to the configured store.
+ */
+public class ScreenshotStoreTest {
+
+    @Test
+    public void deltaRestoresTheExactCapture() throws IOException {
+        BufferedImage image = noise(200, 150, System.nanoTime());
+        byte[] base = Raster.of(image).toPng();
+        ScreenshotStore.Entry baseEntry = ScreenshotStore.store(ScreenshotStore.id(base), base, "png", "deltaRoundTrip");
+        Assert.assertEquals(baseEntry.kind(), ScreenshotStore.Kind.blob);
+
+        for (int y = 70; y < 80; y++) {
+            for (int x = 100; x < 110; x++) {
+                image.setRGB(x, y, 0xFF0000);
+            }
+        }
+        byte[] changed = Raster.of(image).toPng();
+        String id = ScreenshotStore.id(changed);
+        ScreenshotStore.Entry entry = ScreenshotStore.store(id, changed, "png", "deltaRoundTrip");
+        Assert.assertEquals(entry.kind(), ScreenshotStore.Kind.delta);
+        Assert.assertEquals(entry.base(), baseEntry.id() + ".png");
+        Assert.assertTrue(entry.storedBytes() < changed.length, "delta is not smaller than the capture");
+
+        Raster restored = Raster.decode(ScreenshotStore.restore(id));
+        Assert.assertEquals(restored.width(), 200);
+        Assert.assertEquals(restored.height(), 150);
+        Assert.assertEquals(restored.pixels(), Raster.of(image).pixels());
+    }
+
+    @Test
+    public void identicalCaptureIsStoredOnce() throws IOException {
+        byte[] png = Raster.of(noise(64, 64, System.nanoTime())).toPng();
+        String id = ScreenshotStore.id(png);
+        ScreenshotStore.Entry first = ScreenshotStore.store(id, png, "png", "dedup");
+        ScreenshotStore.Entry second = ScreenshotStore.store(id, png, "png", "dedup");
+        Assert.assertEquals(second.kind(), ScreenshotStore.Kind.duplicate);
+        Assert.assertEquals(second.path(), first.path());
+        Assert.assertEquals(second.storedBytes(), 0);
+        Assert.assertEquals(ScreenshotStore.restore(id), png);
+    }
+
+    @Test
+    public void viewOfADeltaIsTheFullImage() throws IOException {
+        BufferedImage image = noise(128, 128, System.nanoTime());
+        byte[] base = Raster.of(image).toPng();
+        ScreenshotStore.store(ScreenshotStore.id(base), base, "png", "view");
+        image.setRGB(5, 5, 0x00FF00);
+        byte[] changed = Raster.of(image).toPng();
+        ScreenshotStore.Entry entry = ScreenshotStore.store(ScreenshotStore.id(changed), changed, "png", "view");
+        Assert.assertEquals(entry.kind(), ScreenshotStore.Kind.delta);
+        long written = ScreenshotStore.getSummary().bytesWritten();
+        long viewBytes = ScreenshotStore.view(entry.id(), "png");
+        Assert.assertTrue(viewBytes > 0, "the view of a delta is not written in full");
+        Assert.assertEquals(ScreenshotStore.getSummary().bytesWritten(), written + viewBytes);
+        Path view = ScreenshotStore.viewFile(entry.id(), "png");
+        Assert.assertEquals(Raster.decode(Files.readAllBytes(view)).pixels(), Raster.of(image).pixels());
+    }
+
+    @Test
+    public void viewOfABlobIsLinkedNotCopied() throws IOException {
+        byte[] png = Raster.of(noise(48, 48, System.nanoTime())).toPng();
+        ScreenshotStore.Entry entry = ScreenshotStore.store(ScreenshotStore.id(png), png, "png", "view");
+        Assert.assertEquals(entry.kind(), ScreenshotStore.Kind.blob);
+        Assert.assertEquals(ScreenshotStore.view(entry.id(), "png"), 0);
+        Assert.assertEquals(Files.readAllBytes(ScreenshotStore.viewFile(entry.id(), "png")), png);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void unknownCaptureCannotBeRestored() throws IOException {
+        ScreenshotStore.restore(ScreenshotStore.id(new byte[]{1, 2, 3}));
+    }
+
+    private static BufferedImage noise(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,111 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for the pixel budget, ignore regions and channel tolerance of {@link VisualDiff}.
+ */
+public class VisualDiffTest {
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+
+    @Test
+    public void identicalImagesPass() {
+        VisualDiff.Result result = VisualDiff.compare(page(), page(), List.of(), 64, 0, 0);
+        Assert.assertTrue(result.passed(), result.toString());
+        Assert.assertEquals(result.differentPixels(), 0);
+        Assert.assertEquals(result.changedTiles(), 0);
+        Assert.assertTrue(result.complete());
+    }
+
+    @Test
+    public void changeWithinBudgetPasses() {
+        Raster actual = page();
+        paint(actual, new Rectangle(10, 10, 5, 4), 0xFFFF0000);
+        VisualDiff.Result result = VisualDiff.compare(page(), actual, List.of(), 64, 0, 20);
+        Assert.assertTrue(result.passed(), result.toString());
+        Assert.assertEquals(result.differentPixels(), 20);
+        Assert.assertEquals(result.changedTiles(), 1);
+    }
+
+    @Test
+    public void changeOverBudgetFails() {
+        Raster actual = page();
+        paint(actual, new Rectangle(10, 10, 5, 4), 0xFFFF0000);
+        VisualDiff.Result result = VisualDiff.compare(page(), actual, List.of(), 64, 0, 19);
+        Assert.assertFalse(result.passed(), result.toString());
+        Assert.assertEquals(result.differentPixels(), 20);
+    }
+
+    @Test
+    public void comparisonStopsOnceTheBudgetIsExceeded() {
+        Raster actual = page();
+        paint(actual, new Rectangle(0, 0, WIDTH, HEIGHT), 0xFF000000);
+        VisualDiff.Result result = VisualDiff.compare(page(), actual, List.of(), 8, 0, 10);
+        Assert.assertFalse(result.passed());
+        Assert.assertFalse(result.complete(), "every tile was compared: " + result);
+        Assert.assertTrue(result.differentPixels() > 10);
+        Assert.assertTrue(result.changedTiles() < (WIDTH / 8) * (HEIGHT / 8), result.toString());
+    }
+
+    @Test
+    public void ignoredRegionsAreNotCounted() {
+        Raster actual = page();
+        paint(actual, new Rectangle(100, 50, 80, 60), 0xFF00FF00);
+        paint(actual, new Rectangle(250, 150, 2, 2), 0xFF00FF00);
+        // the mask spans several tiles and only covers the first change
+        VisualDiff.Result result = VisualDiff.compare(page(), actual, List.of(new Rectangle(95, 45, 90, 70)), 64, 0, 0);
+        Assert.assertEquals(result.differentPixels(), 4);
+        Assert.assertFalse(result.passed());
+
+        VisualDiff.Result masked = VisualDiff.compare(page(), actual,
+                List.of(new Rectangle(95, 45, 90, 70), new Rectangle(250, 150, 2, 2)), 64, 0, 0);
+        Assert.assertTrue(masked.passed(), masked.toString());
+    }
+
+    @Test
+    public void channelToleranceAbsorbsSmallDifferences() {
+        Raster actual = page();
+        paint(actual, new Rectangle(0, 30, 10, 10), 0xFFFAFAFA);
+        Assert.assertEquals(VisualDiff.compare(page(), actual, List.of(), 64, 5, 0).differentPixels(), 0);
+        Assert.assertEquals(VisualDiff.compare(page(), actual, List.of(), 64, 4, 0).differentPixels(), 100);
+    }
+
+    @Test
+    public void sizeMismatchFails() {
+        Raster smaller = new Raster(WIDTH, HEIGHT - 1, new int[WIDTH * (HEIGHT - 1)]);
+        VisualDiff.Result result = VisualDiff.compare(page(), smaller, List.of(), 64, 0, Long.MAX_VALUE);
+        Assert.assertFalse(result.passed());
+        Assert.assertTrue(result.failure().startsWith("size"), result.failure());
+    }
+
+    @Test
+    public void diffImageMarksDifferencesAndMasks() {
+        Raster actual = page();
+        paint(actual, new Rectangle(10, 10, 2, 2), 0xFFFF00FF);
+        Raster diff = VisualDiff.diffImage(page(), actual, List.of(new Rectangle(50, 50, 10, 10)), 0);
+        Assert.assertEquals(diff.pixels()[10 * WIDTH + 10], 0xFFFF0000);
+        Assert.assertEquals(diff.pixels()[55 * WIDTH + 55], 0xFFB0C8FF);
+        Assert.assertNotEquals(diff.pixels()[0], 0xFFFF0000);
+    }
+
+    /** A white page with a grey bar, identical on every call. */
+    private static Raster page() {
+        int[] pixels = new int[WIDTH * HEIGHT];
+        Arrays.fill(pixels, 0xFFFFFFFF);
+        Raster page = new Raster(WIDTH, HEIGHT, pixels);
+        paint(page, new Rectangle(0, 0, WIDTH, 20), 0xFF808080);
+        return page;
+    }
+
+    private static void paint(Raster raster, Rectangle area, int color) {
+        for (int y = area.y; y < area.y + area.height; y++) {
+            Arrays.fill(raster.pixels(), y * raster.width() + area.x, y * raster.width() + area.x + area.width, color);
+        }
+    }
+}